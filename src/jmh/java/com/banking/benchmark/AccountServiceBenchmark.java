@@ -0,0 +1,120 @@
+package com.banking.benchmark;
+
+import com.banking.BankingManagementSystemApplication;
+import com.banking.dto.CreateAccountRequest;
+import com.banking.dto.TransactionRequest;
+import com.banking.money.Money;
+import com.banking.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccountService hot paths against an embedded H2 database seeded with
+ * {@code accounts} CURRENT accounts, each with {@code history} transactions.
+ * Reports throughput and sampled latency percentiles; this class runs on one
+ * thread, {@link ContendedAccountServiceBenchmark} on eight.
+ *
+ * <pre>mvn -Pjmh compile exec:exec -Djmh.args="AccountService"</pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class AccountServiceBenchmark {
+
+  static final int FIRST_ACCOUNT = 100_000;
+  static final String PASSWORD = "bench-pass";
+
+  @State(Scope.Benchmark)
+  public static class Bank {
+
+    @Param({"jpa", "ledger"})
+    public String engine;
+
+    @Param({"1000"})
+    public int accounts;
+
+    @Param({"20"})
+    public int history;
+
+    ConfigurableApplicationContext context;
+    AccountService accountService;
+    Path ledgerDir;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+      ledgerDir = Files.createTempDirectory("bench-ledger");
+      context = new SpringApplicationBuilder(BankingManagementSystemApplication.class)
+          .web(WebApplicationType.NONE)
+          .properties(
+              "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+              "spring.jpa.show-sql=false",
+              "spring.jpa.properties.hibernate.format_sql=false",
+              "logging.level.root=WARN",
+              "logging.level.com.banking=WARN",
+              "banking.ledger.enabled=" + "ledger".equals(engine),
+              "banking.ledger.queue-file=" + ledgerDir.resolve("ledger.queue"))
+          .run();
+      accountService = context.getBean(AccountService.class);
+
+      for (int i = 0; i < accounts; i++) {
+        accountService.createAccount(new CreateAccountRequest(FIRST_ACCOUNT + i, PASSWORD,
+            Money.ofMajor(1_000_000_000L), "CURRENT"));
+      }
+      for (int h = 0; h < history; h++) {
+        for (int i = 0; i < accounts; i++) {
+          accountService.deposit(new TransactionRequest(FIRST_ACCOUNT + i, Money.ofMajor(1), null, null));
+        }
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+      context.close();
+    }
+
+    int randomAccount() {
+      return FIRST_ACCOUNT + ThreadLocalRandom.current().nextInt(accounts);
+    }
+  }
+
+  @Benchmark
+  public Object deposit(Bank bank) {
+    return bank.accountService.deposit(new TransactionRequest(bank.randomAccount(), 1_00L, null, null));
+  }
+
+  @Benchmark
+  public Object withdraw(Bank bank) {
+    return bank.accountService.withdraw(new TransactionRequest(bank.randomAccount(), 1_00L, null, null));
+  }
+
+  @Benchmark
+  public void transfer(Bank bank) {
+    int source = bank.randomAccount();
+    int target = bank.randomAccount();
+    while (target == source) {
+      target = bank.randomAccount();
+    }
+    bank.accountService.transfer(new TransactionRequest(source, 1_00L, null, target));
+  }
+
+  @Benchmark
+  public boolean authenticate(Bank bank) {
+    return bank.accountService.authenticate(bank.randomAccount(), PASSWORD);
+  }
+
+  @Benchmark
+  public Object getTransactions(Bank bank) {
+    return bank.accountService.getTransactions(bank.randomAccount(), null, AccountService.DEFAULT_PAGE_SIZE);
+  }
+}
@@ -0,0 +1,163 @@
+package com.banking.benchmark;
+
+import com.banking.BankingManagementSystemApplication;
+import com.banking.concurrency.OptimisticRetryAspect;
+import com.banking.dto.CreateAccountRequest;
+import com.banking.dto.TransactionRequest;
+import com.banking.money.Money;
+import com.banking.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposits and transfers on eight threads under each
+ * {@code banking.concurrency.strategy}, with accounts picked from a Zipf
+ * distribution: {@code skew=0} is uniform, {@code 1} is a typical hot set,
+ * and at {@code 2} the hottest account takes about 60% of the traffic.
+ * Transfers always move money between two different accounts. Retries and
+ * failed operations, which throughput alone does not show, are reported next
+ * to it as the {@code retries} and {@code failures} secondary results.
+ *
+ * <pre>mvn -Pjmh compile exec:exec -Djmh.args="ConcurrencyStrategyBenchmark"</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ConcurrencyStrategyBenchmark {
+
+  private static final int FIRST_ACCOUNT = 100_000;
+
+  @Param({"optimistic", "pessimistic", "atomic"})
+  public String strategy;
+
+  @Param({"0", "1", "2"})
+  public double skew;
+
+  @Param({"1000"})
+  public int accounts;
+
+  private ConfigurableApplicationContext context;
+  private AccountService accountService;
+  private OptimisticRetryAspect retries;
+  private double[] cumulative;
+
+  /**
+   * Per-thread secondary results. Retries are only counted by the optimistic
+   * strategy's aspect, as one bank-wide total, so the first thread alone
+   * reports how far that total moved between its own calls.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Outcomes {
+
+    public long retries;
+    public long failures;
+
+    private OptimisticRetryAspect aspect;
+    private boolean reportsRetries;
+    private long lastSeen;
+
+    @Setup(Level.Trial)
+    public void attach(ConcurrencyStrategyBenchmark benchmark, ThreadParams thread) {
+      aspect = benchmark.retries;
+      reportsRetries = aspect != null && thread.getThreadIndex() == 0;
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      retries = 0;
+      failures = 0;
+      lastSeen = reportsRetries ? aspect.retries() : 0;
+    }
+
+    void observeRetries() {
+      if (reportsRetries) {
+        long now = aspect.retries();
+        retries += now - lastSeen;
+        lastSeen = now;
+      }
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void start() {
+    context = new SpringApplicationBuilder(BankingManagementSystemApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties(
+            "spring.datasource.url=jdbc:h2:mem:contention;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000",
+            "spring.jpa.show-sql=false",
+            "spring.jpa.properties.hibernate.format_sql=false",
+            "logging.level.root=WARN",
+            "logging.level.com.banking=WARN",
+            "banking.concurrency.strategy=" + strategy)
+        .run();
+    accountService = context.getBean(AccountService.class);
+    retries = context.getBeanProvider(OptimisticRetryAspect.class).getIfAvailable();
+
+    for (int i = 0; i < accounts; i++) {
+      accountService.createAccount(new CreateAccountRequest(FIRST_ACCOUNT + i, "bench-pass",
+          Money.ofMajor(1_000_000_000L), "CURRENT"));
+    }
+
+    cumulative = new double[accounts];
+    double total = 0;
+    for (int k = 0; k < accounts; k++) {
+      total += 1 / Math.pow(k + 1, skew);
+      cumulative[k] = total;
+    }
+    for (int k = 0; k < accounts; k++) {
+      cumulative[k] /= total;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  int pickAccount() {
+    int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+    return FIRST_ACCOUNT + Math.min(index < 0 ? -index - 1 : index, accounts - 1);
+  }
+
+  @Benchmark
+  public Object deposit(Outcomes outcomes) {
+    try {
+      return accountService.deposit(new TransactionRequest(pickAccount(), 1_00L, null, null));
+    } catch (RuntimeException e) {
+      outcomes.failures++;
+      return e;
+    } finally {
+      outcomes.observeRetries();
+    }
+  }
+
+  @Benchmark
+  public Object transfer(Outcomes outcomes) {
+    int from = pickAccount();
+    int to = pickAccount();
+    while (to == from) {
+      to = pickAccount();
+    }
+    try {
+      accountService.transfer(new TransactionRequest(from, 1_00L, null, to));
+      return null;
+    } catch (RuntimeException e) {
+      outcomes.failures++;
+      return e;
+    } finally {
+      outcomes.observeRetries();
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.banking.benchmark;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * The {@link AccountServiceBenchmark} operations on eight threads at once, so
+ * lock and connection-pool contention shows up in the percentiles.
+ */
+@Threads(8)
+public class ContendedAccountServiceBenchmark extends AccountServiceBenchmark {
+}
@@ -0,0 +1,111 @@
+package com.banking.benchmark;
+
+import com.banking.events.EventRing;
+import com.banking.events.WaitStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hand-off cost of the transaction event ring against one
+ * {@link ArrayBlockingQueue} per consumer (what fan-out to independent
+ * consumers needs with queues), with two publishing threads and two
+ * consumers. Publishers wait for space instead of dropping, so the score is
+ * sustained throughput. {@code busy-spin} needs a free core per consumer.
+ *
+ * <pre>mvn -Pjmh compile exec:exec -Djmh.args="EventRing -prof gc"</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(2)
+public class EventRingBenchmark {
+
+  static final int CONSUMERS = 2;
+
+  @State(Scope.Benchmark)
+  public static class Bus {
+
+    @Param({"queue", "blocking", "sleeping", "yielding", "busy-spin"})
+    public String waitStrategy;
+
+    @Param({"4096"})
+    public int bufferSize;
+
+    EventRing<Event> ring;
+    List<EventRing.Consumer<Event>> consumers = new ArrayList<>();
+    List<ArrayBlockingQueue<Long>> queues = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    final AtomicLong next = new AtomicLong();
+    volatile long sink;
+
+    @Setup(Level.Trial)
+    public void start() {
+      if ("queue".equals(waitStrategy)) {
+        for (int i = 0; i < CONSUMERS; i++) {
+          ArrayBlockingQueue<Long> queue = new ArrayBlockingQueue<>(bufferSize);
+          queues.add(queue);
+          startThread(() -> {
+            try {
+              while (true) {
+                sink += queue.take();
+              }
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+        }
+        return;
+      }
+      ring = new EventRing<>(bufferSize, Event::new, WaitStrategy.named(waitStrategy));
+      for (int i = 0; i < CONSUMERS; i++) {
+        EventRing.Consumer<Event> consumer = ring.subscribe("consumer-" + i,
+            (event, sequence, endOfBatch) -> sink += event.value, 256);
+        consumers.add(consumer);
+        startThread(consumer);
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+      consumers.forEach(EventRing.Consumer::halt);
+      threads.forEach(Thread::interrupt);
+    }
+
+    private void startThread(Runnable work) {
+      Thread thread = new Thread(work, "bench-consumer-" + threads.size());
+      thread.setDaemon(true);
+      thread.start();
+      threads.add(thread);
+    }
+  }
+
+  static final class Event {
+    long value;
+  }
+
+  @Benchmark
+  public void publish(Bus bus) throws InterruptedException {
+    long value = bus.next.incrementAndGet();
+    if (bus.ring == null) {
+      // Boxed once and shared, as a real event object would be
+      Long event = value;
+      for (ArrayBlockingQueue<Long> queue : bus.queues) {
+        queue.put(event);
+      }
+      return;
+    }
+    long sequence;
+    while ((sequence = bus.ring.tryClaim()) < 0) {
+      Thread.yield();
+    }
+    bus.ring.get(sequence).value = value;
+    bus.ring.publish(sequence);
+  }
+}
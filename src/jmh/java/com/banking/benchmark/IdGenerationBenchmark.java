@@ -0,0 +1,109 @@
+package com.banking.benchmark;
+
+import com.banking.BankingManagementSystemApplication;
+import com.banking.dto.BatchTransferRequest;
+import com.banking.dto.CreateAccountRequest;
+import com.banking.dto.TransactionRequest;
+import com.banking.money.Money;
+import com.banking.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Insert throughput with {@code identity} ids and no JDBC batching (the old
+ * mapping, restored through {@code META-INF/identity-ids.xml}) against the
+ * {@code pooled} sequences with batching. {@code transferBatch} moves 100
+ * transfers per call and shows the effect on bulk work.
+ *
+ * <pre>mvn -Pjmh compile exec:exec -Djmh.args="IdGenerationBenchmark"</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark {
+
+  private static final int ACCOUNTS = 1000;
+  private static final int FIRST_ACCOUNT = 100_000;
+  private static final int BATCH = 100;
+
+  @Param({"identity", "pooled"})
+  public String ids;
+
+  private ConfigurableApplicationContext context;
+  private AccountService accountService;
+  private final AtomicInteger nextAccountNumber = new AtomicInteger(1_000_000);
+
+  @Setup(Level.Trial)
+  public void start() {
+    List<String> properties = new ArrayList<>(List.of(
+        "spring.datasource.url=jdbc:h2:mem:ids;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.root=WARN",
+        "logging.level.com.banking=WARN"));
+    if ("identity".equals(ids)) {
+      properties.add("spring.jpa.mapping-resources=META-INF/identity-ids.xml");
+      properties.add("spring.jpa.properties.hibernate.jdbc.batch_size=1");
+    }
+    context = new SpringApplicationBuilder(BankingManagementSystemApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties(properties.toArray(String[]::new))
+        .run();
+    accountService = context.getBean(AccountService.class);
+    for (int i = 0; i < ACCOUNTS; i++) {
+      accountService.createAccount(new CreateAccountRequest(FIRST_ACCOUNT + i, "bench-pass",
+          Money.ofMajor(1_000_000_000L), "CURRENT"));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  @Benchmark
+  public Object createAccount() {
+    return accountService.createAccount(new CreateAccountRequest(nextAccountNumber.incrementAndGet(),
+        "bench-pass", Money.ofMajor(1000), "CURRENT"));
+  }
+
+  @Benchmark
+  public void transfer() {
+    int source = randomAccount();
+    accountService.transfer(new TransactionRequest(source, 1_00L, null, otherAccount(source)));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public Object transferBatch() {
+    List<TransactionRequest> transfers = new ArrayList<>(BATCH);
+    for (int i = 0; i < BATCH; i++) {
+      int source = randomAccount();
+      transfers.add(new TransactionRequest(source, 1_00L, null, otherAccount(source)));
+    }
+    return accountService.transferBatch(new BatchTransferRequest(transfers, BatchTransferRequest.BEST_EFFORT));
+  }
+
+  private static int randomAccount() {
+    return FIRST_ACCOUNT + ThreadLocalRandom.current().nextInt(ACCOUNTS);
+  }
+
+  private static int otherAccount(int source) {
+    int target = randomAccount();
+    while (target == source) {
+      target = randomAccount();
+    }
+    return target;
+  }
+}
@@ -0,0 +1,105 @@
+package com.banking.benchmark;
+
+import com.banking.money.Money;
+import com.banking.service.AccountRules;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boxed {@code Double} balances, as the entities used to hold them, against
+ * primitive minor units. Each invocation runs a deposit loop and an interest
+ * pass over {@code size} accounts. Run with {@code -prof gc} to compare
+ * allocation per operation.
+ *
+ * <pre>mvn -Pjmh compile exec:exec -Djmh.args="MoneyBenchmark -prof gc"</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+  @Param({"1000"})
+  private int size;
+
+  private double[] doubleAmounts;
+  private long[] minorAmounts;
+  private BoxedAccount[] boxedAccounts;
+  private long[] minorBalances;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    doubleAmounts = new double[size];
+    minorAmounts = new long[size];
+    boxedAccounts = new BoxedAccount[size];
+    minorBalances = new long[size];
+    for (int i = 0; i < size; i++) {
+      long minor = 100 + random.nextInt(1_000_000);
+      minorAmounts[i] = minor;
+      doubleAmounts[i] = minor / 100.0;
+      boxedAccounts[i] = new BoxedAccount(minor / 100.0);
+      minorBalances[i] = minor;
+    }
+  }
+
+  @Benchmark
+  public Double boxedDoubleDeposits() {
+    BoxedAccount account = new BoxedAccount(1000.0);
+    for (double amount : doubleAmounts) {
+      Double boxed = amount;
+      account.setBalance(account.getBalance() + boxed);
+    }
+    return account.getBalance();
+  }
+
+  @Benchmark
+  public long minorUnitDeposits() {
+    long balance = Money.ofMajor(1000);
+    for (long amount : minorAmounts) {
+      balance = Money.add(balance, amount);
+    }
+    return balance;
+  }
+
+  @Benchmark
+  public Double boxedDoubleInterest() {
+    Double total = 0.0;
+    for (BoxedAccount account : boxedAccounts) {
+      double monthlyRate = 4.0 / 12;
+      Double interest = (account.getBalance() * monthlyRate) / 100;
+      total = total + interest;
+    }
+    return total;
+  }
+
+  @Benchmark
+  public long minorUnitInterest() {
+    long total = 0;
+    for (long balance : minorBalances) {
+      total = Money.add(total, AccountRules.monthlyInterest(balance));
+    }
+    return total;
+  }
+
+  // Mirrors the old entity shape: a boxed field behind getter and setter
+  private static final class BoxedAccount {
+    private Double balance;
+
+    BoxedAccount(Double balance) {
+      this.balance = balance;
+    }
+
+    Double getBalance() {
+      return balance;
+    }
+
+    void setBalance(Double balance) {
+      this.balance = balance;
+    }
+  }
+}
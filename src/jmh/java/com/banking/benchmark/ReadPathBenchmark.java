@@ -0,0 +1,128 @@
+package com.banking.benchmark;
+
+import com.banking.BankingManagementSystemApplication;
+import com.banking.dto.AccountDTO;
+import com.banking.dto.CreateAccountRequest;
+import com.banking.dto.TransactionRequest;
+import com.banking.entity.Account;
+import com.banking.money.Money;
+import com.banking.repository.AccountRepository;
+import com.banking.service.AccountService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The account read paths as they were, loading managed entities in a
+ * read-write transaction and converting them ({@code entity}), against the
+ * DTO projections in read-only transactions that {@link AccountService} uses
+ * now ({@code projection}). The cache is off so every call reaches the
+ * database. Run with {@code -prof gc} to compare allocation per operation.
+ *
+ * <pre>mvn -Pjmh compile exec:exec -Djmh.args="ReadPathBenchmark -prof gc"</pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadPathBenchmark {
+
+  private static final int FIRST_ACCOUNT = 100_000;
+
+  @Param({"entity", "projection"})
+  public String read;
+
+  @Param({"1000"})
+  public int accounts;
+
+  @Param({"50"})
+  public int history;
+
+  private ConfigurableApplicationContext context;
+  private AccountService accountService;
+  private AccountRepository accountRepository;
+  private EntityManager entityManager;
+  private TransactionTemplate readWrite;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context = new SpringApplicationBuilder(BankingManagementSystemApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties(
+            "spring.datasource.url=jdbc:h2:mem:reads;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+            "spring.jpa.show-sql=false",
+            "spring.jpa.properties.hibernate.format_sql=false",
+            "logging.level.root=WARN",
+            "logging.level.com.banking=WARN",
+            "banking.cache.accounts.enabled=false")
+        .run();
+    accountService = context.getBean(AccountService.class);
+    accountRepository = context.getBean(AccountRepository.class);
+    entityManager = context.getBean(EntityManager.class);
+    readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+    for (int i = 0; i < accounts; i++) {
+      accountService.createAccount(new CreateAccountRequest(FIRST_ACCOUNT + i, "bench-pass",
+          Money.ofMajor(1_000_000L), "CURRENT"));
+    }
+    for (int h = 0; h < history; h++) {
+      for (int i = 0; i < accounts; i++) {
+        accountService.deposit(new TransactionRequest(FIRST_ACCOUNT + i, Money.ofMajor(1), null, null));
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  @Benchmark
+  public Object getAccount() {
+    int accountNumber = FIRST_ACCOUNT + ThreadLocalRandom.current().nextInt(accounts);
+    if ("projection".equals(read)) {
+      return accountService.getAccount(accountNumber);
+    }
+    return readWrite.execute(status -> toDto(accountRepository.findByAccountNumber(accountNumber).orElseThrow()));
+  }
+
+  @Benchmark
+  public Object getAllAccounts() {
+    if ("projection".equals(read)) {
+      return accountService.getAllAccounts();
+    }
+    return readWrite.execute(status -> accountRepository.findAll().stream().map(ReadPathBenchmark::toDto).toList());
+  }
+
+  @Benchmark
+  public Object getTransactions() {
+    int accountNumber = FIRST_ACCOUNT + ThreadLocalRandom.current().nextInt(accounts);
+    if ("projection".equals(read)) {
+      return accountService.getTransactions(accountNumber, null, AccountService.DEFAULT_PAGE_SIZE);
+    }
+    return readWrite.execute(status -> {
+      Account account = accountRepository.findByAccountNumber(accountNumber).orElseThrow();
+      List<?> rows = entityManager.createQuery(
+              "select t from Transaction t where t.account.id = :accountId order by t.timestamp desc, t.id desc")
+          .setParameter("accountId", account.getId())
+          .setMaxResults(AccountService.DEFAULT_PAGE_SIZE + 1)
+          .getResultList();
+      return rows;
+    });
+  }
+
+  private static AccountDTO toDto(Account account) {
+    return new AccountDTO(account.getId(), account.getAccountNumber(), account.getBalance(),
+        account.getAccountType(), account.getLocked());
+  }
+}
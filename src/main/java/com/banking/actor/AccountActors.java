@@ -0,0 +1,339 @@
+package com.banking.actor;
+
+import com.banking.dto.TransactionRequest;
+import com.banking.entity.TransferSaga;
+import com.banking.ledger.LedgerEngine;
+import com.banking.repository.TransferSagaRepository;
+import com.banking.service.AccountService;
+import com.banking.service.IdempotencyStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * One mailbox per active account. Work for an account is queued on its
+ * mailbox and run by a single drainer at a time, so mutations of the same
+ * account apply one after another, in arrival order, without holding locks
+ * around the business logic. Callers get a future and never block.
+ *
+ * <p>Drainers run on virtual threads when the JVM has them (Java 21+) and on
+ * a bounded platform pool otherwise. Mailboxes idle for longer than
+ * {@code banking.actors.idle-timeout} are evicted.
+ *
+ * <p>A transfer's debit and credit run on different mailboxes, so they commit
+ * separately. The debit commits together with a {@link TransferSaga} row, and
+ * a pass every {@code banking.actors.transfer-recovery-interval} finishes any
+ * transfer a crash or shutdown left between the two.
+ *
+ * <p>Enabled with {@code banking.actors.enabled=true}; not combinable with the
+ * ledger engine, which serialises accounts itself.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.actors.enabled", havingValue = "true")
+public class AccountActors {
+
+  private final AccountService accountService;
+  private final IdempotencyStore idempotencyStore;
+  private final TransferSagaRepository sagas;
+  private final TransactionTemplate transactionTemplate;
+  private final ExecutorService executor;
+  private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+      runnable -> {
+        Thread thread = new Thread(runnable, "account-actor-sweeper");
+        thread.setDaemon(true);
+        return thread;
+      });
+  private final Map<Integer, Mailbox> mailboxes = new ConcurrentHashMap<>();
+  private final int capacity;
+  private final int throughput;
+  private final long idleNanos;
+  private final Duration recoveryInterval;
+
+  public AccountActors(AccountService accountService,
+      Optional<LedgerEngine> ledger,
+      IdempotencyStore idempotencyStore,
+      TransferSagaRepository sagas,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry registry,
+      @Value("${banking.actors.mailbox-capacity:10000}") int capacity,
+      @Value("${banking.actors.throughput:64}") int throughput,
+      @Value("${banking.actors.idle-timeout:60s}") Duration idleTimeout,
+      @Value("${banking.actors.fallback-threads:64}") int fallbackThreads,
+      @Value("${banking.actors.transfer-recovery-interval:30s}") Duration recoveryInterval) {
+    if (ledger.isPresent()) {
+      throw new IllegalStateException("banking.actors.enabled cannot be combined with banking.ledger.enabled");
+    }
+    this.accountService = accountService;
+    this.idempotencyStore = idempotencyStore;
+    this.sagas = sagas;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.recoveryInterval = recoveryInterval;
+    this.capacity = capacity;
+    this.throughput = throughput;
+    this.idleNanos = idleTimeout.toNanos();
+    this.executor = createExecutor(fallbackThreads);
+    Gauge.builder("banking.actors.mailboxes", mailboxes, Map::size)
+        .description("Account mailboxes currently in memory")
+        .register(registry);
+
+    long sweepMillis = Math.max(1000, idleTimeout.toMillis() / 2);
+    sweeper.scheduleWithFixedDelay(this::evictIdle, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    sweeper.scheduleWithFixedDelay(this::recoverTransfers, recoveryInterval.toMillis(),
+        recoveryInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    sweeper.shutdownNow();
+    executor.shutdown();
+  }
+
+  /**
+   * Runs {@code operation} on the mailbox of {@code accountNumber}, with the
+   * caller's idempotency claim, if any.
+   */
+  public <T> CompletableFuture<T> submit(Integer accountNumber, Supplier<T> operation) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    if (accountNumber == null) {
+      result.completeExceptionally(new RuntimeException("Account not found"));
+      return result;
+    }
+    Supplier<T> claimed = idempotencyStore.propagate(operation);
+    Runnable task = () -> {
+      try {
+        result.complete(claimed.get());
+      } catch (Throwable e) {
+        result.completeExceptionally(e);
+      }
+    };
+
+    while (true) {
+      Mailbox mailbox = mailboxes.computeIfAbsent(accountNumber, key -> new Mailbox());
+      int outcome = mailbox.offer(task);
+      if (outcome == Mailbox.ACCEPTED) {
+        return result;
+      }
+      if (outcome == Mailbox.FULL) {
+        result.completeExceptionally(new AccountBusyException());
+        return result;
+      }
+      // Evicted between lookup and offer
+      mailboxes.remove(accountNumber, mailbox);
+    }
+  }
+
+  /**
+   * The debit runs on the source mailbox and commits with the saga row; the
+   * credit runs on the target's. If the credit is refused the source is
+   * refunded before the future fails. If it could not run at all, the saga
+   * stays DEBITED and {@link #recoverTransfers} finishes it.
+   */
+  public CompletableFuture<Void> transfer(TransactionRequest request) {
+    Integer source = request.getAccountNumber();
+    Integer target = request.getTargetAccountNumber();
+    long amount = request.getAmount();
+
+    LocalDateTime now = LocalDateTime.now();
+    TransferSaga saga = new TransferSaga(UUID.randomUUID().toString(), source, target, amount,
+        TransferSaga.DEBITED, now, now);
+    return submit(source, () -> transactionTemplate.execute(status -> {
+      accountService.debitTransfer(source, target, amount);
+      return sagas.save(saga);
+    })).thenCompose(debited -> finish(saga));
+  }
+
+  private CompletableFuture<Void> finish(TransferSaga saga) {
+    Integer source = saga.getSourceAccountNumber();
+    Integer target = saga.getTargetAccountNumber();
+    return submit(target, () -> credit(saga))
+        .handle((credited, failure) -> failure)
+        .thenCompose(failure -> {
+          if (failure == null) {
+            return CompletableFuture.<Void>completedFuture(null);
+          }
+          Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+              ? failure.getCause() : failure;
+          if (cause instanceof DataAccessException || cause instanceof TransactionException
+              || cause instanceof AccountBusyException) {
+            // The debit and the saga are committed; recovery completes the credit
+            log.warn("Credit leg of transfer {} to account {} failed, will retry", saga.getId(), target, cause);
+            return CompletableFuture.<Void>completedFuture(null);
+          }
+          log.warn("Credit to account {} failed, refunding account {}", target, source, cause);
+          return submit(source, () -> compensate(saga))
+              .<Void>handle((refunded, refundFailure) -> {
+                if (refundFailure != null) {
+                  log.error("Refund for transfer {} to account {} failed, will retry", saga.getId(), source,
+                      refundFailure);
+                }
+                throw failure instanceof CompletionException ? (CompletionException) failure
+                    : new CompletionException(failure);
+              });
+        });
+  }
+
+  // Only the transaction that moves the saga off DEBITED pays out, so a retried credit never pays twice
+  private Void credit(TransferSaga saga) {
+    return transactionTemplate.execute(status -> {
+      if (sagas.updateStatus(saga.getId(), TransferSaga.DEBITED, TransferSaga.COMPLETED, LocalDateTime.now()) == 1) {
+        accountService.creditTransfer(saga.getTargetAccountNumber(), saga.getSourceAccountNumber(),
+            saga.getAmount());
+      }
+      return null;
+    });
+  }
+
+  private Void compensate(TransferSaga saga) {
+    return transactionTemplate.execute(status -> {
+      if (sagas.updateStatus(saga.getId(), TransferSaga.DEBITED, TransferSaga.COMPENSATED,
+          LocalDateTime.now()) == 1) {
+        accountService.reverseTransfer(saga.getSourceAccountNumber(), saga.getTargetAccountNumber(),
+            saga.getAmount());
+      }
+      return null;
+    });
+  }
+
+  private void recoverTransfers() {
+    try {
+      List<TransferSaga> pending = sagas.findByStatusAndUpdatedAtBefore(TransferSaga.DEBITED,
+          LocalDateTime.now().minus(recoveryInterval));
+      for (TransferSaga saga : pending) {
+        log.info("Resuming transfer {} from account {} to {}", saga.getId(), saga.getSourceAccountNumber(),
+            saga.getTargetAccountNumber());
+        finish(saga).exceptionally(e -> {
+          log.warn("Transfer {} was refunded: {}", saga.getId(), e.getMessage());
+          return null;
+        });
+      }
+    } catch (RuntimeException e) {
+      log.warn("Transfer recovery failed", e);
+    }
+  }
+
+  private void evictIdle() {
+    long now = System.nanoTime();
+    mailboxes.forEach((accountNumber, mailbox) -> {
+      if (now - mailbox.lastActive > idleNanos && mailbox.close()) {
+        mailboxes.remove(accountNumber, mailbox);
+      }
+    });
+  }
+
+  // Virtual threads are looked up reflectively so the build still targets Java 17
+  private static ExecutorService createExecutor(int fallbackThreads) {
+    try {
+      ExecutorService executor = (ExecutorService) Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      log.info("Account actors running on virtual threads");
+      return executor;
+    } catch (ReflectiveOperationException e) {
+      log.info("Virtual threads unavailable; account actors running on {} platform threads", fallbackThreads);
+      AtomicInteger threadNumber = new AtomicInteger();
+      return new ThreadPoolExecutor(fallbackThreads, fallbackThreads, 0L, TimeUnit.MILLISECONDS,
+          new LinkedBlockingQueue<>(),
+          runnable -> new Thread(runnable, "account-actor-" + threadNumber.incrementAndGet()));
+    }
+  }
+
+  /**
+   * {@code pending} counts tasks offered but not yet run, or is -1 once the
+   * mailbox is closed. Whoever moves it up from zero starts the drainer, and
+   * the drainer only stops when it brings it back to zero, so exactly one
+   * drainer runs while work is pending.
+   */
+  private final class Mailbox {
+    static final int ACCEPTED = 0;
+    static final int FULL = 1;
+    static final int CLOSED = 2;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile long lastActive = System.nanoTime();
+
+    int offer(Runnable task) {
+      int before;
+      do {
+        before = pending.get();
+        if (before < 0) {
+          return CLOSED;
+        }
+        if (before >= capacity) {
+          return FULL;
+        }
+      } while (!pending.compareAndSet(before, before + 1));
+
+      tasks.add(task);
+      if (before == 0) {
+        executor.execute(this::drain);
+      }
+      return ACCEPTED;
+    }
+
+    boolean close() {
+      return pending.compareAndSet(0, -1);
+    }
+
+    private void drain() {
+      int processed = 0;
+      while (true) {
+        Runnable task = tasks.poll();
+        if (task != null) {
+          task.run();
+          if (++processed < throughput) {
+            continue;
+          }
+        }
+        int remaining = pending.addAndGet(-processed);
+        processed = 0;
+        lastActive = System.nanoTime();
+        if (remaining == 0) {
+          return;
+        }
+        if (task != null) {
+          // Batch limit reached: yield the thread to other mailboxes
+          executor.execute(this::drain);
+          return;
+        }
+        // Counted by an offer that has not enqueued yet
+        Thread.onSpinWait();
+      }
+    }
+  }
+
+  /** A mailbox at capacity; the work was never started. */
+  private static final class AccountBusyException extends RuntimeException {
+    AccountBusyException() {
+      super("Account is busy, please retry");
+    }
+  }
+}
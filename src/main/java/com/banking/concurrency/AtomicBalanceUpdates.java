@@ -0,0 +1,75 @@
+package com.banking.concurrency;
+
+import com.banking.entity.Account;
+import com.banking.money.Money;
+import com.banking.repository.AccountRepository;
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Applies each change as a single conditional UPDATE, so the database adds
+ * to whatever the balance is at that moment and no read has to stay current.
+ * The entity is refreshed afterwards: the new balance goes into the
+ * transaction row, and the entity holds no change that could be written back.
+ */
+class AtomicBalanceUpdates implements BalanceUpdateStrategy {
+
+  private final AccountRepository accountRepository;
+  private final EntityManager entityManager;
+
+  AtomicBalanceUpdates(AccountRepository accountRepository, EntityManager entityManager) {
+    this.accountRepository = accountRepository;
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public Optional<Account> find(Integer accountNumber) {
+    return accountRepository.findByAccountNumber(accountNumber);
+  }
+
+  @Override
+  public List<Account> findAll(Collection<Integer> accountNumbers) {
+    return accountRepository.findByAccountNumberIn(accountNumbers);
+  }
+
+  private static final BigDecimal CEILING = Money.toDecimal(Long.MAX_VALUE);
+
+  @Override
+  public void credit(Account account, long amount) {
+    if (!add(account, amount, Long.MIN_VALUE / 2)) {
+      throw new ArithmeticException("Balance out of range");
+    }
+  }
+
+  @Override
+  public boolean debit(Account account, long amount, long floor) {
+    return add(account, -amount, floor);
+  }
+
+  // Rows are updated in id order, so transfers in opposite directions cannot deadlock
+  @Override
+  public boolean transfer(Account source, Account target, long amount) {
+    if (source.getId() < target.getId()) {
+      return BalanceUpdateStrategy.super.transfer(source, target, amount);
+    }
+    credit(target, amount);
+    if (!debit(source, amount, 0)) {
+      // Target row is already ours, so undoing the credit cannot fail
+      credit(target, -amount);
+      return false;
+    }
+    return true;
+  }
+
+  private boolean add(Account account, long delta, long floor) {
+    int updated = accountRepository.addToBalance(account.getId(), Money.toDecimal(delta), Money.toDecimal(floor),
+        CEILING, LocalDateTime.now());
+    entityManager.refresh(account);
+    return updated == 1;
+  }
+}
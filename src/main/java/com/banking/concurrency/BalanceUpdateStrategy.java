@@ -0,0 +1,62 @@
+package com.banking.concurrency;
+
+import com.banking.entity.Account;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * How {@code AccountService} loads and changes account balances so that
+ * concurrent updates to one account are never lost. Selected with
+ * {@code banking.concurrency.strategy}:
+ * <ul>
+ *   <li>{@code optimistic} (default): plain reads, the {@code @Version}
+ *   column rejects a stale write and {@link OptimisticRetryAspect} runs the
+ *   operation again;</li>
+ *   <li>{@code pessimistic}: accounts are read with {@code SELECT ... FOR UPDATE},
+ *   so writers to one account queue on its row lock;</li>
+ *   <li>{@code atomic}: each change is one {@code UPDATE ... SET balance = balance + ?}
+ *   with the minimum balance in its {@code WHERE} clause.</li>
+ * </ul>
+ * With {@code banking.hot-accounts.enabled} the chosen strategy is wrapped so
+ * that contended accounts keep part of their balance in slot rows.
+ * Every method must run inside the caller's transaction.
+ */
+public interface BalanceUpdateStrategy {
+
+  /** Loads an account that the current transaction is going to change. */
+  Optional<Account> find(Integer accountNumber);
+
+  /** Loads several accounts to change; missing numbers are left out. */
+  List<Account> findAll(Collection<Integer> accountNumbers);
+
+  void credit(Account account, long amount);
+
+  /**
+   * Takes {@code amount} unless that would leave less than {@code floor}.
+   * Returns false, with {@code account} holding the current balance, when
+   * the debit was refused.
+   */
+  boolean debit(Account account, long amount, long floor);
+
+  /**
+   * The account's whole balance, for rule checks and transaction rows; may
+   * include money held outside the account row.
+   */
+  default long balanceOf(Account account) {
+    return account.getBalance();
+  }
+
+  /**
+   * Moves {@code amount} from {@code source} to {@code target} unless the
+   * source would go below zero; returns false, changing neither, if it would.
+   */
+  default boolean transfer(Account source, Account target, long amount) {
+    if (!debit(source, amount, 0)) {
+      return false;
+    }
+    credit(target, amount);
+    return true;
+  }
+}
@@ -0,0 +1,44 @@
+package com.banking.concurrency;
+
+import com.banking.repository.AccountRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+
+@Configuration
+public class ConcurrencyConfig {
+
+  @Bean
+  @ConditionalOnProperty(name = "banking.concurrency.strategy", havingValue = "optimistic", matchIfMissing = true)
+  public BalanceUpdateStrategy optimisticBalanceUpdates(AccountRepository accountRepository,
+      EntityManager entityManager, Optional<HotAccounts> hotAccounts) {
+    return withHotAccounts(new EntityBalanceUpdates.Optimistic(accountRepository), hotAccounts, accountRepository,
+        entityManager);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "banking.concurrency.strategy", havingValue = "pessimistic")
+  public BalanceUpdateStrategy pessimisticBalanceUpdates(AccountRepository accountRepository,
+      EntityManager entityManager, Optional<HotAccounts> hotAccounts) {
+    return withHotAccounts(new EntityBalanceUpdates.Pessimistic(accountRepository), hotAccounts, accountRepository,
+        entityManager);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "banking.concurrency.strategy", havingValue = "atomic")
+  public BalanceUpdateStrategy atomicBalanceUpdates(AccountRepository accountRepository,
+      EntityManager entityManager, Optional<HotAccounts> hotAccounts) {
+    return withHotAccounts(new AtomicBalanceUpdates(accountRepository, entityManager), hotAccounts, accountRepository,
+        entityManager);
+  }
+
+  private static BalanceUpdateStrategy withHotAccounts(BalanceUpdateStrategy strategy,
+      Optional<HotAccounts> hotAccounts, AccountRepository accountRepository, EntityManager entityManager) {
+    return hotAccounts
+        .<BalanceUpdateStrategy>map(hot -> new HotAccountBalances(strategy, hot, accountRepository, entityManager))
+        .orElse(strategy);
+  }
+}
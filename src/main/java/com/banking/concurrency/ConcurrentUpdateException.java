@@ -0,0 +1,9 @@
+package com.banking.concurrency;
+
+/** An account write that kept losing to concurrent writers and was given up. */
+public class ConcurrentUpdateException extends RuntimeException {
+
+  public ConcurrentUpdateException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,72 @@
+package com.banking.concurrency;
+
+import com.banking.entity.Account;
+import com.banking.money.Money;
+import com.banking.repository.AccountRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Changes the balance on the managed entity, written back when the
+ * transaction flushes. Shared by the optimistic and pessimistic strategies,
+ * which differ only in how accounts are read.
+ */
+abstract class EntityBalanceUpdates implements BalanceUpdateStrategy {
+
+  protected final AccountRepository accountRepository;
+
+  protected EntityBalanceUpdates(AccountRepository accountRepository) {
+    this.accountRepository = accountRepository;
+  }
+
+  @Override
+  public void credit(Account account, long amount) {
+    account.setBalance(Money.add(account.getBalance(), amount));
+  }
+
+  @Override
+  public boolean debit(Account account, long amount, long floor) {
+    long balance = Money.subtract(account.getBalance(), amount);
+    if (balance < floor) {
+      return false;
+    }
+    account.setBalance(balance);
+    return true;
+  }
+
+  static final class Optimistic extends EntityBalanceUpdates {
+
+    Optimistic(AccountRepository accountRepository) {
+      super(accountRepository);
+    }
+
+    @Override
+    public Optional<Account> find(Integer accountNumber) {
+      return accountRepository.findByAccountNumber(accountNumber);
+    }
+
+    @Override
+    public List<Account> findAll(Collection<Integer> accountNumbers) {
+      return accountRepository.findByAccountNumberIn(accountNumbers);
+    }
+  }
+
+  static final class Pessimistic extends EntityBalanceUpdates {
+
+    Pessimistic(AccountRepository accountRepository) {
+      super(accountRepository);
+    }
+
+    @Override
+    public Optional<Account> find(Integer accountNumber) {
+      return accountRepository.findForUpdate(accountNumber);
+    }
+
+    @Override
+    public List<Account> findAll(Collection<Integer> accountNumbers) {
+      return accountRepository.findAllForUpdate(accountNumbers);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.banking.concurrency;
+
+import com.banking.entity.Account;
+import com.banking.money.Money;
+import com.banking.repository.AccountRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Wraps the configured strategy with {@link HotAccounts}. Accounts that are
+ * not hot go straight through. A hot account is read without a lock, credits
+ * land on one of its slots, and a debit locks the account row, so debits
+ * still run one at a time while credits do not wait for them.
+ */
+class HotAccountBalances implements BalanceUpdateStrategy {
+
+  private final BalanceUpdateStrategy delegate;
+  private final HotAccounts hotAccounts;
+  private final AccountRepository accountRepository;
+  private final EntityManager entityManager;
+
+  HotAccountBalances(BalanceUpdateStrategy delegate, HotAccounts hotAccounts, AccountRepository accountRepository,
+      EntityManager entityManager) {
+    this.delegate = delegate;
+    this.hotAccounts = hotAccounts;
+    this.accountRepository = accountRepository;
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public Optional<Account> find(Integer accountNumber) {
+    hotAccounts.track(accountNumber);
+    if (!hotAccounts.isHot(accountNumber)) {
+      return delegate.find(accountNumber);
+    }
+    unlockedReads().add(accountNumber);
+    return accountRepository.findByAccountNumber(accountNumber);
+  }
+
+  @Override
+  public List<Account> findAll(Collection<Integer> accountNumbers) {
+    List<Integer> hot = new ArrayList<>();
+    List<Integer> other = new ArrayList<>();
+    for (Integer accountNumber : accountNumbers) {
+      hotAccounts.track(accountNumber);
+      (hotAccounts.isHot(accountNumber) ? hot : other).add(accountNumber);
+    }
+    List<Account> accounts = new ArrayList<>(delegate.findAll(other));
+    if (!hot.isEmpty()) {
+      unlockedReads().addAll(hot);
+      accounts.addAll(accountRepository.findByAccountNumberIn(hot));
+    }
+    return accounts;
+  }
+
+  @Override
+  public void credit(Account account, long amount) {
+    if (hotAccounts.isHot(account.getAccountNumber()) && hotAccounts.creditSlot(account, amount)) {
+      return;
+    }
+    lockIfDemoted(account);
+    delegate.credit(account, amount);
+  }
+
+  @Override
+  public boolean debit(Account account, long amount, long floor) {
+    if (!hotAccounts.isHot(account.getAccountNumber())) {
+      lockIfDemoted(account);
+      return delegate.debit(account, amount, floor);
+    }
+    lock(account);
+    // Slots only grow while the row is held, so this total can only be low
+    long balance = account.getBalance();
+    if (Money.subtract(Money.add(balance, hotAccounts.slotTotal(account.getId())), amount) < floor) {
+      return false;
+    }
+    if (balance < amount) {
+      balance = Money.add(balance, hotAccounts.drainSlots(account.getId()));
+    }
+    account.setBalance(Money.subtract(balance, amount));
+    return true;
+  }
+
+  @Override
+  public boolean transfer(Account source, Account target, long amount) {
+    if (hotAccounts.isHot(source.getAccountNumber()) || hotAccounts.isHot(target.getAccountNumber())) {
+      return BalanceUpdateStrategy.super.transfer(source, target, amount);
+    }
+    return delegate.transfer(source, target, amount);
+  }
+
+  @Override
+  public long balanceOf(Account account) {
+    return hotAccounts.isHot(account.getAccountNumber())
+        ? Money.add(account.getBalance(), hotAccounts.slotTotal(account.getId()))
+        : delegate.balanceOf(account);
+  }
+
+  // Re-reads the row under a lock unless this transaction already holds it
+  private void lock(Account account) {
+    if (entityManager.getLockMode(account) != LockModeType.PESSIMISTIC_WRITE) {
+      entityManager.refresh(account, LockModeType.PESSIMISTIC_WRITE);
+    }
+  }
+
+  // Read unlocked while hot and demoted since: take the lock a pessimistic read would have
+  @SuppressWarnings("unchecked")
+  private void lockIfDemoted(Account account) {
+    Set<Integer> reads = (Set<Integer>) TransactionSynchronizationManager.getResource(this);
+    if (reads != null && reads.contains(account.getAccountNumber())) {
+      lock(account);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Set<Integer> unlockedReads() {
+    Set<Integer> reads = (Set<Integer>) TransactionSynchronizationManager.getResource(this);
+    if (reads == null) {
+      reads = new HashSet<>();
+      TransactionSynchronizationManager.bindResource(this, reads);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(HotAccountBalances.this);
+        }
+      });
+    }
+    return reads;
+  }
+}
@@ -0,0 +1,291 @@
+package com.banking.concurrency;
+
+import com.banking.entity.Account;
+import com.banking.money.Money;
+import com.banking.service.AccountCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Spreads the balance of accounts that many transactions write at once over
+ * {@code banking.hot-accounts.slots} rows of {@code account_balance_slots}.
+ * A credit to a hot account adds to one slot picked at random and leaves the
+ * account row alone, so concurrent credits rarely wait for each other.
+ * Debits still lock the account row and take from it first, folding the
+ * slots into it when it does not hold enough.
+ *
+ * <p>Every write counts how many other writes to the same account are in
+ * flight. Each {@code banking.hot-accounts.evaluation-interval} an account
+ * that saw at least {@code banking.hot-accounts.promote-contention}
+ * overlapping writes is promoted, and a hot account that saw none for
+ * {@code banking.hot-accounts.demote-after} intervals has its slots folded
+ * back into the account row.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.hot-accounts.enabled", havingValue = "true")
+public class HotAccounts {
+
+  private static final String CREDIT_SLOT =
+      "update account_balance_slots set balance = balance + ? where account_id = ? and slot = ?";
+  private static final String SLOT_TOTAL =
+      "select coalesce(sum(balance), 0) from account_balance_slots where account_id = ?";
+  private static final String LOCK_SLOTS = "select balance from account_balance_slots where account_id = ? for update";
+  private static final String CLEAR_SLOTS = "update account_balance_slots set balance = 0 where account_id = ?";
+  private static final String DELETE_SLOTS = "delete from account_balance_slots where account_id = ?";
+  private static final String INSERT_SLOT = "insert into account_balance_slots (account_id, slot, balance) values (?, ?, 0)";
+  private static final String TOTAL_BALANCE =
+      "select a.balance + coalesce((select sum(s.balance) from account_balance_slots s where s.account_id = a.id), 0)"
+          + " from accounts a where a.id = ?";
+  private static final String ACCOUNT_ID = "select id from accounts where account_number = ?";
+  private static final String LOCK_ACCOUNT = "select id from accounts where id = ? for update";
+  private static final String FOLD_SLOTS =
+      "update accounts set balance = balance + ?, version = version + 1, updated_at = ? where id = ?";
+  private static final String HOT_ACCOUNTS =
+      "select a.account_number, a.id, count(*) from account_balance_slots s join accounts a on a.id = s.account_id"
+          + " group by a.account_number, a.id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final AccountCache accountCache;
+  private final int slots;
+  private final int promoteContention;
+  private final int demoteAfter;
+  private final Duration evaluationInterval;
+  private final Map<Integer, Hot> hot = new ConcurrentHashMap<>();
+  private final Map<Integer, Activity> activity = new ConcurrentHashMap<>();
+  private final Counter promotions;
+  private final Counter demotions;
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "hot-accounts");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public HotAccounts(JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      AccountCache accountCache,
+      MeterRegistry registry,
+      @Value("${banking.hot-accounts.slots:8}") int slots,
+      @Value("${banking.hot-accounts.promote-contention:20}") int promoteContention,
+      @Value("${banking.hot-accounts.demote-after:6}") int demoteAfter,
+      @Value("${banking.hot-accounts.evaluation-interval:10s}") Duration evaluationInterval,
+      @Value("${banking.ledger.enabled:false}") boolean ledger,
+      @Value("${banking.shards.enabled:false}") boolean shards) {
+    if (ledger || shards) {
+      throw new IllegalStateException("banking.hot-accounts.enabled cannot be combined with banking.ledger.enabled"
+          + " or banking.shards.enabled");
+    }
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.accountCache = accountCache;
+    this.slots = Math.max(2, slots);
+    this.promoteContention = Math.max(1, promoteContention);
+    this.demoteAfter = Math.max(1, demoteAfter);
+    this.evaluationInterval = evaluationInterval;
+    Gauge.builder("banking.hot_accounts", hot, Map::size)
+        .description("Accounts whose balance is split over slot rows")
+        .register(registry);
+    this.promotions = Counter.builder("banking.hot_accounts.changes")
+        .description("Accounts moved in or out of split balances")
+        .tag("change", "promoted")
+        .register(registry);
+    this.demotions = Counter.builder("banking.hot_accounts.changes")
+        .description("Accounts moved in or out of split balances")
+        .tag("change", "demoted")
+        .register(registry);
+  }
+
+  // Slot rows outlive restarts; whatever has them is still hot
+  @EventListener(ApplicationReadyEvent.class)
+  void start() {
+    jdbcTemplate.query(HOT_ACCOUNTS, rs -> {
+      hot.put(rs.getInt(1), new Hot(rs.getLong(2), rs.getInt(3)));
+    });
+    if (!hot.isEmpty()) {
+      log.info("{} hot accounts with split balances: {}", hot.size(), hot.keySet());
+    }
+    long interval = evaluationInterval.toMillis();
+    scheduler.scheduleWithFixedDelay(this::evaluateQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  public boolean isHot(Integer accountNumber) {
+    return hot.containsKey(accountNumber);
+  }
+
+  /**
+   * Counts a write to {@code accountNumber} until the current transaction
+   * completes; a write that starts while another is in flight is contended.
+   */
+  void track(Integer accountNumber) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    Activity account = activity.computeIfAbsent(accountNumber, number -> new Activity());
+    if (account.inFlight.incrementAndGet() > 1) {
+      account.contended.increment();
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        account.inFlight.decrementAndGet();
+      }
+    });
+  }
+
+  /**
+   * Adds {@code amount} to a random slot of a hot account. Returns false if
+   * the account was demoted in the meantime and has no slots any more.
+   */
+  boolean creditSlot(Account account, long amount) {
+    Hot split = hot.get(account.getAccountNumber());
+    if (split == null) {
+      return false;
+    }
+    int slot = ThreadLocalRandom.current().nextInt(split.slots());
+    return jdbcTemplate.update(CREDIT_SLOT, Money.toDecimal(amount), account.getId(), slot) == 1;
+  }
+
+  /** Sum of the account's slots as this transaction sees them. */
+  long slotTotal(long accountId) {
+    return Money.fromDecimal(jdbcTemplate.queryForObject(SLOT_TOTAL, BigDecimal.class, accountId));
+  }
+
+  /**
+   * Empties every slot of the account and returns what they held. Waits for
+   * credits to the slots that are still in flight; the caller must already
+   * hold the account row.
+   */
+  long drainSlots(long accountId) {
+    List<BigDecimal> balances = jdbcTemplate.queryForList(LOCK_SLOTS, BigDecimal.class, accountId);
+    long drained = balances.stream().mapToLong(Money::fromDecimal).sum();
+    jdbcTemplate.update(CLEAR_SLOTS, accountId);
+    return drained;
+  }
+
+  /**
+   * The account row and its slots read in one statement, so the total is
+   * consistent even while slots are being folded into the row.
+   */
+  public long totalBalance(long accountId) {
+    return Money.fromDecimal(jdbcTemplate.queryForObject(TOTAL_BALANCE, BigDecimal.class, accountId));
+  }
+
+  private void evaluateQuietly() {
+    try {
+      evaluate();
+    } catch (Exception e) {
+      log.warn("Hot account evaluation failed", e);
+    }
+  }
+
+  void evaluate() {
+    // A hot account nobody writes to any more still has to count its quiet intervals
+    hot.keySet().forEach(accountNumber -> activity.computeIfAbsent(accountNumber, number -> new Activity()));
+    activity.forEach((accountNumber, account) -> {
+      long contended = account.contended.sumThenReset();
+      if (isHot(accountNumber)) {
+        account.quietIntervals = contended == 0 ? account.quietIntervals + 1 : 0;
+        if (account.quietIntervals >= demoteAfter) {
+          demote(accountNumber);
+          activity.remove(accountNumber, account);
+        }
+      } else if (contended >= promoteContention) {
+        promote(accountNumber);
+        account.quietIntervals = 0;
+      } else if (contended == 0 && account.inFlight.get() == 0) {
+        activity.remove(accountNumber, account);
+      }
+    });
+  }
+
+  void promote(Integer accountNumber) {
+    Hot account = transactionTemplate.execute(status -> {
+      List<Long> ids = jdbcTemplate.queryForList(ACCOUNT_ID, Long.class, accountNumber);
+      if (ids.isEmpty()) {
+        return null;
+      }
+      long accountId = ids.get(0);
+      jdbcTemplate.batchUpdate(INSERT_SLOT, IntStream.range(0, slots)
+          .mapToObj(slot -> new Object[] {accountId, slot}).toList());
+      return new Hot(accountId, slots);
+    });
+    if (account == null) {
+      return;
+    }
+    hot.put(accountNumber, account);
+    // Slot credits do not change the row version the cache orders entries by
+    accountCache.invalidate(accountNumber);
+    promotions.increment();
+    log.info("Account {} is hot; its balance is now split over {} slots", accountNumber, slots);
+  }
+
+  void demote(Integer accountNumber) {
+    Hot account = hot.remove(accountNumber);
+    if (account == null) {
+      return;
+    }
+    // New credits already go to the account row; wait out the ones still on slots
+    long folded;
+    try {
+      folded = transactionTemplate.execute(status -> {
+        jdbcTemplate.queryForList(LOCK_ACCOUNT, Long.class, account.id());
+        long drained = drainSlots(account.id());
+        jdbcTemplate.update(FOLD_SLOTS, Money.toDecimal(drained), Timestamp.valueOf(LocalDateTime.now()),
+            account.id());
+        jdbcTemplate.update(DELETE_SLOTS, account.id());
+        return drained;
+      });
+    } catch (RuntimeException e) {
+      // The slots still hold money (a deadlock with an in-flight credit, say); stay hot and retry next interval
+      hot.putIfAbsent(accountNumber, account);
+      throw e;
+    }
+    accountCache.invalidate(accountNumber);
+    demotions.increment();
+    log.info("Account {} has cooled down; folded {} from its slots back into the balance", accountNumber,
+        Money.toDecimal(folded));
+  }
+
+  private record Hot(long id, int slots) {
+  }
+
+  private static final class Activity {
+    final AtomicInteger inFlight = new AtomicInteger();
+    final LongAdder contended = new LongAdder();
+    int quietIntervals;
+  }
+}
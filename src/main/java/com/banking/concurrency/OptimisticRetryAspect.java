@@ -0,0 +1,105 @@
+package com.banking.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reruns an {@code AccountService} write whose transaction lost a version
+ * check, up to {@code banking.concurrency.max-attempts} times. Between
+ * attempts it sleeps a random time up to an exponentially growing cap
+ * ({@code banking.concurrency.backoff} doubled per attempt, at most
+ * {@code banking.concurrency.max-backoff}), so writers that collided do not
+ * collide again in lockstep. Sits outside the transaction advice, so every
+ * attempt is a fresh transaction; calls made inside an existing transaction
+ * are left to the outermost one.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "banking.concurrency.strategy", havingValue = "optimistic", matchIfMissing = true)
+public class OptimisticRetryAspect {
+
+  private final int maxAttempts;
+  private final long backoffNanos;
+  private final long maxBackoffNanos;
+  private final Counter retries;
+  private final Counter exhausted;
+
+  public OptimisticRetryAspect(MeterRegistry registry,
+      @Value("${banking.concurrency.max-attempts:8}") int maxAttempts,
+      @Value("${banking.concurrency.backoff:5ms}") Duration backoff,
+      @Value("${banking.concurrency.max-backoff:100ms}") Duration maxBackoff) {
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.backoffNanos = backoff.toNanos();
+    this.maxBackoffNanos = maxBackoff.toNanos();
+    this.retries = Counter.builder("banking.concurrency.conflicts")
+        .description("Account writes that lost a version check")
+        .tag("outcome", "retried")
+        .register(registry);
+    this.exhausted = Counter.builder("banking.concurrency.conflicts")
+        .description("Account writes that lost a version check")
+        .tag("outcome", "exhausted")
+        .register(registry);
+  }
+
+  @Around("execution(public * com.banking.service.AccountService.*(..)) && @annotation(transactional)")
+  public Object retry(ProceedingJoinPoint call, Transactional transactional) throws Throwable {
+    if (transactional.readOnly() || TransactionSynchronizationManager.isActualTransactionActive()) {
+      return call.proceed();
+    }
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return call.proceed();
+      } catch (RuntimeException e) {
+        if (!isVersionConflict(e)) {
+          throw e;
+        }
+        if (attempt >= maxAttempts) {
+          exhausted.increment();
+          log.debug("{} gave up after {} conflicting attempts", call.getSignature().getName(), attempt);
+          throw new ConcurrentUpdateException("Account is being updated concurrently, please retry", e);
+        }
+        retries.increment();
+        long cap = Math.min(maxBackoffNanos, backoffNanos << Math.min(attempt - 1, 20));
+        TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+      }
+    }
+  }
+
+  /** Total retries since startup. */
+  public long retries() {
+    return (long) retries.count();
+  }
+
+  /** Total operations that ran out of attempts since startup. */
+  public long exhausted() {
+    return (long) exhausted.count();
+  }
+
+  private static boolean isVersionConflict(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof OptimisticLockingFailureException || cause instanceof OptimisticLockException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
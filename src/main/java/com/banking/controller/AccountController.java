@@ -1,17 +1,46 @@
 package com.banking.controller;
 
+import com.banking.actor.AccountActors;
+import com.banking.concurrency.ConcurrentUpdateException;
 import com.banking.dto.*;
-import com.banking.entity.Transaction;
 import com.banking.service.AccountService;
+import com.banking.service.BatchTransferException;
+import com.banking.service.IdempotencyStore;
+import com.banking.service.IdempotencyStore.KeyReusedException;
+import com.banking.service.IdempotencyStore.Outcome;
+import com.banking.service.IdempotencyStore.StoredResponse;
+import com.banking.statement.StatementFormat;
+import com.banking.statement.StatementWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -19,7 +48,14 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class AccountController {
 
+  private static final String NDJSON = "application/x-ndjson";
+  private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+  private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 200;
+
   private final AccountService accountService;
+  private final ObjectMapper objectMapper;
+  private final Optional<AccountActors> actors;
+  private final IdempotencyStore idempotencyStore;
 
   @PostMapping("/create")
   public ResponseEntity<?> createAccount(@Valid @RequestBody CreateAccountRequest request) {
@@ -47,81 +83,278 @@ public class AccountController {
     return ResponseEntity.ok(accounts);
   }
 
+  @GetMapping(produces = NDJSON)
+  public ResponseEntity<StreamingResponseBody> exportAccounts() {
+    StreamingResponseBody body = out -> {
+      JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+      generator.setRootValueSeparator(null);
+      ObjectWriter writer = objectMapper.writerFor(AccountDTO.class)
+          .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+      accountService.exportAccounts(account -> {
+        try {
+          writer.writeValue(generator, account);
+          generator.writeRaw('\n');
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      generator.flush();
+    };
+    return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+  }
+
   @PostMapping("/deposit")
-  public ResponseEntity<?> deposit(@Valid @RequestBody TransactionRequest request) {
-    try {
-      AccountDTO account = accountService.deposit(request);
-      return ResponseEntity.ok(account);
-    } catch (Exception e) {
-      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-    }
+  public CompletableFuture<ResponseEntity<?>> deposit(@Valid @RequestBody TransactionRequest request,
+      @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+    return idempotent(idempotencyKey, "deposit", request, () ->
+        onAccount(request.getAccountNumber(), () -> accountService.deposit(request))
+            .handle((account, e) -> e == null ? ResponseEntity.ok(account) : badRequest(e)));
   }
 
   @PostMapping("/withdraw")
-  public ResponseEntity<?> withdraw(@Valid @RequestBody TransactionRequest request) {
-    try {
-      AccountDTO account = accountService.withdraw(request);
-      return ResponseEntity.ok(account);
-    } catch (Exception e) {
-      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-    }
+  public CompletableFuture<ResponseEntity<?>> withdraw(@Valid @RequestBody TransactionRequest request,
+      @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+    return idempotent(idempotencyKey, "withdraw", request, () ->
+        onAccount(request.getAccountNumber(), () -> accountService.withdraw(request))
+            .handle((account, e) -> e == null ? ResponseEntity.ok(account) : badRequest(e)));
   }
 
   @PostMapping("/transfer")
-  public ResponseEntity<?> transfer(@Valid @RequestBody TransactionRequest request) {
+  public CompletableFuture<ResponseEntity<?>> transfer(@Valid @RequestBody TransactionRequest request,
+      @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+    return idempotent(idempotencyKey, "transfer", request, () -> {
+      CompletableFuture<Void> transfer = actors.isPresent() ? actors.get().transfer(request)
+          : onAccount(request.getAccountNumber(), () -> {
+            accountService.transfer(request);
+            return null;
+          });
+      return transfer.handle((done, e) -> e == null
+          ? ResponseEntity.ok(Map.of("message", "Transfer successful")) : badRequest(e));
+    });
+  }
+
+  @PostMapping("/transfers/batch")
+  public CompletableFuture<ResponseEntity<?>> transferBatch(@Valid @RequestBody BatchTransferRequest request,
+      @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+    return idempotent(idempotencyKey, "transfers/batch", request,
+        () -> CompletableFuture.completedFuture(runBatch(request)));
+  }
+
+  private ResponseEntity<?> runBatch(BatchTransferRequest request) {
     try {
-      accountService.transfer(request);
-      return ResponseEntity.ok(Map.of("message", "Transfer successful"));
+      BatchTransferResponse response = accountService.transferBatch(request);
+      return ResponseEntity.ok(response);
+    } catch (BatchTransferException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getResponse());
     } catch (Exception e) {
       return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
     }
   }
 
   @PostMapping("/{accountNumber}/interest")
-  public ResponseEntity<?> applyInterest(@PathVariable Integer accountNumber) {
+  public CompletableFuture<ResponseEntity<?>> applyInterest(@PathVariable Integer accountNumber) {
+    return onAccount(accountNumber, () -> accountService.applyInterest(accountNumber))
+        .handle((account, e) -> e == null ? ResponseEntity.ok(account) : badRequest(e));
+  }
+
+  @GetMapping("/{accountNumber}/transactions")
+  public ResponseEntity<?> getTransactions(@PathVariable Integer accountNumber,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + AccountService.DEFAULT_PAGE_SIZE) int limit) {
     try {
-      AccountDTO account = accountService.applyInterest(accountNumber);
-      return ResponseEntity.ok(account);
-    } catch (Exception e) {
+      TransactionPage page = accountService.getTransactions(accountNumber, cursor, limit);
+      return ResponseEntity.ok(page);
+    } catch (IllegalArgumentException e) {
       return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
     }
   }
 
-  @GetMapping("/{accountNumber}/transactions")
-  public ResponseEntity<?> getTransactions(@PathVariable Integer accountNumber) {
+  /**
+   * Opening and closing balance, credits and debits between {@code from} and
+   * {@code to} (inclusive dates, default: this month so far), with one entry
+   * per day that had activity.
+   */
+  @GetMapping("/{accountNumber}/summary")
+  public ResponseEntity<?> getSummary(@PathVariable Integer accountNumber,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    LocalDate end = to != null ? to : LocalDate.now();
+    LocalDate start = from != null ? from : end.withDayOfMonth(1);
+    if (start.isAfter(end)) {
+      return ResponseEntity.badRequest().body(Map.of("error", "'from' must not be after 'to'"));
+    }
     try {
-      List<Transaction> transactions = accountService.getTransactions(accountNumber);
-      return ResponseEntity.ok(transactions);
+      return ResponseEntity.ok(accountService.getSummary(accountNumber, start, end));
     } catch (Exception e) {
       return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
     }
   }
 
+  /**
+   * Streams the account's transactions between {@code from} and {@code to}
+   * (inclusive dates, default: everything) as a gzipped CSV or columnar file.
+   */
+  @GetMapping("/{accountNumber}/statement")
+  public ResponseEntity<StreamingResponseBody> statement(@PathVariable Integer accountNumber,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(defaultValue = "csv") String format) {
+    StatementFormat statementFormat;
+    try {
+      statementFormat = StatementFormat.parse(format);
+    } catch (IllegalArgumentException e) {
+      return streamedError(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+    try {
+      accountService.getAccount(accountNumber);
+    } catch (Exception e) {
+      return streamedError(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    LocalDateTime start = (from != null ? from : LocalDate.EPOCH).atStartOfDay();
+    LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : LocalDateTime.now().plusDays(1);
+    StreamingResponseBody body = out -> {
+      try (GZIPOutputStream gzip = new GZIPOutputStream(out, 16 * 1024);
+          StatementWriter writer = statementFormat.open(gzip, accountNumber)) {
+        accountService.exportStatement(accountNumber, start, end, line -> {
+          try {
+            writer.write(line);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      }
+    };
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType("application/gzip"))
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"" + statementFormat.fileName(accountNumber) + "\"")
+        .body(body);
+  }
+
   @PostMapping("/authenticate")
-  public ResponseEntity<?> authenticate(@RequestBody Map<String, Object> credentials) {
+  public CompletableFuture<ResponseEntity<?>> authenticate(@RequestBody Map<String, Object> credentials) {
+    Integer accountNumber;
     try {
-      Integer accountNumber = (Integer) credentials.get("accountNumber");
-      String password = (String) credentials.get("password");
-      boolean authenticated = accountService.authenticate(accountNumber, password);
-      return ResponseEntity.ok(Map.of("authenticated", authenticated));
+      accountNumber = (Integer) credentials.get("accountNumber");
     } catch (Exception e) {
-      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", e.getMessage()));
+      return CompletableFuture.completedFuture(
+          ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", e.getMessage())));
     }
+    String password = (String) credentials.get("password");
+    return onAccount(accountNumber, () -> accountService.authenticate(accountNumber, password))
+        .handle((authenticated, e) -> e == null ? ResponseEntity.ok(Map.of("authenticated", authenticated))
+            : ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", errorMessage(e))));
   }
 
   @PostMapping("/{accountNumber}/change-password")
-  public ResponseEntity<?> changePassword(@PathVariable Integer accountNumber,
+  public CompletableFuture<ResponseEntity<?>> changePassword(@PathVariable Integer accountNumber,
       @RequestBody Map<String, String> passwords) {
-    try {
-      String oldPassword = passwords.get("oldPassword");
-      String newPassword = passwords.get("newPassword");
+    String oldPassword = passwords.get("oldPassword");
+    String newPassword = passwords.get("newPassword");
+    return onAccount(accountNumber, () -> {
       accountService.changePassword(accountNumber, oldPassword, newPassword);
-      return ResponseEntity.ok(Map.of("message", "Password changed successfully"));
+      return null;
+    }).handle((done, e) -> e == null
+        ? ResponseEntity.ok(Map.of("message", "Password changed successfully")) : badRequest(e));
+  }
+
+  @GetMapping("/cache/stats")
+  public ResponseEntity<CacheStats> cacheStats() {
+    return ResponseEntity.ok(accountService.getCacheStats());
+  }
+
+  /**
+   * With account actors enabled, runs {@code operation} on the account's
+   * mailbox and frees the request thread until it completes; otherwise runs
+   * it inline.
+   */
+  private <T> CompletableFuture<T> onAccount(Integer accountNumber, Supplier<T> operation) {
+    if (actors.isPresent()) {
+      return actors.get().submit(accountNumber, operation);
+    }
+    try {
+      return CompletableFuture.completedFuture(operation.get());
     } catch (Exception e) {
-      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+      return CompletableFuture.failedFuture(e);
     }
   }
 
+  // Streaming endpoints must declare StreamingResponseBody, so errors are streamed too
+  private ResponseEntity<StreamingResponseBody> streamedError(HttpStatus status, String message) {
+    return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+        .body(out -> objectMapper.writeValue(out, Map.of("error", message)));
+  }
+
+  /**
+   * Without a key, runs {@code action} as usual. With one, a retry of a
+   * request that already succeeded gets the stored response, marked with
+   * {@code Idempotent-Replayed: true}, and never reaches the service.
+   */
+  private CompletableFuture<ResponseEntity<?>> idempotent(String key, String operation, Object request,
+      Supplier<CompletableFuture<ResponseEntity<?>>> action) {
+    if (key == null) {
+      return action.get();
+    }
+    if (key.isBlank() || key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+      return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error",
+          IDEMPOTENCY_KEY + " must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters")));
+    }
+    return idempotencyStore.execute(operation + ":" + key, fingerprint(request),
+            () -> action.get().thenApply(this::toStored))
+        .handle((outcome, e) -> e == null ? fromStored(outcome) : idempotencyFailure(e));
+  }
+
+  private StoredResponse toStored(ResponseEntity<?> response) {
+    try {
+      return new StoredResponse(response.getStatusCode().value(), objectMapper.writeValueAsString(response.getBody()));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static ResponseEntity<?> fromStored(Outcome outcome) {
+    ResponseEntity.BodyBuilder builder = ResponseEntity.status(outcome.response().status())
+        .contentType(MediaType.APPLICATION_JSON);
+    if (outcome.replayed()) {
+      builder.header("Idempotent-Replayed", "true");
+    }
+    return builder.body(outcome.response().body());
+  }
+
+  private static ResponseEntity<?> idempotencyFailure(Throwable e) {
+    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    if (cause instanceof KeyReusedException) {
+      return ResponseEntity.unprocessableEntity().body(Map.of("error", cause.getMessage()));
+    }
+    return badRequest(cause);
+  }
+
+  private String fingerprint(Object request) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // Rejected requests are 400; a write that kept losing to concurrent writers is 409 and can be retried
+  private static ResponseEntity<?> badRequest(Throwable e) {
+    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    HttpStatus status = cause instanceof ConcurrentUpdateException ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST;
+    return ResponseEntity.status(status).body(Map.of("error", errorMessage(e)));
+  }
+
+  private static String errorMessage(Throwable e) {
+    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    return String.valueOf(cause.getMessage());
+  }
+
   @GetMapping("/health")
   public ResponseEntity<Map<String, String>> health() {
     Map<String, String> health = new HashMap<>();
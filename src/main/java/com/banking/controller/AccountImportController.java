@@ -0,0 +1,58 @@
+package com.banking.controller;
+
+import com.banking.service.AccountImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/accounts/import")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class AccountImportController {
+
+  private final AccountImportService importService;
+
+  // The body is read as a stream and spooled to disk, never held in memory
+  @PostMapping(consumes = {"text/csv", "text/plain"})
+  public ResponseEntity<?> start(HttpServletRequest request) {
+    try {
+      return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.start(request.getInputStream()));
+    } catch (Exception e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+  }
+
+  @GetMapping("/{importId}")
+  public ResponseEntity<?> getStatus(@PathVariable Long importId) {
+    try {
+      return ResponseEntity.ok(importService.getStatus(importId));
+    } catch (Exception e) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+    }
+  }
+
+  @PostMapping("/{importId}/resume")
+  public ResponseEntity<?> resume(@PathVariable Long importId) {
+    try {
+      return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.resume(importId));
+    } catch (Exception e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+  }
+
+  @GetMapping("/{importId}/rejections")
+  public ResponseEntity<?> getRejections(@PathVariable Long importId,
+      @RequestParam(defaultValue = "0") long afterLine,
+      @RequestParam(defaultValue = "100") int limit) {
+    try {
+      return ResponseEntity.ok(importService.getRejections(importId, afterLine, limit));
+    } catch (Exception e) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.banking.controller;
+
+import com.banking.events.TransactionEventBus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class EventController {
+
+  private final Optional<TransactionEventBus> bus;
+
+  @GetMapping("/stats")
+  public ResponseEntity<?> getStats() {
+    return bus.<ResponseEntity<?>>map(events -> ResponseEntity.ok(events.stats()))
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+            .body(Map.of("error", "Transaction events are disabled (banking.events.enabled)")));
+  }
+}
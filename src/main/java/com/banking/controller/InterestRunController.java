@@ -0,0 +1,40 @@
+package com.banking.controller;
+
+import com.banking.dto.InterestRunStatus;
+import com.banking.service.InterestRunService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/interest-runs")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class InterestRunController {
+
+  private final InterestRunService interestRunService;
+
+  @PostMapping
+  public ResponseEntity<?> start(@RequestParam(required = false) String period) {
+    try {
+      YearMonth month = period == null ? YearMonth.now() : YearMonth.parse(period);
+      InterestRunStatus status = interestRunService.start(month);
+      return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    } catch (Exception e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+  }
+
+  @GetMapping("/{runId}")
+  public ResponseEntity<?> getStatus(@PathVariable Long runId) {
+    try {
+      return ResponseEntity.ok(interestRunService.getStatus(runId));
+    } catch (Exception e) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.banking.controller;
+
+import com.banking.outbox.InMemoryOutboxSink;
+import com.banking.outbox.OutboxRelay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/outbox")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class OutboxController {
+
+  private final Optional<OutboxRelay> relay;
+  private final Optional<InMemoryOutboxSink> memorySink;
+
+  @GetMapping("/stats")
+  public ResponseEntity<?> getStats() {
+    return relay.<ResponseEntity<?>>map(outbox -> ResponseEntity.ok(outbox.stats()))
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+            .body(Map.of("error", "The transaction outbox is disabled (banking.outbox.enabled)")));
+  }
+
+  // Takes what the in-memory sink holds, which also frees room for the relay
+  @PostMapping("/memory/drain")
+  public ResponseEntity<?> drainMemorySink() {
+    return memorySink.<ResponseEntity<?>>map(sink -> ResponseEntity.ok(sink.drain()))
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+            .body(Map.of("error", "The in-memory outbox sink is not enabled (banking.outbox.sinks)")));
+  }
+}
@@ -0,0 +1,32 @@
+package com.banking.controller;
+
+import com.banking.service.RollupRebuildService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rollups")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class RollupController {
+
+  private final RollupRebuildService rebuildService;
+
+  @PostMapping("/rebuild")
+  public ResponseEntity<?> rebuild() {
+    try {
+      return ResponseEntity.status(HttpStatus.ACCEPTED).body(rebuildService.start());
+    } catch (Exception e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+  }
+
+  @GetMapping("/rebuild")
+  public ResponseEntity<?> getRebuildStatus() {
+    return ResponseEntity.ok(rebuildService.getStatus());
+  }
+}
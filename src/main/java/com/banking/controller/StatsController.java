@@ -0,0 +1,21 @@
+package com.banking.controller;
+
+import com.banking.dto.BankStats;
+import com.banking.service.BankAggregates;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StatsController {
+
+  private final BankAggregates aggregates;
+
+  @GetMapping
+  public ResponseEntity<BankStats> getStats() {
+    return ResponseEntity.ok(aggregates.snapshot());
+  }
+}
@@ -0,0 +1,34 @@
+package com.banking.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lets a client ask for primary reads on one request with
+ * {@code X-Read-Consistency: primary}, e.g. a page shown right after the
+ * client's own write to an account it does not name in the URL.
+ */
+public class ReadConsistencyFilter extends OncePerRequestFilter {
+
+  static final String HEADER = "X-Read-Consistency";
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    if (!"primary".equalsIgnoreCase(request.getHeader(HEADER))) {
+      chain.doFilter(request, response);
+      return;
+    }
+    Boolean previous = ReplicaRouting.pinPrimary();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      ReplicaRouting.restore(previous);
+    }
+  }
+}
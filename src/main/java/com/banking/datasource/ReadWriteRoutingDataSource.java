@@ -0,0 +1,85 @@
+package com.banking.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to a
+ * healthy replica and everything else to the primary. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is fetched after the transaction's read-only flag is set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+  static final String PRIMARY = "primary";
+
+  private final DataSource primary;
+  private final ReplicaPool replicas;
+  private final Map<String, Counter> routed = new HashMap<>();
+
+  public ReadWriteRoutingDataSource(DataSource primary, ReplicaPool replicas, MeterRegistry registry) {
+    this.primary = primary;
+    this.replicas = replicas;
+    registerCounter(PRIMARY, registry);
+    for (ReplicaPool.Replica replica : replicas.replicas()) {
+      registerCounter(replica.name(), registry);
+    }
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return route(DataSource::getConnection);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return route(dataSource -> dataSource.getConnection(username, password));
+  }
+
+  private Connection route(ConnectionOpener opener) throws SQLException {
+    if (!readsFromReplica()) {
+      return primaryConnection(opener);
+    }
+    ReplicaPool.Replica replica = replicas.next();
+    if (replica == null) {
+      return primaryConnection(opener);
+    }
+    try {
+      Connection connection = opener.open(replica.dataSource());
+      routed.get(replica.name()).increment();
+      return connection;
+    } catch (SQLException e) {
+      replicas.markDown(replica);
+      return primaryConnection(opener);
+    }
+  }
+
+  private Connection primaryConnection(ConnectionOpener opener) throws SQLException {
+    routed.get(PRIMARY).increment();
+    return opener.open(primary);
+  }
+
+  private static boolean readsFromReplica() {
+    return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !ReplicaRouting.primaryRequested();
+  }
+
+  private void registerCounter(String target, MeterRegistry registry) {
+    routed.put(target, Counter.builder("banking.datasource.connections")
+        .description("Connections handed out, by database")
+        .tag("target", target)
+        .register(registry));
+  }
+
+  @FunctionalInterface
+  private interface ConnectionOpener {
+    Connection open(DataSource dataSource) throws SQLException;
+  }
+}
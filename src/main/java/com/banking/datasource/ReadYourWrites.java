@@ -0,0 +1,80 @@
+package com.banking.datasource;
+
+import jakarta.annotation.PreDestroy;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps reads of an account on the primary for
+ * {@code banking.replicas.read-your-writes-window} after a write to it
+ * commits, so a client never reads its own change back from a replica that
+ * has not applied it yet. Covers the {@code AccountService.get*} reads keyed
+ * by account number; other reads can opt in per request through
+ * {@link ReadConsistencyFilter}.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "banking.replicas.enabled", havingValue = "true")
+public class ReadYourWrites {
+
+  private final Map<Integer, Long> lastWrite = new ConcurrentHashMap<>();
+  private final long windowNanos;
+  private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "read-your-writes-sweeper");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public ReadYourWrites(@Value("${banking.replicas.read-your-writes-window:2s}") Duration window) {
+    this.windowNanos = window.toNanos();
+    long sweepMillis = Math.max(1000, window.toMillis());
+    sweeper.scheduleWithFixedDelay(this::evictExpired, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    sweeper.shutdownNow();
+  }
+
+  /** Records a write to {@code accountNumber}; the window starts when the transaction commits. */
+  public void markWritten(Integer accountNumber) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      lastWrite.put(accountNumber, System.nanoTime());
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        lastWrite.put(accountNumber, System.nanoTime());
+      }
+    });
+  }
+
+  @Around("execution(public * com.banking.service.AccountService.get*(Integer, ..)) && args(accountNumber, ..)")
+  public Object route(ProceedingJoinPoint call, Integer accountNumber) throws Throwable {
+    return recentlyWritten(accountNumber) ? ReplicaRouting.onPrimary(call::proceed) : call.proceed();
+  }
+
+  private boolean recentlyWritten(Integer accountNumber) {
+    Long written = accountNumber == null ? null : lastWrite.get(accountNumber);
+    return written != null && System.nanoTime() - written < windowNanos;
+  }
+
+  private void evictExpired() {
+    long now = System.nanoTime();
+    lastWrite.values().removeIf(written -> now - written >= windowNanos);
+  }
+}
@@ -0,0 +1,77 @@
+package com.banking.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits reads from writes: the primary takes every read-write transaction,
+ * and {@code @Transactional(readOnly = true)} work goes to the replicas listed
+ * in {@code banking.replicas.urls}. Replicas use the primary's driver and, by
+ * default, its credentials.
+ *
+ * <p>Enabled with {@code banking.replicas.enabled=true}. The application never
+ * writes to a replica, so replication itself is up to the database.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    primary.setPoolName("primary");
+    return primary;
+  }
+
+  @Bean(destroyMethod = "close")
+  public ReplicaPool replicaPool(DataSourceProperties properties,
+      @Value("${banking.replicas.urls}") List<String> urls,
+      @Value("${banking.replicas.username:${spring.datasource.username:}}") String username,
+      @Value("${banking.replicas.password:${spring.datasource.password:}}") String password,
+      @Value("${banking.replicas.pool-size:10}") int poolSize,
+      @Value("${banking.replicas.health-check-interval:5s}") Duration checkInterval) {
+    if (urls.isEmpty()) {
+      throw new IllegalStateException("banking.replicas.enabled needs at least one banking.replicas.urls entry");
+    }
+    List<DataSource> replicas = new ArrayList<>();
+    for (int i = 0; i < urls.size(); i++) {
+      HikariDataSource replica = new HikariDataSource();
+      replica.setPoolName("replica-" + i);
+      replica.setDriverClassName(properties.determineDriverClassName());
+      replica.setJdbcUrl(urls.get(i).trim());
+      replica.setUsername(username);
+      replica.setPassword(password);
+      replica.setReadOnly(true);
+      replica.setMaximumPoolSize(poolSize);
+      // A replica that is down at startup is skipped by the health check, not fatal
+      replica.setInitializationFailTimeout(-1);
+      replica.setConnectionTimeout(Math.max(250, checkInterval.toMillis() / 2));
+      replicas.add(replica);
+    }
+    return new ReplicaPool(replicas, checkInterval);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool, MeterRegistry registry) {
+    return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaPool, registry));
+  }
+
+  @Bean
+  public FilterRegistrationBean<ReadConsistencyFilter> readConsistencyFilter() {
+    return new FilterRegistrationBean<>(new ReadConsistencyFilter());
+  }
+}
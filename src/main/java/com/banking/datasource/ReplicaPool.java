@@ -0,0 +1,126 @@
+package com.banking.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Read replicas picked round-robin. A background check opens a connection to
+ * each replica every {@code banking.replicas.health-check-interval}; replicas
+ * that fail it, or fail to hand out a connection while serving reads, are
+ * skipped until a later check passes. With none healthy, reads fall back to
+ * the primary.
+ */
+@Slf4j
+public class ReplicaPool implements HealthIndicator, AutoCloseable {
+
+  /** A replica datasource and its routing key. */
+  record Replica(String name, DataSource dataSource) {
+  }
+
+  private final List<Replica> replicas;
+  private final AtomicIntegerArray healthy;
+  private final AtomicInteger next = new AtomicInteger();
+  private final int validationTimeoutSeconds;
+  private boolean checked;
+  private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "replica-health-check");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public ReplicaPool(List<DataSource> dataSources, Duration checkInterval) {
+    this.replicas = IntStream.range(0, dataSources.size())
+        .mapToObj(i -> new Replica("replica-" + i, dataSources.get(i)))
+        .toList();
+    this.healthy = new AtomicIntegerArray(replicas.size());
+    this.validationTimeoutSeconds = (int) Math.max(1, checkInterval.toSeconds());
+    checkAll();
+    checker.scheduleWithFixedDelay(this::checkAll, checkInterval.toMillis(), checkInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  List<Replica> replicas() {
+    return replicas;
+  }
+
+  /** The next healthy replica after the last one handed out, or null if none is healthy. */
+  Replica next() {
+    int size = replicas.size();
+    int start = Math.floorMod(next.getAndIncrement(), size);
+    for (int i = 0; i < size; i++) {
+      int index = (start + i) % size;
+      if (isHealthy(index)) {
+        return replicas.get(index);
+      }
+    }
+    return null;
+  }
+
+  void markDown(Replica replica) {
+    int index = replicas.indexOf(replica);
+    if (index >= 0 && healthy.compareAndSet(index, 1, 0)) {
+      log.warn("Replica {} failed while serving reads; routing around it", replica.name());
+    }
+  }
+
+  @Override
+  public Health health() {
+    Map<String, String> states = new LinkedHashMap<>();
+    boolean anyUp = false;
+    for (int i = 0; i < replicas.size(); i++) {
+      states.put(replicas.get(i).name(), isHealthy(i) ? "UP" : "DOWN");
+      anyUp |= isHealthy(i);
+    }
+    // Reads still work on the primary when every replica is down
+    return (anyUp ? Health.up() : Health.unknown()).withDetails(states).build();
+  }
+
+  @Override
+  public void close() throws Exception {
+    checker.shutdownNow();
+    for (Replica replica : replicas) {
+      if (replica.dataSource() instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+
+  private synchronized void checkAll() {
+    for (int i = 0; i < replicas.size(); i++) {
+      Replica replica = replicas.get(i);
+      boolean up;
+      try (Connection connection = replica.dataSource().getConnection()) {
+        up = connection.isValid(validationTimeoutSeconds);
+      } catch (Exception e) {
+        up = false;
+      }
+      if (!checked || up != isHealthy(i)) {
+        log.info("Replica {} is {}", replica.name(), up ? "up" : "down");
+      }
+      setHealthy(i, up);
+    }
+    checked = true;
+  }
+
+  private boolean isHealthy(int index) {
+    return healthy.get(index) == 1;
+  }
+
+  private void setHealthy(int index, boolean up) {
+    healthy.set(index, up ? 1 : 0);
+  }
+}
@@ -0,0 +1,47 @@
+package com.banking.datasource;
+
+/**
+ * Per-thread override that sends read-only transactions to the primary
+ * instead of a replica, for reads that must see a write that just committed.
+ */
+public final class ReplicaRouting {
+
+  /** Work run by {@link #onPrimary}; may throw whatever the caller throws. */
+  @FunctionalInterface
+  public interface Work<T, E extends Throwable> {
+    T run() throws E;
+  }
+
+  private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+  private ReplicaRouting() {
+  }
+
+  /** Runs {@code work} with every read on this thread going to the primary. */
+  public static <T, E extends Throwable> T onPrimary(Work<T, E> work) throws E {
+    Boolean previous = pinPrimary();
+    try {
+      return work.run();
+    } finally {
+      restore(previous);
+    }
+  }
+
+  static boolean primaryRequested() {
+    return PRIMARY.get() != null;
+  }
+
+  static Boolean pinPrimary() {
+    Boolean previous = PRIMARY.get();
+    PRIMARY.set(Boolean.TRUE);
+    return previous;
+  }
+
+  static void restore(Boolean previous) {
+    if (previous == null) {
+      PRIMARY.remove();
+    } else {
+      PRIMARY.set(previous);
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package com.banking.dto;
 
+import com.banking.money.MoneyJsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,7 +12,8 @@ import lombok.NoArgsConstructor;
 public class AccountDTO {
   private Long id;
   private Integer accountNumber;
-  private Double balance;
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long balance;
   private String accountType;
   private Boolean locked;
 }
@@ -0,0 +1,21 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountImportStatus {
+  private Long importId;
+  private String status;
+  private Integer chunkSize;
+  private Integer totalChunks;
+  private Integer completedChunks;
+  private Long accountsImported;
+  private Long rowsRejected;
+  private Double accountsPerSecond;
+  private Long elapsedSeconds;
+  private String error;
+}
@@ -0,0 +1,30 @@
+package com.banking.dto;
+
+import com.banking.entity.DailyBalance;
+import com.banking.money.MoneyJsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSummary {
+  private Integer accountNumber;
+  private LocalDate from;
+  private LocalDate to;
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long openingBalance;
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long closingBalance;
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long credits;
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long debits;
+  private Long transactionCount;
+  private List<DailyBalance> days;
+}
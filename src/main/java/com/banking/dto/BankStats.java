@@ -0,0 +1,30 @@
+package com.banking.dto;
+
+import com.banking.money.MoneyJsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankStats {
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long totalDeposits;
+  private long depositCount;
+  private Map<String, BigDecimal> balanceByType;
+  private Map<String, Long> accountsByType;
+  private long lockedAccounts;
+  private long transfersLastMinute;
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long transferVolumeLastMinute;
+  private List<BigDecimal> transferVolumePerSecond; // oldest first, current second last
+  private LocalDateTime reconciledAt;
+  private long reconcileCorrections;
+}
@@ -0,0 +1,30 @@
+package com.banking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferRequest {
+
+  public static final String ALL_OR_NOTHING = "ALL_OR_NOTHING";
+  public static final String BEST_EFFORT = "BEST_EFFORT";
+
+  @NotEmpty(message = "At least one transfer is required")
+  private List<@Valid TransactionRequest> transfers;
+
+  // ALL_OR_NOTHING rolls the whole batch back on the first failure
+  @Pattern(regexp = "ALL_OR_NOTHING|BEST_EFFORT", message = "Mode must be ALL_OR_NOTHING or BEST_EFFORT")
+  private String mode = ALL_OR_NOTHING;
+
+  public boolean isAtomic() {
+    return !BEST_EFFORT.equals(mode);
+  }
+}
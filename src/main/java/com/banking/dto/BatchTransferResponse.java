@@ -0,0 +1,38 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferResponse {
+  private String mode;
+  private int succeeded;
+  private int failed;
+  private List<TransferResult> results;
+
+  public static BatchTransferResponse of(String mode, List<TransferResult> results) {
+    int succeeded = (int) results.stream().filter(r -> TransferResult.SUCCESS.equals(r.getStatus())).count();
+    int failed = (int) results.stream().filter(r -> TransferResult.FAILED.equals(r.getStatus())).count();
+    return new BatchTransferResponse(mode, succeeded, failed, results);
+  }
+
+  /**
+   * Result list for an all-or-nothing batch that stopped at {@code failedIndex}:
+   * earlier items are reported as rolled back, later ones as skipped.
+   */
+  public static BatchTransferResponse rolledBack(List<TransactionRequest> transfers, int failedIndex, String error) {
+    List<TransferResult> results = new ArrayList<>(transfers.size());
+    for (int i = 0; i < transfers.size(); i++) {
+      String status = i < failedIndex ? TransferResult.ROLLED_BACK
+          : i == failedIndex ? TransferResult.FAILED : TransferResult.SKIPPED;
+      results.add(TransferResult.of(i, transfers.get(i), status, i == failedIndex ? error : null));
+    }
+    return of(BatchTransferRequest.ALL_OR_NOTHING, results);
+  }
+}
@@ -0,0 +1,20 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+  private boolean enabled;
+  private int size;
+  private int maxSize;
+  private long ttlSeconds;
+  private long hits;
+  private long misses;
+  private double hitRate;
+  private long evictions;
+  private long expirations;
+}
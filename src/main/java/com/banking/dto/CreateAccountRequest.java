@@ -1,5 +1,9 @@
 package com.banking.dto;
 
+import com.banking.money.MoneyJsonDeserializer;
+import com.banking.money.MoneyJsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -18,9 +22,12 @@ public class CreateAccountRequest {
   @Size(min = 4, message = "Password must be at least 4 characters")
   private String password;
 
+  // Minor units; boxed only so a missing balance is reported as required
   @NotNull(message = "Initial balance is required")
   @Min(value = 0, message = "Initial balance cannot be negative")
-  private Double initialBalance;
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  @JsonDeserialize(using = MoneyJsonDeserializer.class)
+  private Long initialBalance;
 
   @NotBlank(message = "Account type is required")
   @Pattern(regexp = "SAVINGS|CURRENT", message = "Account type must be SAVINGS or CURRENT")
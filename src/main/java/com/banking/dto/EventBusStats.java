@@ -0,0 +1,30 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventBusStats {
+  private int bufferSize;
+  private String waitStrategy;
+  private long published;
+  private long dropped;
+  private List<ConsumerStats> consumers;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class ConsumerStats {
+    private String name;
+    private long sequence;
+    private long lag;
+    private long processed;
+    private long batches;
+    private long failures;
+  }
+}
@@ -0,0 +1,15 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A CSV line an account import skipped; {@code lineNumber} counts from 1 and includes the header. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRejection {
+  private Long lineNumber;
+  private Integer accountNumber;
+  private String reason;
+}
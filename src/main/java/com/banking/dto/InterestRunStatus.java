@@ -0,0 +1,21 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterestRunStatus {
+  private Long runId;
+  private String period;
+  private String status;
+  private Integer totalPartitions;
+  private Integer completedPartitions;
+  private Long accountsProcessed;
+  private Double percentComplete;
+  private Double accountsPerSecond;
+  private Long elapsedSeconds;
+  private String error;
+}
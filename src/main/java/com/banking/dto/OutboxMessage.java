@@ -0,0 +1,28 @@
+package com.banking.dto;
+
+import com.banking.money.MoneyJsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** One outbox row as delivered to sinks; {@code id} is the outbox sequence, not the transaction id. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+  private Long id;
+  private Long transactionId;
+  private Integer accountNumber;
+  private String type;
+
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long amount;
+
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long finalBalance;
+
+  private LocalDateTime occurredAt;
+}
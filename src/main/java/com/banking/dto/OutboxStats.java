@@ -0,0 +1,26 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxStats {
+  private List<String> sinks;
+  private String afterDelivery;
+  private int batchSize;
+  private long backlog;
+  private double lagSeconds;
+  private long delivered;
+  private long batches;
+  private long failures;
+  private Long lastDeliveredId;
+  private long backoffMillis;
+  private String lastError;
+  private LocalDateTime lastDeliveryAt;
+}
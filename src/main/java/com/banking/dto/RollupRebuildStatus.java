@@ -0,0 +1,19 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupRebuildStatus {
+  private String status; // IDLE, RUNNING, COMPLETED, FAILED
+  private Integer accountsTotal;
+  private Integer accountsRebuilt;
+  private LocalDateTime startedAt;
+  private LocalDateTime finishedAt;
+  private String error;
+}
@@ -0,0 +1,20 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** One transaction as written to a statement export; amounts in minor units. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementLine {
+  private Long id;
+  private LocalDateTime timestamp;
+  private String type;
+  private long amount;
+  private long finalBalance;
+  private String description;
+}
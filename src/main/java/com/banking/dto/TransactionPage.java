@@ -0,0 +1,17 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPage {
+  private List<TransactionView> items;
+
+  // Opaque cursor for the following page, null on the last page
+  private String next;
+}
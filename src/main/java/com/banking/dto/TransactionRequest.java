@@ -1,5 +1,9 @@
 package com.banking.dto;
 
+import com.banking.money.MoneyJsonDeserializer;
+import com.banking.money.MoneyJsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,9 +17,12 @@ public class TransactionRequest {
   @NotNull(message = "Account number is required")
   private Integer accountNumber;
 
+  // Minor units; boxed only so a missing amount is reported as required
   @NotNull(message = "Amount is required")
   @Positive(message = "Amount must be positive")
-  private Double amount;
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  @JsonDeserialize(using = MoneyJsonDeserializer.class)
+  private Long amount;
 
   private String password;
 
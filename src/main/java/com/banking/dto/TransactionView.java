@@ -0,0 +1,24 @@
+package com.banking.dto;
+
+import com.banking.money.MoneyJsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** Read-only row of an account's history, serialised the same way as the entity. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionView {
+  private Long id;
+  private String type;
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long amount;
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long finalBalance;
+  private LocalDateTime timestamp;
+  private String description;
+}
@@ -0,0 +1,31 @@
+package com.banking.dto;
+
+import com.banking.money.MoneyJsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResult {
+
+  public static final String SUCCESS = "SUCCESS";
+  public static final String FAILED = "FAILED";
+  public static final String ROLLED_BACK = "ROLLED_BACK";
+  public static final String SKIPPED = "SKIPPED";
+
+  private int index;
+  private Integer accountNumber;
+  private Integer targetAccountNumber;
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private Long amount;
+  private String status;
+  private String error;
+
+  public static TransferResult of(int index, TransactionRequest request, String status, String error) {
+    return new TransferResult(index, request.getAccountNumber(), request.getTargetAccountNumber(),
+        request.getAmount(), status, error);
+  }
+}
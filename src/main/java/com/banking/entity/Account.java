@@ -1,9 +1,11 @@
 package com.banking.entity;
 
+import com.banking.money.MoneyConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -16,8 +18,10 @@ import java.util.List;
 @AllArgsConstructor
 public class Account {
 
+  // Pooled sequence: ids are reserved in blocks, so inserts can be JDBC-batched
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+  @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = 50)
   private Long id;
 
   @Column(unique = true, nullable = false)
@@ -26,18 +30,29 @@ public class Account {
   @Column(nullable = false)
   private String password;
 
-  @Column(nullable = false)
-  private Double balance;
+  // Minor units (paise), stored as DECIMAL(19,2)
+  @Convert(converter = MoneyConverter.class)
+  @Column(nullable = false, precision = 19, scale = 2)
+  private long balance;
 
   @Column(nullable = false)
   private String accountType; // SAVINGS or CURRENT
 
+  // Checked on every entity update; bulk SQL that changes the row bumps it as well
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
+
   @Column(nullable = false)
   private Boolean locked = false;
 
   @Column(nullable = false)
   private Integer wrongAttempts = 0;
 
+  // When the failure behind wrongAttempts happened; updatedAt moves with every balance write
+  private LocalDateTime lastFailedLoginAt;
+
   @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private List<Transaction> transactions = new ArrayList<>();
 
@@ -0,0 +1,49 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "account_imports")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountImport {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private String status; // RUNNING, COMPLETED, FAILED
+
+  // Spooled copy of the uploaded CSV, read again when the import resumes
+  @Column(nullable = false)
+  private String file;
+
+  @Column(nullable = false)
+  private Integer chunkSize;
+
+  // Known once the whole file has been read
+  private Integer totalChunks;
+
+  @Column(nullable = false)
+  private Integer completedChunks = 0;
+
+  @Column(nullable = false)
+  private Long accountsImported = 0L;
+
+  @Column(nullable = false)
+  private Long rowsRejected = 0L;
+
+  private String error;
+
+  @Column(nullable = false)
+  private LocalDateTime startedAt;
+
+  private LocalDateTime finishedAt;
+}
@@ -0,0 +1,48 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint for one chunk of an account import, inserted in the same
+ * database transaction as the chunk's accounts, so a resumed import skips
+ * exactly the chunks that committed.
+ */
+@Entity
+@Table(name = "account_import_chunks", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"import_id", "chunk_no"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountImportChunk {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "import_id", nullable = false)
+  private Long importId;
+
+  @Column(name = "chunk_no", nullable = false)
+  private Integer chunkNo;
+
+  @Column(nullable = false)
+  private Long firstLine;
+
+  @Column(nullable = false)
+  private Long lastLine;
+
+  @Column(nullable = false)
+  private Integer accountsImported;
+
+  @Column(nullable = false)
+  private Integer rowsRejected;
+
+  @Column(nullable = false)
+  private LocalDateTime completedAt;
+}
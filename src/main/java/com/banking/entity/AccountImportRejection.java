@@ -0,0 +1,33 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A CSV line an account import skipped, and why. */
+@Entity
+@Table(name = "account_import_rejections", indexes = {
+    @Index(name = "idx_account_import_rejections_line", columnList = "import_id, line_number")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountImportRejection {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "import_id", nullable = false)
+  private Long importId;
+
+  @Column(name = "line_number", nullable = false)
+  private Long lineNumber;
+
+  // Null when the line did not get as far as a readable account number
+  private Integer accountNumber;
+
+  @Column(nullable = false, length = 500)
+  private String reason;
+}
@@ -0,0 +1,41 @@
+package com.banking.entity;
+
+import com.banking.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * One stripe of a hot account's balance. While an account has slot rows its
+ * balance is the account row's balance plus the sum of its slots.
+ */
+@Entity
+@Table(name = "account_balance_slots")
+@IdClass(BalanceSlot.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSlot {
+
+  @Id
+  private Long accountId;
+
+  @Id
+  private Integer slot;
+
+  // Minor units (paise), stored as DECIMAL(19,2)
+  @Convert(converter = MoneyConverter.class)
+  @Column(nullable = false, precision = 19, scale = 2)
+  private long balance;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private Long accountId;
+    private Integer slot;
+  }
+}
@@ -0,0 +1,62 @@
+package com.banking.entity;
+
+import com.banking.money.MoneyConverter;
+import com.banking.money.MoneyJsonSerializer;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/** One account's movements on one day, kept current as transactions are written. */
+@Entity
+@Table(name = "daily_balance_rollups")
+@IdClass(DailyBalance.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyBalance {
+
+  @Id
+  @JsonIgnore
+  private Long accountId;
+
+  @Id
+  @Column(name = "balance_date")
+  private LocalDate day;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(nullable = false, precision = 19, scale = 2)
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long openingBalance;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(nullable = false, precision = 19, scale = 2)
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long closingBalance;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(nullable = false, precision = 19, scale = 2)
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long credits;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(nullable = false, precision = 19, scale = 2)
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long debits;
+
+  @Column(nullable = false)
+  private Integer transactionCount;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private Long accountId;
+    private LocalDate day;
+  }
+}
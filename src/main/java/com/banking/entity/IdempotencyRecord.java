@@ -0,0 +1,39 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_keys_created", columnList = "createdAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+  // Operation and client key, e.g. "deposit:3f2c..."
+  @Id
+  @Column(length = 255)
+  private String id;
+
+  // SHA-256 of the request body, to refuse a key reused for a different request
+  @Column(nullable = false, length = 64)
+  private String fingerprint;
+
+  // 0 while only the claim is known: written with the money movement, before the response exists
+  @Column(nullable = false)
+  private Integer status;
+
+  // Batch transfer responses have no size limit
+  @Lob
+  @Column(nullable = false)
+  private String body;
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,42 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "interest_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterestRun {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(unique = true, nullable = false)
+  private String period; // e.g. 2026-10
+
+  @Column(nullable = false)
+  private String status; // RUNNING, COMPLETED, FAILED
+
+  @Column(nullable = false)
+  private Integer totalPartitions;
+
+  @Column(nullable = false)
+  private Integer completedPartitions = 0;
+
+  @Column(nullable = false)
+  private Long accountsProcessed = 0L;
+
+  private String error;
+
+  @Column(nullable = false)
+  private LocalDateTime startedAt;
+
+  private LocalDateTime finishedAt;
+}
@@ -0,0 +1,47 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint for one id range of an interest run. It is marked COMPLETED in
+ * the same database transaction that applies the range, so a resumed run
+ * never credits an account twice.
+ */
+@Entity
+@Table(name = "interest_run_partitions", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"run_id", "partition_no"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterestRunPartition {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "run_id", nullable = false)
+  private Long runId;
+
+  @Column(name = "partition_no", nullable = false)
+  private Integer partitionNo;
+
+  @Column(nullable = false)
+  private Long fromId;
+
+  @Column(nullable = false)
+  private Long toId;
+
+  @Column(nullable = false)
+  private String status = "PENDING"; // PENDING, COMPLETED
+
+  @Column(nullable = false)
+  private Integer accountsProcessed = 0;
+
+  private LocalDateTime completedAt;
+}
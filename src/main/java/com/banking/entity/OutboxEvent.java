@@ -0,0 +1,55 @@
+package com.banking.entity;
+
+import com.banking.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed transaction row waiting for the outbox relay. Written in the
+ * same database transaction as the row it describes.
+ */
+@Entity
+@Table(name = "transaction_outbox", indexes = {
+    @Index(name = "idx_transaction_outbox_pending", columnList = "deliveredAt, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+  // Ids come from EntityIdAllocator: rows are inserted with JDBC batches
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+  @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(nullable = false)
+  private Long transactionId;
+
+  @Column(nullable = false)
+  private Long accountId;
+
+  @Column(nullable = false)
+  private Integer accountNumber;
+
+  @Column(nullable = false)
+  private String type;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(nullable = false, precision = 19, scale = 2)
+  private long amount;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(nullable = false, precision = 19, scale = 2)
+  private long finalBalance;
+
+  @Column(nullable = false)
+  private LocalDateTime occurredAt;
+
+  // Set instead of deleting the row when banking.outbox.after-delivery=mark
+  private LocalDateTime deliveredAt;
+}
@@ -1,6 +1,10 @@
 package com.banking.entity;
 
+import com.banking.money.MoneyConverter;
+import com.banking.money.MoneyJsonSerializer;
+import com.banking.service.TransactionRows;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,24 +13,34 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    @Index(name = "idx_transactions_account_time", columnList = "account_id, timestamp, id")
+})
+@EntityListeners(TransactionRows.Listener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
 
+  // Pooled sequence: ids are reserved in blocks, so inserts can be JDBC-batched
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+  @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false)
   private String type; // DEPOSIT, WITHDRAW, TRANSFER, INTEREST
 
-  @Column(nullable = false)
-  private Double amount;
+  // Minor units (paise), stored as DECIMAL(19,2)
+  @Convert(converter = MoneyConverter.class)
+  @Column(nullable = false, precision = 19, scale = 2)
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long amount;
 
-  @Column(nullable = false)
-  private Double finalBalance;
+  @Convert(converter = MoneyConverter.class)
+  @Column(nullable = false, precision = 19, scale = 2)
+  @JsonSerialize(using = MoneyJsonSerializer.class)
+  private long finalBalance;
 
   @Column(nullable = false)
   private LocalDateTime timestamp;
@@ -38,12 +52,19 @@ public class Transaction {
   @JsonIgnore
   private Account account;
 
+  // Set when the row was written behind by the ledger engine, makes replays idempotent
+  @Column(unique = true)
+  @JsonIgnore
+  private Long ledgerSequence;
+
   @PrePersist
   protected void onCreate() {
-    timestamp = LocalDateTime.now();
+    if (timestamp == null) {
+      timestamp = LocalDateTime.now();
+    }
   }
 
-  public Transaction(String type, Double amount, Double finalBalance, String description) {
+  public Transaction(String type, long amount, long finalBalance, String description) {
     this.type = type;
     this.amount = amount;
     this.finalBalance = finalBalance;
@@ -0,0 +1,54 @@
+package com.banking.entity;
+
+import com.banking.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A transfer whose debit and credit commit separately: between accounts held
+ * in different shards, or between account mailboxes. The source's row tracks
+ * progress. Across shards the target shard holds a row with the same id once
+ * the credit is applied; between mailboxes the credit moves the one row from
+ * DEBITED to COMPLETED. Either way, retrying the credit never pays twice.
+ */
+@Entity
+@Table(name = "transfer_sagas", indexes = {
+    @Index(name = "idx_transfer_sagas_status", columnList = "status, updatedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferSaga {
+
+  public static final String DEBITED = "DEBITED";
+  public static final String CREDITED = "CREDITED";
+  public static final String COMPLETED = "COMPLETED";
+  public static final String COMPENSATED = "COMPENSATED";
+
+  @Id
+  @Column(length = 36)
+  private String id;
+
+  @Column(nullable = false)
+  private Integer sourceAccountNumber;
+
+  @Column(nullable = false)
+  private Integer targetAccountNumber;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(nullable = false, precision = 19, scale = 2)
+  private long amount;
+
+  @Column(nullable = false)
+  private String status; // DEBITED, COMPLETED, COMPENSATED on the source; CREDITED on the target
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(nullable = false)
+  private LocalDateTime updatedAt;
+}
@@ -0,0 +1,223 @@
+package com.banking.events;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-size ring of pre-allocated events shared by many publishers and
+ * consumers. A publisher claims the next sequence with a CAS, fills the
+ * event at that slot in place and marks the slot published. Every consumer
+ * has its own cursor, reads whatever has been published past it in batches
+ * and then moves the cursor, which hands the slots back to publishers. A
+ * slow consumer only holds up publishers once it is a whole ring behind.
+ *
+ * <p>Events are reused, so a handler that keeps data beyond
+ * {@link Handler#onEvent} must copy it.
+ */
+@Slf4j
+public final class EventRing<E> {
+
+  private final Object[] entries;
+  private final int mask;
+  private final int shift;
+  private final WaitStrategy waitStrategy;
+  // Highest sequence handed to a publisher; slots up to here may still be filling
+  private final AtomicLong claimed = new AtomicLong(-1);
+  // Per slot, the lap (sequence / size) it was last published for
+  private final AtomicIntegerArray published;
+  private final List<Consumer<E>> consumers = new CopyOnWriteArrayList<>();
+  // Slowest cursor as last seen by a publisher; only re-read when the ring looks full
+  private volatile long gatingCache = -1;
+
+  public EventRing(int size, Supplier<E> factory, WaitStrategy waitStrategy) {
+    if (size < 2 || Integer.bitCount(size) != 1) {
+      throw new IllegalArgumentException("Ring size must be a power of two, got " + size);
+    }
+    this.entries = new Object[size];
+    for (int i = 0; i < size; i++) {
+      entries[i] = factory.get();
+    }
+    this.mask = size - 1;
+    this.shift = Integer.numberOfTrailingZeros(size);
+    this.waitStrategy = waitStrategy;
+    this.published = new AtomicIntegerArray(size);
+    for (int i = 0; i < size; i++) {
+      published.set(i, -1);
+    }
+  }
+
+  public int size() {
+    return entries.length;
+  }
+
+  public long claimed() {
+    return claimed.get();
+  }
+
+  public List<Consumer<E>> consumers() {
+    return List.copyOf(consumers);
+  }
+
+  /**
+   * Claims the next slot, or returns -1 without waiting if that would
+   * overwrite an event some consumer has not read yet.
+   */
+  public long tryClaim() {
+    while (true) {
+      long current = claimed.get();
+      long next = current + 1;
+      long wrapPoint = next - entries.length;
+      if (wrapPoint > gatingCache) {
+        long slowest = slowestCursor(current);
+        gatingCache = slowest;
+        if (wrapPoint > slowest) {
+          return -1;
+        }
+      }
+      if (claimed.compareAndSet(current, next)) {
+        return next;
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public E get(long sequence) {
+    return (E) entries[(int) sequence & mask];
+  }
+
+  /** Makes the event at a claimed sequence visible to consumers. */
+  public void publish(long sequence) {
+    published.set((int) sequence & mask, (int) (sequence >>> shift));
+    waitStrategy.signalAll();
+  }
+
+  /**
+   * Adds a consumer starting after everything claimed so far. The returned
+   * consumer does nothing until a thread runs it.
+   */
+  public Consumer<E> subscribe(String name, Handler<E> handler, int maxBatch) {
+    Consumer<E> consumer = new Consumer<>(this, name, handler, Math.max(1, maxBatch), claimed.get());
+    consumers.add(consumer);
+    return consumer;
+  }
+
+  private long slowestCursor(long fallback) {
+    long slowest = fallback;
+    for (Consumer<E> consumer : consumers) {
+      slowest = Math.min(slowest, consumer.cursor.get());
+    }
+    return slowest;
+  }
+
+  // Publishers finish out of order, so only the unbroken published run counts
+  private long highestPublished(long from, long to) {
+    for (long sequence = from; sequence <= to; sequence++) {
+      if (published.get((int) sequence & mask) != (int) (sequence >>> shift)) {
+        return sequence - 1;
+      }
+    }
+    return to;
+  }
+
+  @FunctionalInterface
+  public interface Handler<E> {
+
+    /**
+     * Handles one event. {@code endOfBatch} is true for the last event of
+     * what was available at once, which is the moment to flush work batched
+     * across calls.
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch) throws Exception;
+  }
+
+  /** One reader of the ring with its own cursor; run it on a dedicated thread. */
+  public static final class Consumer<E> implements Runnable {
+
+    private final EventRing<E> ring;
+    private final String name;
+    private final Handler<E> handler;
+    private final int maxBatch;
+    // Last sequence this consumer is done with
+    private final AtomicLong cursor;
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean running = true;
+
+    private Consumer(EventRing<E> ring, String name, Handler<E> handler, int maxBatch, long start) {
+      this.ring = ring;
+      this.name = name;
+      this.handler = handler;
+      this.maxBatch = maxBatch;
+      this.cursor = new AtomicLong(start);
+    }
+
+    @Override
+    public void run() {
+      long next = cursor.get() + 1;
+      while (running) {
+        long available;
+        try {
+          available = ring.waitStrategy.waitFor(next, ring.claimed, () -> running);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        long end = ring.highestPublished(next, Math.min(available, next + maxBatch - 1));
+        if (end < next) {
+          // Claimed but still being filled in
+          Thread.onSpinWait();
+          continue;
+        }
+        for (long sequence = next; sequence <= end; sequence++) {
+          try {
+            handler.onEvent(ring.get(sequence), sequence, sequence == end);
+          } catch (Exception e) {
+            failures.increment();
+            log.warn("Event consumer {} failed on sequence {}", name, sequence, e);
+          }
+        }
+        processed.add(end - next + 1);
+        batches.increment();
+        cursor.set(end);
+        next = end + 1;
+      }
+    }
+
+    /** Stops after the current batch; pair with interrupting the thread. */
+    public void halt() {
+      running = false;
+      ring.waitStrategy.signalAll();
+    }
+
+    public String name() {
+      return name;
+    }
+
+    public long cursor() {
+      return cursor.get();
+    }
+
+    public long lag() {
+      return Math.max(0, ring.claimed.get() - cursor.get());
+    }
+
+    public long processed() {
+      return processed.sum();
+    }
+
+    public long batches() {
+      return batches.sum();
+    }
+
+    public long failures() {
+      return failures.sum();
+    }
+  }
+}
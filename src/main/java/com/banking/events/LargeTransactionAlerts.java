@@ -0,0 +1,35 @@
+package com.banking.events;
+
+import com.banking.money.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Logs every committed transaction of at least
+ * {@code banking.events.large-transaction-alert} rupees; the place to hang
+ * notifications on. Off unless the threshold is set.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${banking.events.enabled:false} and '${banking.events.large-transaction-alert:}' != ''")
+public class LargeTransactionAlerts implements TransactionEventHandler {
+
+  private final long threshold;
+
+  public LargeTransactionAlerts(@Value("${banking.events.large-transaction-alert}") BigDecimal threshold) {
+    this.threshold = Money.fromDecimal(threshold);
+  }
+
+  @Override
+  public void onEvent(TransactionEvent event, long sequence, boolean endOfBatch) {
+    if (event.getAmount() >= threshold) {
+      log.info("Large {} of {} on account {} (transaction {}, balance now {})", event.getType(),
+          Money.toDecimal(event.getAmount()), event.getAccountNumber(), event.getTransactionId(),
+          Money.toDecimal(event.getFinalBalance()));
+    }
+  }
+}
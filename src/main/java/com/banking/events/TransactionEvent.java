@@ -0,0 +1,35 @@
+package com.banking.events;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed transaction row as handed to {@link TransactionEventHandler}s.
+ * Instances live in the ring and are overwritten once every consumer has
+ * moved past them; copy what you need to keep. Amounts are minor units.
+ */
+@Getter
+@ToString
+public final class TransactionEvent {
+
+  private long transactionId;
+  private long accountId;
+  private int accountNumber;
+  private String type;
+  private long amount;
+  private long finalBalance;
+  private LocalDateTime timestamp;
+
+  void set(long transactionId, long accountId, int accountNumber, String type, long amount, long finalBalance,
+      LocalDateTime timestamp) {
+    this.transactionId = transactionId;
+    this.accountId = accountId;
+    this.accountNumber = accountNumber;
+    this.type = type;
+    this.amount = amount;
+    this.finalBalance = finalBalance;
+    this.timestamp = timestamp;
+  }
+}
@@ -0,0 +1,122 @@
+package com.banking.events;
+
+import com.banking.dto.EventBusStats;
+import com.banking.service.TransactionRows;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes every committed transaction row to the {@link TransactionEventHandler}
+ * beans through an {@link EventRing} of {@code banking.events.buffer-size}
+ * pre-allocated events. Rows collected by {@link TransactionRows} while a
+ * database transaction runs are published from its after-commit callback, so
+ * a rolled-back write is never seen and the writer only pays for copying a
+ * few fields into the ring.
+ * Each handler runs on its own daemon thread with its own cursor, taking up
+ * to {@code banking.events.max-batch} events at a time and waiting as
+ * {@code banking.events.wait-strategy} says when the ring is empty.
+ *
+ * <p>When the slowest handler is a whole ring behind, new events are dropped
+ * and counted instead of holding up the request that committed them.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.events.enabled", havingValue = "true")
+public class TransactionEventBus implements TransactionRows.Consumer {
+
+  private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(2);
+
+  private final EventRing<TransactionEvent> ring;
+  private final String waitStrategy;
+  private final List<EventRing.Consumer<TransactionEvent>> consumers = new ArrayList<>();
+  private final List<Thread> threads = new ArrayList<>();
+  private final Counter published;
+  private final Counter dropped;
+
+  public TransactionEventBus(List<TransactionEventHandler> handlers,
+      MeterRegistry registry,
+      @Value("${banking.events.buffer-size:4096}") int bufferSize,
+      @Value("${banking.events.wait-strategy:blocking}") String waitStrategy,
+      @Value("${banking.events.max-batch:256}") int maxBatch) {
+    this.ring = new EventRing<>(bufferSize, TransactionEvent::new, WaitStrategy.named(waitStrategy));
+    this.waitStrategy = waitStrategy;
+    // Subscribed now so that nothing committed before the threads start is skipped
+    for (TransactionEventHandler handler : handlers) {
+      EventRing.Consumer<TransactionEvent> consumer = ring.subscribe(handler.name(), handler, maxBatch);
+      consumers.add(consumer);
+      Gauge.builder("banking.events.lag", consumer, EventRing.Consumer::lag)
+          .description("Events published but not yet handled by the consumer")
+          .tag("consumer", consumer.name())
+          .register(registry);
+    }
+    this.published = Counter.builder("banking.events")
+        .description("Transaction events offered to the ring")
+        .tag("outcome", "published")
+        .register(registry);
+    this.dropped = Counter.builder("banking.events")
+        .description("Transaction events offered to the ring")
+        .tag("outcome", "dropped")
+        .register(registry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void start() {
+    for (EventRing.Consumer<TransactionEvent> consumer : consumers) {
+      Thread thread = new Thread(consumer, "events-" + consumer.name());
+      thread.setDaemon(true);
+      thread.start();
+      threads.add(thread);
+    }
+    log.info("Transaction event bus started: {} slots, {} wait strategy, consumers {}", ring.size(), waitStrategy,
+        consumers.stream().map(EventRing.Consumer::name).toList());
+  }
+
+  // Gives consumers a moment to catch up, so a clean shutdown loses nothing already committed
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+    while (consumers.stream().anyMatch(consumer -> consumer.lag() > 0) && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    consumers.forEach(EventRing.Consumer::halt);
+    threads.forEach(Thread::interrupt);
+  }
+
+  @Override
+  public void afterCommit(List<TransactionRows.Row> rows) {
+    rows.forEach(this::publish);
+  }
+
+  public EventBusStats stats() {
+    List<EventBusStats.ConsumerStats> consumerStats = consumers.stream()
+        .map(consumer -> new EventBusStats.ConsumerStats(consumer.name(), consumer.cursor(), consumer.lag(),
+            consumer.processed(), consumer.batches(), consumer.failures()))
+        .toList();
+    return new EventBusStats(ring.size(), waitStrategy, (long) published.count(), (long) dropped.count(),
+        consumerStats);
+  }
+
+  private void publish(TransactionRows.Row row) {
+    long sequence = ring.tryClaim();
+    if (sequence < 0) {
+      dropped.increment();
+      return;
+    }
+    ring.get(sequence).set(row.transactionId(), row.accountId(), row.accountNumber(), row.type(), row.amount(),
+        row.finalBalance(), row.timestamp());
+    ring.publish(sequence);
+    published.increment();
+  }
+}
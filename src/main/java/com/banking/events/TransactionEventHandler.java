@@ -0,0 +1,16 @@
+package com.banking.events;
+
+/**
+ * A Spring bean implementing this receives every committed transaction row
+ * on its own thread, in publication order, once {@code banking.events.enabled}
+ * is set. It never runs inside the transaction that wrote the row. A slow
+ * handler delays only itself, until it falls a whole ring behind; from then
+ * on new events are dropped rather than making the writer wait.
+ */
+public interface TransactionEventHandler extends EventRing.Handler<TransactionEvent> {
+
+  /** Names the consumer's thread, metrics and stats entry. */
+  default String name() {
+    return getClass().getSimpleName();
+  }
+}
@@ -0,0 +1,61 @@
+package com.banking.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts committed transactions and their volume by type as
+ * {@code banking.transactions.committed} and {@code banking.transactions.volume}.
+ * Sums are kept on the consumer thread and added to the meters once per batch.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.events.enabled", havingValue = "true")
+public class TransactionVolumeMetrics implements TransactionEventHandler {
+
+  private final MeterRegistry registry;
+  // Only touched by the consumer thread
+  private final Map<String, long[]> batch = new HashMap<>();
+  private final Map<String, Counter[]> meters = new HashMap<>();
+
+  public TransactionVolumeMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public void onEvent(TransactionEvent event, long sequence, boolean endOfBatch) {
+    long[] totals = batch.computeIfAbsent(event.getType(), type -> new long[2]);
+    totals[0]++;
+    totals[1] += event.getAmount();
+    if (endOfBatch) {
+      batch.forEach((type, sums) -> {
+        if (sums[0] > 0) {
+          Counter[] counters = meters.computeIfAbsent(type, this::register);
+          counters[0].increment(sums[0]);
+          // Minor units, so the meter reads in rupees
+          counters[1].increment(sums[1] / 100.0);
+          sums[0] = 0;
+          sums[1] = 0;
+        }
+      });
+    }
+  }
+
+  private Counter[] register(String type) {
+    return new Counter[] {
+        Counter.builder("banking.transactions.committed")
+            .description("Committed transaction rows")
+            .tag("type", type)
+            .register(registry),
+        Counter.builder("banking.transactions.volume")
+            .description("Amount moved by committed transaction rows")
+            .baseUnit("INR")
+            .tag("type", type)
+            .register(registry)
+    };
+  }
+}
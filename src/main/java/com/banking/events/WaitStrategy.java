@@ -0,0 +1,159 @@
+package com.banking.events;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * How an {@link EventRing} consumer waits for the next event. The choice
+ * trades the latency of picking up an event against the CPU burnt while the
+ * ring is empty:
+ * <ul>
+ *   <li>{@code busy-spin}: never gives up the core; lowest latency, one core per consumer;</li>
+ *   <li>{@code yielding}: spins briefly, then yields to other threads;</li>
+ *   <li>{@code sleeping}: spins, yields, then parks for a short while;</li>
+ *   <li>{@code blocking}: parks until a publisher signals; cheapest when idle.</li>
+ * </ul>
+ */
+public interface WaitStrategy {
+
+  /**
+   * Waits until {@code claimed} reaches {@code sequence} or {@code running}
+   * turns false, and returns the last claimed sequence.
+   */
+  long waitFor(long sequence, AtomicLong claimed, BooleanSupplier running) throws InterruptedException;
+
+  /** Called after every publish; wakes consumers that are parked. */
+  void signalAll();
+
+  static WaitStrategy named(String name) {
+    return switch (name) {
+      case "busy-spin" -> new BusySpin();
+      case "yielding" -> new Yielding();
+      case "sleeping" -> new Sleeping();
+      case "blocking" -> new Blocking();
+      default -> throw new IllegalArgumentException("Unknown wait strategy '" + name
+          + "'; expected busy-spin, yielding, sleeping or blocking");
+    };
+  }
+
+  final class BusySpin implements WaitStrategy {
+
+    @Override
+    public long waitFor(long sequence, AtomicLong claimed, BooleanSupplier running) {
+      long available;
+      while ((available = claimed.get()) < sequence && running.getAsBoolean()) {
+        Thread.onSpinWait();
+      }
+      return available;
+    }
+
+    @Override
+    public void signalAll() {
+    }
+  }
+
+  final class Yielding implements WaitStrategy {
+
+    private static final int SPINS = 100;
+
+    @Override
+    public long waitFor(long sequence, AtomicLong claimed, BooleanSupplier running) {
+      long available;
+      int spins = SPINS;
+      while ((available = claimed.get()) < sequence && running.getAsBoolean()) {
+        if (spins > 0) {
+          spins--;
+          Thread.onSpinWait();
+        } else {
+          Thread.yield();
+        }
+      }
+      return available;
+    }
+
+    @Override
+    public void signalAll() {
+    }
+  }
+
+  final class Sleeping implements WaitStrategy {
+
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    @Override
+    public long waitFor(long sequence, AtomicLong claimed, BooleanSupplier running) throws InterruptedException {
+      long available;
+      int attempts = 0;
+      while ((available = claimed.get()) < sequence && running.getAsBoolean()) {
+        if (attempts < SPINS) {
+          Thread.onSpinWait();
+        } else if (attempts < SPINS + YIELDS) {
+          Thread.yield();
+        } else {
+          LockSupport.parkNanos(PARK_NANOS);
+          if (Thread.interrupted()) {
+            throw new InterruptedException();
+          }
+        }
+        attempts++;
+      }
+      return available;
+    }
+
+    @Override
+    public void signalAll() {
+    }
+  }
+
+  /**
+   * Parks on a condition. Publishers only take the lock when a consumer has
+   * announced that it is about to park, so a busy ring never touches it.
+   */
+  final class Blocking implements WaitStrategy {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private final AtomicBoolean signalNeeded = new AtomicBoolean();
+
+    @Override
+    public long waitFor(long sequence, AtomicLong claimed, BooleanSupplier running) throws InterruptedException {
+      long available = claimed.get();
+      if (available >= sequence) {
+        return available;
+      }
+      lock.lock();
+      try {
+        // Announce before re-checking: a publisher that claims after the check is bound to see the flag
+        while (true) {
+          signalNeeded.set(true);
+          available = claimed.get();
+          if (available >= sequence || !running.getAsBoolean()) {
+            return available;
+          }
+          published.await();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void signalAll() {
+      if (signalNeeded.get() && signalNeeded.getAndSet(false)) {
+        lock.lock();
+        try {
+          published.signalAll();
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+  }
+}
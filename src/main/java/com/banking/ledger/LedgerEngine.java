@@ -0,0 +1,393 @@
+package com.banking.ledger;
+
+import com.banking.dto.AccountDTO;
+import com.banking.dto.BatchTransferRequest;
+import com.banking.dto.BatchTransferResponse;
+import com.banking.dto.TransactionRequest;
+import com.banking.dto.TransferResult;
+import com.banking.entity.Account;
+import com.banking.money.Money;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.service.AccountRules;
+import com.banking.service.BatchTransferException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps authoritative balances in memory and serialises mutations per account
+ * with striped locks. Every accepted movement is appended to a durable
+ * {@link LedgerLog} before the caller gets an answer, and reaches the
+ * database later through the {@link LedgerWriter}.
+ *
+ * <p>{@code banking.ledger.store} picks the log. {@code queue} (default) is a
+ * spill file emptied once the database has caught up; the database stays the
+ * system of record. {@code journal} is a {@link MappedJournal}: balances are
+ * derived from the journal, snapshotted every
+ * {@code banking.ledger.snapshot-interval}, and rebuilt at startup from the
+ * newest snapshot plus the journal tail; the database is a projection used
+ * for history and reporting.
+ *
+ * <p>Enabled with {@code banking.ledger.enabled=true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.ledger.enabled", havingValue = "true")
+public class LedgerEngine {
+
+  private final AccountRepository accountRepository;
+  private final TransactionRepository transactionRepository;
+  private final StripedLocks locks;
+  private final LedgerLog ledgerLog;
+  private final LedgerWriter writer;
+  private final Map<Integer, LedgerAccount> accounts = new ConcurrentHashMap<>();
+
+  // Journal mode only
+  private final MappedJournal journal;
+  private final LedgerSnapshots snapshots;
+  private final Duration snapshotInterval;
+  private final ScheduledExecutorService snapshotter;
+  // Balances rebuilt from the journal for accounts not yet loaded into {@code accounts}
+  private final Map<Integer, Long> derivedBalances = new ConcurrentHashMap<>();
+
+  public LedgerEngine(AccountRepository accountRepository,
+      TransactionRepository transactionRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${banking.ledger.stripes:64}") int stripes,
+      @Value("${banking.ledger.store:queue}") String store,
+      @Value("${banking.ledger.queue-file:data/ledger.queue}") Path queueFile,
+      @Value("${banking.ledger.journal-dir:data/journal}") Path journalDir,
+      @Value("${banking.ledger.journal-segment-size:64MB}") DataSize segmentSize,
+      @Value("${banking.ledger.snapshot-interval:60s}") Duration snapshotInterval,
+      @Value("${banking.ledger.flush-batch-size:500}") int flushBatchSize,
+      @Value("${banking.ledger.flush-interval-ms:50}") long flushIntervalMs) throws IOException {
+    this.accountRepository = accountRepository;
+    this.transactionRepository = transactionRepository;
+    this.locks = new StripedLocks(stripes);
+    this.snapshotInterval = snapshotInterval;
+
+    switch (store) {
+      case "queue" -> {
+        this.journal = null;
+        this.snapshots = null;
+        this.snapshotter = null;
+        this.ledgerLog = new LedgerQueue(queueFile);
+      }
+      case "journal" -> {
+        this.journal = new MappedJournal(journalDir, (int) segmentSize.toBytes());
+        this.snapshots = new LedgerSnapshots(journalDir);
+        this.snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+          Thread thread = new Thread(runnable, "ledger-snapshot");
+          thread.setDaemon(true);
+          return thread;
+        });
+        this.ledgerLog = journal;
+      }
+      default -> throw new IllegalArgumentException("Unknown banking.ledger.store: " + store);
+    }
+    this.writer = new LedgerWriter(accountRepository, transactionRepository,
+        new TransactionTemplate(transactionManager), ledgerLog, flushBatchSize, flushIntervalMs);
+  }
+
+  /**
+   * Replays whatever a previous run accepted but did not store, so balances
+   * loaded from the database afterwards are current.
+   */
+  @PostConstruct
+  void recover() throws IOException {
+    List<LedgerRecord> records = ledgerLog.recover();
+    Set<Long> stored = records.isEmpty() ? Set.of()
+        : new HashSet<>(transactionRepository.findLedgerSequencesFrom(records.get(0).sequence()));
+    List<LedgerRecord> unstored = records.stream()
+        .filter(record -> !stored.contains(record.sequence()))
+        .toList();
+    if (!unstored.isEmpty()) {
+      log.info("Replaying {} ledger records left by the previous run", unstored.size());
+      writer.storeNow(unstored);
+    }
+    ledgerLog.markStored(records);
+
+    long maxStored = nullToZero(transactionRepository.findMaxLedgerSequence());
+    long last = records.isEmpty() ? 0 : records.get(records.size() - 1).sequence();
+    ledgerLog.continueAfter(Math.max(maxStored, last));
+
+    if (journal != null) {
+      deriveBalances(records);
+      long intervalMs = snapshotInterval.toMillis();
+      snapshotter.scheduleWithFixedDelay(this::snapshotQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+    writer.start();
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException, IOException {
+    if (snapshotter != null) {
+      snapshotter.shutdownNow();
+    }
+    writer.stop();
+    if (journal != null) {
+      snapshot();
+    }
+    ledgerLog.close();
+  }
+
+  // Newest snapshot, then every journal record after it; records carry final balances
+  private void deriveBalances(List<LedgerRecord> records) throws IOException {
+    LedgerSnapshots.Snapshot snapshot = snapshots.loadLatest();
+    derivedBalances.putAll(snapshot.balances());
+    int replayed = 0;
+    for (LedgerRecord record : records) {
+      if (record.sequence() > snapshot.sequence()) {
+        derivedBalances.put(record.accountNumber(), record.finalBalance());
+        replayed++;
+      }
+    }
+    log.info("Derived {} balances from snapshot at sequence {} and {} journal records",
+        derivedBalances.size(), snapshot.sequence(), replayed);
+  }
+
+  /**
+   * Writes every balance as of the last appended record, then drops journal
+   * segments that both the snapshot and the database projection cover.
+   */
+  public void snapshot() throws IOException {
+    if (journal == null) {
+      return;
+    }
+    LedgerSnapshots.Snapshot snapshot = locks.withAll(() -> {
+      Map<Integer, Long> balances = new HashMap<>(derivedBalances);
+      accounts.forEach((accountNumber, account) -> balances.put(accountNumber, account.balance));
+      return new LedgerSnapshots.Snapshot(journal.lastAppended(), balances);
+    });
+    journal.awaitDurable(snapshot.sequence());
+    snapshots.write(snapshot);
+    journal.retainAfter(Math.min(snapshot.sequence(), journal.storedThrough()));
+  }
+
+  private void snapshotQuietly() {
+    try {
+      snapshot();
+    } catch (Exception e) {
+      log.error("Ledger snapshot failed", e);
+    }
+  }
+
+  public AccountDTO deposit(Integer accountNumber, long amount) {
+    Applied applied = locks.withLock(accountNumber, () -> {
+      LedgerAccount account = load(accountNumber, "Account not found");
+      AccountRules.checkDeposit(amount);
+      return apply("DEPOSIT", account, null, amount, Money.add(account.balance, amount));
+    });
+    ledgerLog.awaitDurable(applied.sequence());
+    return applied.account();
+  }
+
+  public AccountDTO withdraw(Integer accountNumber, long amount) {
+    Applied applied = locks.withLock(accountNumber, () -> {
+      LedgerAccount account = load(accountNumber, "Account not found");
+      AccountRules.checkWithdrawal(account.accountType, account.locked, account.balance, amount);
+      return apply("WITHDRAW", account, null, amount, Money.subtract(account.balance, amount));
+    });
+    ledgerLog.awaitDurable(applied.sequence());
+    return applied.account();
+  }
+
+  public void transfer(Integer sourceNumber, Integer targetNumber, long amount) {
+    if (targetNumber == null) {
+      throw new RuntimeException("Target account not found");
+    }
+    AccountRules.checkDistinctAccounts(sourceNumber, targetNumber);
+    Applied applied = locks.withLocks(List.of(sourceNumber, targetNumber), () -> {
+      LedgerAccount source = load(sourceNumber, "Source account not found");
+      LedgerAccount target = load(targetNumber, "Target account not found");
+      AccountRules.checkTransfer(source.locked, source.balance, amount);
+
+      // Both balances are computed before either leg is applied, so an overflow leaves neither half
+      long sourceBalance = Money.subtract(source.balance, amount);
+      long targetBalance = Money.add(target.balance, amount);
+      apply("TRANSFER_OUT", source, target.accountNumber, amount, sourceBalance);
+      return apply("TRANSFER_IN", target, source.accountNumber, amount, targetBalance);
+    });
+    ledgerLog.awaitDurable(applied.sequence());
+  }
+
+  /**
+   * Applies transfers in order while holding every stripe the batch touches.
+   * An atomic batch is validated against scratch balances first, so nothing is
+   * appended unless every transfer succeeds.
+   */
+  public BatchTransferResponse transferBatch(List<TransactionRequest> transfers, boolean atomic) {
+    Set<Integer> accountNumbers = new HashSet<>();
+    for (TransactionRequest transfer : transfers) {
+      accountNumbers.add(transfer.getAccountNumber());
+      if (transfer.getTargetAccountNumber() != null) {
+        accountNumbers.add(transfer.getTargetAccountNumber());
+      }
+    }
+
+    BatchOutcome outcome = locks.withLocks(accountNumbers, () -> {
+      if (atomic) {
+        Map<LedgerAccount, Long> scratch = new HashMap<>();
+        for (int i = 0; i < transfers.size(); i++) {
+          TransactionRequest transfer = transfers.get(i);
+          try {
+            AccountRules.checkDistinctAccounts(transfer.getAccountNumber(), transfer.getTargetAccountNumber());
+            LedgerAccount source = load(transfer.getAccountNumber(), "Source account not found");
+            LedgerAccount target = load(transfer.getTargetAccountNumber(), "Target account not found");
+            long sourceBalance = scratch.getOrDefault(source, source.balance);
+            AccountRules.checkTransfer(source.locked, sourceBalance, transfer.getAmount());
+            scratch.put(source, Money.subtract(sourceBalance, transfer.getAmount()));
+            scratch.put(target, Money.add(scratch.getOrDefault(target, target.balance), transfer.getAmount()));
+          } catch (RuntimeException e) {
+            return new BatchOutcome(0, BatchTransferResponse.rolledBack(transfers, i, e.getMessage()), true);
+          }
+        }
+      }
+
+      long lastSequence = 0;
+      List<TransferResult> results = new ArrayList<>(transfers.size());
+      for (int i = 0; i < transfers.size(); i++) {
+        TransactionRequest transfer = transfers.get(i);
+        try {
+          AccountRules.checkDistinctAccounts(transfer.getAccountNumber(), transfer.getTargetAccountNumber());
+          LedgerAccount source = load(transfer.getAccountNumber(), "Source account not found");
+          LedgerAccount target = load(transfer.getTargetAccountNumber(), "Target account not found");
+          AccountRules.checkTransfer(source.locked, source.balance, transfer.getAmount());
+          long sourceBalance = Money.subtract(source.balance, transfer.getAmount());
+          long targetBalance = Money.add(target.balance, transfer.getAmount());
+          apply("TRANSFER_OUT", source, target.accountNumber, transfer.getAmount(), sourceBalance);
+          lastSequence = apply("TRANSFER_IN", target, source.accountNumber, transfer.getAmount(),
+              targetBalance).sequence();
+          results.add(TransferResult.of(i, transfer, TransferResult.SUCCESS, null));
+        } catch (RuntimeException e) {
+          results.add(TransferResult.of(i, transfer, TransferResult.FAILED, e.getMessage()));
+        }
+      }
+      String mode = atomic ? BatchTransferRequest.ALL_OR_NOTHING : BatchTransferRequest.BEST_EFFORT;
+      return new BatchOutcome(lastSequence, BatchTransferResponse.of(mode, results), false);
+    });
+
+    if (outcome.rolledBack()) {
+      throw new BatchTransferException("Batch rolled back", outcome.response());
+    }
+    ledgerLog.awaitDurable(outcome.lastSequence());
+    return outcome.response();
+  }
+
+  public AccountDTO applyInterest(Integer accountNumber) {
+    Applied applied = locks.withLock(accountNumber, () -> {
+      LedgerAccount account = load(accountNumber, "Account not found");
+      AccountRules.checkInterestEligible(account.accountType);
+      long interest = AccountRules.monthlyInterest(account.balance);
+      return apply("INTEREST", account, null, interest, Money.add(account.balance, interest));
+    });
+    ledgerLog.awaitDurable(applied.sequence());
+    return applied.account();
+  }
+
+  /**
+   * Balance held by the engine, or {@code storedBalance} when the account has
+   * not been touched since startup and the database value is still current.
+   */
+  public long liveBalance(Integer accountNumber, long storedBalance) {
+    LedgerAccount account = accounts.get(accountNumber);
+    if (account != null) {
+      return account.balance;
+    }
+    Long derived = derivedBalances.get(accountNumber);
+    return derived == null ? storedBalance : derived;
+  }
+
+  public void updateLockState(Integer accountNumber, boolean locked) {
+    LedgerAccount account = accounts.get(accountNumber);
+    if (account != null) {
+      account.locked = locked;
+    }
+  }
+
+  public int writeBacklog() {
+    return writer.backlog();
+  }
+
+  // Caller holds the account's stripe lock
+  private LedgerAccount load(Integer accountNumber, String notFoundMessage) {
+    if (accountNumber == null) {
+      throw new RuntimeException(notFoundMessage);
+    }
+    LedgerAccount cached = accounts.get(accountNumber);
+    if (cached != null) {
+      return cached;
+    }
+    Account account = accountRepository.findByAccountNumber(accountNumber)
+        .orElseThrow(() -> new RuntimeException(notFoundMessage));
+    Long derived = derivedBalances.get(accountNumber);
+    LedgerAccount loaded = new LedgerAccount(account.getId(), account.getAccountNumber(),
+        account.getAccountType(), account.getLocked(), derived != null ? derived : account.getBalance());
+    accounts.put(accountNumber, loaded);
+    derivedBalances.remove(accountNumber);
+    return loaded;
+  }
+
+  // Caller holds the account's stripe lock, so log order matches balance order per account.
+  // The balance only changes once the record is safely appended.
+  private Applied apply(String type, LedgerAccount account, Integer counterparty, long amount,
+      long newBalance) {
+    LedgerRecord record = ledgerLog.append(new LedgerRecord(0, type, account.accountNumber, counterparty,
+        amount, newBalance, System.currentTimeMillis()));
+    account.balance = newBalance;
+    writer.enqueue(record);
+    return new Applied(record.sequence(), toDTO(account));
+  }
+
+  private static AccountDTO toDTO(LedgerAccount account) {
+    return new AccountDTO(account.id, account.accountNumber, account.balance,
+        account.accountType, account.locked);
+  }
+
+  private static long nullToZero(Long value) {
+    return value == null ? 0 : value;
+  }
+
+  private record Applied(long sequence, AccountDTO account) {
+  }
+
+  private record BatchOutcome(long lastSequence, BatchTransferResponse response, boolean rolledBack) {
+  }
+
+  private static final class LedgerAccount {
+    final Long id;
+    final Integer accountNumber;
+    final String accountType;
+    volatile boolean locked;
+    volatile long balance;
+
+    LedgerAccount(Long id, Integer accountNumber, String accountType, boolean locked, long balance) {
+      this.id = id;
+      this.accountNumber = accountNumber;
+      this.accountType = accountType;
+      this.locked = locked;
+      this.balance = balance;
+    }
+  }
+}
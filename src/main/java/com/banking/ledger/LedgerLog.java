@@ -0,0 +1,26 @@
+package com.banking.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Durable, ordered log of accepted ledger records. The engine appends under
+ * the account's stripe lock and waits for durability before answering.
+ */
+public interface LedgerLog extends Closeable {
+
+  /** Reads every complete record still held, in sequence order, and prepares for appends. */
+  List<LedgerRecord> recover() throws IOException;
+
+  void continueAfter(long sequence);
+
+  /** Assigns the next sequence number and appends; not yet durable. */
+  LedgerRecord append(LedgerRecord record);
+
+  /** Blocks until every record up to {@code sequence} is on disk. */
+  void awaitDurable(long sequence);
+
+  /** Told by the writer once records are committed to the database. */
+  void markStored(List<LedgerRecord> records) throws IOException;
+}
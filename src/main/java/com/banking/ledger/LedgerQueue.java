@@ -0,0 +1,119 @@
+package com.banking.ledger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only file holding ledger records until the write-behind writer has
+ * stored them in the database. Appends are cheap; {@link #awaitDurable} forces
+ * the file to disk and lets concurrent callers share a single fsync.
+ */
+public class LedgerQueue implements LedgerLog {
+
+  private final FileChannel channel;
+  private final Object syncLock = new Object();
+
+  private long nextSequence = 1;
+  private long outstanding;
+  private volatile long appended;
+  private volatile long synced;
+
+  public LedgerQueue(Path file) throws IOException {
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    this.channel = FileChannel.open(file,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Reads every complete record left in the file. A torn last line from a crash
+   * mid-write is cut off so new appends start on a clean boundary.
+   */
+  @Override
+  public synchronized List<LedgerRecord> recover() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+    channel.read(buffer, 0);
+    String content = new String(buffer.array(), StandardCharsets.UTF_8);
+
+    int end = content.lastIndexOf('\n') + 1;
+    List<LedgerRecord> records = new ArrayList<>();
+    for (String line : content.substring(0, end).split("\n")) {
+      if (!line.isEmpty()) {
+        records.add(LedgerRecord.decode(line));
+      }
+    }
+    channel.truncate(end);
+    channel.position(end);
+    outstanding = records.size();
+    return records;
+  }
+
+  @Override
+  public synchronized void continueAfter(long sequence) {
+    nextSequence = sequence + 1;
+    appended = sequence;
+    synced = sequence;
+  }
+
+  @Override
+  public synchronized LedgerRecord append(LedgerRecord record) {
+    LedgerRecord sequenced = record.withSequence(nextSequence);
+    ByteBuffer bytes = ByteBuffer.wrap((sequenced.encode() + "\n").getBytes(StandardCharsets.UTF_8));
+    try {
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Ledger queue append failed", e);
+    }
+    nextSequence++;
+    outstanding++;
+    appended = sequenced.sequence();
+    return sequenced;
+  }
+
+  @Override
+  public void awaitDurable(long sequence) {
+    if (synced >= sequence) {
+      return;
+    }
+    synchronized (syncLock) {
+      if (synced >= sequence) {
+        return;
+      }
+      long target = appended;
+      try {
+        channel.force(false);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Ledger queue sync failed", e);
+      }
+      synced = target;
+    }
+  }
+
+  /**
+   * Called by the writer after committing records; empties the file as soon as
+   * nothing appended is still waiting for the database.
+   */
+  @Override
+  public synchronized void markStored(List<LedgerRecord> records) throws IOException {
+    outstanding -= records.size();
+    if (outstanding == 0) {
+      channel.truncate(0);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,89 @@
+package com.banking.ledger;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * One balance movement accepted by the ledger engine. Carries the resulting
+ * balance so that applying a record to the database is a plain overwrite.
+ */
+public record LedgerRecord(
+    long sequence,
+    String type,
+    Integer accountNumber,
+    Integer counterparty,
+    long amount,
+    long finalBalance,
+    long timestampMillis) {
+
+  private static final int NO_COUNTERPARTY = Integer.MIN_VALUE;
+
+  public LedgerRecord withSequence(long sequence) {
+    return new LedgerRecord(sequence, type, accountNumber, counterparty, amount, finalBalance, timestampMillis);
+  }
+
+  public LocalDateTime timestamp() {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault());
+  }
+
+  public String description() {
+    return switch (type) {
+      case "DEPOSIT" -> "Deposit made";
+      case "WITHDRAW" -> "Withdrawal made";
+      case "INTEREST" -> "Monthly interest applied";
+      case "TRANSFER_OUT" -> "Transfer to account #" + counterparty;
+      case "TRANSFER_IN" -> "Transfer from account #" + counterparty;
+      default -> type;
+    };
+  }
+
+  String encode() {
+    return sequence + "|" + type + "|" + accountNumber + "|" + (counterparty == null ? "" : counterparty)
+        + "|" + amount + "|" + finalBalance + "|" + timestampMillis;
+  }
+
+  // Binary layout used by the journal: fixed fields, then the type as length-prefixed ASCII
+  int binarySize() {
+    return 8 + 4 + 4 + 8 + 8 + 8 + 1 + type.length();
+  }
+
+  void writeTo(ByteBuffer buffer) {
+    buffer.putLong(sequence);
+    buffer.putInt(accountNumber);
+    buffer.putInt(counterparty == null ? NO_COUNTERPARTY : counterparty);
+    buffer.putLong(amount);
+    buffer.putLong(finalBalance);
+    buffer.putLong(timestampMillis);
+    byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+    buffer.put((byte) typeBytes.length);
+    buffer.put(typeBytes);
+  }
+
+  static LedgerRecord readFrom(ByteBuffer buffer) {
+    long sequence = buffer.getLong();
+    int accountNumber = buffer.getInt();
+    int counterparty = buffer.getInt();
+    long amount = buffer.getLong();
+    long finalBalance = buffer.getLong();
+    long timestampMillis = buffer.getLong();
+    byte[] typeBytes = new byte[buffer.get()];
+    buffer.get(typeBytes);
+    return new LedgerRecord(sequence, new String(typeBytes, StandardCharsets.US_ASCII), accountNumber,
+        counterparty == NO_COUNTERPARTY ? null : counterparty, amount, finalBalance, timestampMillis);
+  }
+
+  static LedgerRecord decode(String line) {
+    String[] f = line.split("\\|", -1);
+    return new LedgerRecord(
+        Long.parseLong(f[0]),
+        f[1],
+        Integer.valueOf(f[2]),
+        f[3].isEmpty() ? null : Integer.valueOf(f[3]),
+        Long.parseLong(f[4]),
+        Long.parseLong(f[5]),
+        Long.parseLong(f[6]));
+  }
+}
@@ -0,0 +1,118 @@
+package com.banking.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Point-in-time copies of every balance the engine knows, taken at a journal
+ * sequence. Recovery starts from the newest readable snapshot and replays the
+ * journal records after it.
+ *
+ * <p>Layout: {@code [long sequence][int count]} then {@code count} pairs of
+ * {@code [int accountNumber][long balance]}, then a CRC32C of all of it.
+ */
+@Slf4j
+class LedgerSnapshots {
+
+  private static final String PREFIX = "snapshot-";
+  private static final String SUFFIX = ".bin";
+
+  private final Path directory;
+
+  LedgerSnapshots(Path directory) {
+    this.directory = directory;
+  }
+
+  record Snapshot(long sequence, Map<Integer, Long> balances) {
+    static final Snapshot EMPTY = new Snapshot(0, Map.of());
+  }
+
+  /** Writes {@code snapshot} atomically and removes older ones. */
+  void write(Snapshot snapshot) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(8 + 4 + snapshot.balances().size() * 12 + 8);
+    buffer.putLong(snapshot.sequence());
+    buffer.putInt(snapshot.balances().size());
+    snapshot.balances().forEach((accountNumber, balance) -> {
+      buffer.putInt(accountNumber);
+      buffer.putLong(balance);
+    });
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.array(), 0, buffer.position());
+    buffer.putLong(crc.getValue());
+    buffer.flip();
+
+    Path target = directory.resolve(String.format("%s%020d%s", PREFIX, snapshot.sequence(), SUFFIX));
+    Path temp = directory.resolve(target.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+    for (Path older : list()) {
+      if (older.compareTo(target) < 0) {
+        Files.deleteIfExists(older);
+      }
+    }
+  }
+
+  /** The newest snapshot whose checksum holds, or an empty one. */
+  Snapshot loadLatest() throws IOException {
+    List<Path> files = list();
+    for (int i = files.size() - 1; i >= 0; i--) {
+      Snapshot snapshot = read(files.get(i));
+      if (snapshot != null) {
+        return snapshot;
+      }
+      log.warn("Ignoring unreadable ledger snapshot {}", files.get(i));
+    }
+    return Snapshot.EMPTY;
+  }
+
+  private Snapshot read(Path file) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+    if (buffer.remaining() < 8 + 4 + 8) {
+      return null;
+    }
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.array(), 0, buffer.limit() - 8);
+    if (crc.getValue() != buffer.getLong(buffer.limit() - 8)) {
+      return null;
+    }
+
+    long sequence = buffer.getLong();
+    int count = buffer.getInt();
+    Map<Integer, Long> balances = new HashMap<>(count * 4 / 3 + 1);
+    for (int i = 0; i < count; i++) {
+      balances.put(buffer.getInt(), buffer.getLong());
+    }
+    return new Snapshot(sequence, balances);
+  }
+
+  private List<Path> list() throws IOException {
+    try (Stream<Path> listing = Files.list(directory)) {
+      return listing
+          .filter(path -> {
+            String name = path.getFileName().toString();
+            return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+          })
+          .sorted()
+          .toList();
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package com.banking.ledger;
+
+import com.banking.entity.Account;
+import com.banking.entity.Transaction;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Background thread that drains accepted ledger records into the JPA
+ * repositories, one database transaction per batch.
+ */
+@Slf4j
+class LedgerWriter {
+
+  private final AccountRepository accountRepository;
+  private final TransactionRepository transactionRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final LedgerLog ledgerLog;
+  private final int batchSize;
+  private final long flushIntervalMs;
+
+  private final BlockingQueue<LedgerRecord> pending = new LinkedBlockingQueue<>();
+  private volatile boolean running;
+  private Thread thread;
+
+  LedgerWriter(AccountRepository accountRepository, TransactionRepository transactionRepository,
+      TransactionTemplate transactionTemplate, LedgerLog ledgerLog, int batchSize, long flushIntervalMs) {
+    this.accountRepository = accountRepository;
+    this.transactionRepository = transactionRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.ledgerLog = ledgerLog;
+    this.batchSize = batchSize;
+    this.flushIntervalMs = flushIntervalMs;
+  }
+
+  void enqueue(LedgerRecord record) {
+    pending.add(record);
+  }
+
+  int backlog() {
+    return pending.size();
+  }
+
+  void start() {
+    running = true;
+    thread = new Thread(this::run, "ledger-writer");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  void stop() throws InterruptedException {
+    running = false;
+    if (thread != null) {
+      thread.join();
+    }
+  }
+
+  /**
+   * Stores records synchronously on the calling thread, used during recovery
+   * before the engine accepts traffic.
+   */
+  void storeNow(List<LedgerRecord> records) {
+    for (int from = 0; from < records.size(); from += batchSize) {
+      store(records.subList(from, Math.min(records.size(), from + batchSize)));
+    }
+  }
+
+  private void run() {
+    List<LedgerRecord> batch = new ArrayList<>(batchSize);
+    while (running || !pending.isEmpty()) {
+      try {
+        LedgerRecord first = pending.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        pending.drainTo(batch, batchSize - 1);
+        if (!storeWithRetry(batch)) {
+          return;
+        }
+        ledgerLog.markStored(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (IOException e) {
+        log.error("Could not release stored ledger records", e);
+      }
+      batch.clear();
+    }
+  }
+
+  private boolean storeWithRetry(List<LedgerRecord> batch) throws InterruptedException {
+    while (true) {
+      try {
+        store(batch);
+        return true;
+      } catch (RuntimeException e) {
+        if (!running) {
+          // Records stay in the ledger log and are replayed on the next start
+          log.error("Ledger writer stopping with {} unstored records", batch.size() + pending.size(), e);
+          return false;
+        }
+        log.error("Ledger write-behind failed, retrying batch of {}", batch.size(), e);
+        Thread.sleep(1000);
+      }
+    }
+  }
+
+  private void store(List<LedgerRecord> batch) {
+    transactionTemplate.executeWithoutResult(status -> {
+      Set<Integer> accountNumbers = batch.stream()
+          .map(LedgerRecord::accountNumber)
+          .collect(Collectors.toSet());
+      Map<Integer, Account> accounts = accountRepository.findByAccountNumberIn(accountNumbers).stream()
+          .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+
+      List<Transaction> transactions = new ArrayList<>(batch.size());
+      for (LedgerRecord record : batch) {
+        Account account = accounts.get(record.accountNumber());
+        if (account == null) {
+          log.warn("Dropping ledger record {} for unknown account {}", record.sequence(), record.accountNumber());
+          continue;
+        }
+        account.setBalance(record.finalBalance());
+
+        Transaction transaction = new Transaction(record.type(), record.amount(),
+            record.finalBalance(), record.description());
+        transaction.setTimestamp(record.timestamp());
+        transaction.setLedgerSequence(record.sequence());
+        transaction.setAccount(account);
+        transactions.add(transaction);
+      }
+      transactionRepository.saveAll(transactions);
+    });
+  }
+}
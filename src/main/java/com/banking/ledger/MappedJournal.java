@@ -0,0 +1,240 @@
+package com.banking.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of ledger records in fixed-size, memory-mapped segment
+ * files. Appends are sequential writes into the mapped region; callers share
+ * fsyncs through {@link #awaitDurable}. A segment is named after the first
+ * sequence it holds and is deleted once it is covered by a balance snapshot
+ * and by the database projection.
+ *
+ * <p>Each frame is {@code [int length][int crc32c][payload]}; a zero length
+ * marks the end of written data. A frame whose checksum does not match, or
+ * that runs past the segment, is a torn write and ends the journal.
+ */
+@Slf4j
+public class MappedJournal implements LedgerLog {
+
+  private static final int FRAME_HEADER = 8;
+  private static final String SUFFIX = ".journal";
+
+  private final Path directory;
+  private final int segmentSize;
+  private final List<Segment> segments = new ArrayList<>();
+  private final ConcurrentSkipListSet<Long> unstored = new ConcurrentSkipListSet<>();
+  private final Object syncLock = new Object();
+
+  private volatile Segment current;
+  private long nextSequence = 1;
+  private volatile long appended;
+  private volatile long synced;
+
+  public MappedJournal(Path directory, int segmentSize) throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.segmentSize = segmentSize;
+  }
+
+  @Override
+  public synchronized List<LedgerRecord> recover() throws IOException {
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(directory)) {
+      files = listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+    }
+
+    List<LedgerRecord> records = new ArrayList<>();
+    for (int i = 0; i < files.size(); i++) {
+      Path file = files.get(i);
+      Segment segment = Segment.open(file, firstSequenceOf(file), (int) Files.size(file));
+      boolean last = i == files.size() - 1;
+      boolean complete = segment.scan(records);
+      if (!complete && !last) {
+        throw new IllegalStateException("Journal segment " + file + " is corrupt before the last segment");
+      }
+      if (!complete) {
+        log.warn("Discarding torn write at offset {} of {}", segment.buffer.position(), file);
+        segment.clearFrom(segment.buffer.position());
+      }
+      segments.add(segment);
+    }
+    current = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    return records;
+  }
+
+  @Override
+  public synchronized void continueAfter(long sequence) {
+    nextSequence = sequence + 1;
+    appended = sequence;
+    synced = sequence;
+  }
+
+  @Override
+  public synchronized LedgerRecord append(LedgerRecord record) {
+    LedgerRecord sequenced = record.withSequence(nextSequence);
+    int payloadSize = sequenced.binarySize();
+    try {
+      if (current == null || current.buffer.remaining() < FRAME_HEADER + payloadSize + FRAME_HEADER) {
+        rotate(sequenced.sequence());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Journal segment rotation failed", e);
+    }
+
+    ByteBuffer buffer = current.buffer;
+    int start = buffer.position();
+    buffer.position(start + FRAME_HEADER);
+    sequenced.writeTo(buffer);
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.duplicate().position(start + FRAME_HEADER).limit(buffer.position()));
+    buffer.putInt(start + 4, (int) crc.getValue());
+    // Length last: until it is set the slot still reads as end-of-journal
+    buffer.putInt(start, payloadSize);
+
+    nextSequence++;
+    unstored.add(sequenced.sequence());
+    appended = sequenced.sequence();
+    return sequenced;
+  }
+
+  @Override
+  public void awaitDurable(long sequence) {
+    if (synced >= sequence) {
+      return;
+    }
+    synchronized (syncLock) {
+      if (synced >= sequence) {
+        return;
+      }
+      long target = appended;
+      // Segments are forced when they are rotated out, so only the current one can be dirty
+      current.buffer.force();
+      synced = target;
+    }
+  }
+
+  @Override
+  public void markStored(List<LedgerRecord> records) {
+    for (LedgerRecord record : records) {
+      unstored.remove(record.sequence());
+    }
+  }
+
+  public long lastAppended() {
+    return appended;
+  }
+
+  /** Highest sequence such that it and every earlier record are in the database. */
+  public long storedThrough() {
+    long last = appended;
+    Long lowest = unstored.ceiling(0L);
+    return lowest == null ? last : Math.min(last, lowest - 1);
+  }
+
+  /** Deletes segments whose records all have sequences at or below {@code sequence}. */
+  public synchronized void retainAfter(long sequence) throws IOException {
+    while (segments.size() > 1 && segments.get(1).firstSequence - 1 <= sequence) {
+      Segment obsolete = segments.remove(0);
+      Files.deleteIfExists(obsolete.file);
+      log.debug("Deleted journal segment {}", obsolete.file.getFileName());
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if (current != null) {
+      current.buffer.force();
+    }
+  }
+
+  private void rotate(long firstSequence) throws IOException {
+    if (current != null) {
+      current.buffer.force();
+    }
+    Path file = directory.resolve(String.format("%020d%s", firstSequence, SUFFIX));
+    Segment segment = Segment.open(file, firstSequence, segmentSize);
+    syncDirectory();
+    segments.add(segment);
+    current = segment;
+  }
+
+  // Makes the new segment's directory entry durable along with its contents
+  private void syncDirectory() {
+    try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+      dir.force(true);
+    } catch (IOException e) {
+      log.debug("Directory sync not supported for {}", directory);
+    }
+  }
+
+  private static long firstSequenceOf(Path file) {
+    String name = file.getFileName().toString();
+    return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+  }
+
+  private static final class Segment {
+    final Path file;
+    final long firstSequence;
+    final MappedByteBuffer buffer;
+
+    private Segment(Path file, long firstSequence, MappedByteBuffer buffer) {
+      this.file = file;
+      this.firstSequence = firstSequence;
+      this.buffer = buffer;
+    }
+
+    static Segment open(Path file, long firstSequence, int size) throws IOException {
+      try (FileChannel channel = FileChannel.open(file,
+          StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        // The mapping stays valid after the channel is closed
+        return new Segment(file, firstSequence, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+      }
+    }
+
+    /**
+     * Reads frames into {@code records} and leaves the position after the
+     * last good one. Returns false if scanning stopped at a torn frame.
+     */
+    boolean scan(List<LedgerRecord> records) {
+      while (buffer.remaining() >= FRAME_HEADER) {
+        int start = buffer.position();
+        int length = buffer.getInt(start);
+        if (length == 0) {
+          return true;
+        }
+        if (length < 0 || length > buffer.remaining() - FRAME_HEADER) {
+          return false;
+        }
+        ByteBuffer payload = buffer.duplicate().position(start + FRAME_HEADER).limit(start + FRAME_HEADER + length);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+          return false;
+        }
+        records.add(LedgerRecord.readFrom(payload));
+        buffer.position(start + FRAME_HEADER + length);
+      }
+      return true;
+    }
+
+    void clearFrom(int offset) {
+      for (int i = offset; i < buffer.limit(); i++) {
+        buffer.put(i, (byte) 0);
+      }
+      buffer.force();
+    }
+  }
+}
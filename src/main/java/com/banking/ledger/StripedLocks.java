@@ -0,0 +1,82 @@
+package com.banking.ledger;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed pool of locks indexed by account number. Operations touching several
+ * accounts always acquire their stripes in ascending index order, so two
+ * transfers in opposite directions can never deadlock.
+ */
+public class StripedLocks {
+
+  private final ReentrantLock[] locks;
+  private final int mask;
+
+  public StripedLocks(int stripes) {
+    int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+    this.locks = new ReentrantLock[size];
+    this.mask = size - 1;
+    for (int i = 0; i < size; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  public int stripeFor(Integer accountNumber) {
+    int h = accountNumber.hashCode();
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  public <T> T withLock(Integer accountNumber, Supplier<T> action) {
+    ReentrantLock lock = locks[stripeFor(accountNumber)];
+    lock.lock();
+    try {
+      return action.get();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public <T> T withLocks(Collection<Integer> accountNumbers, Supplier<T> action) {
+    int[] stripes = accountNumbers.stream()
+        .mapToInt(this::stripeFor)
+        .distinct()
+        .toArray();
+    Arrays.sort(stripes);
+
+    int acquired = 0;
+    try {
+      for (int stripe : stripes) {
+        locks[stripe].lock();
+        acquired++;
+      }
+      return action.get();
+    } finally {
+      for (int i = acquired - 1; i >= 0; i--) {
+        locks[stripes[i]].unlock();
+      }
+    }
+  }
+
+  /** Holds every stripe, for work that needs a consistent view of all accounts. */
+  public <T> T withAll(Supplier<T> action) {
+    int acquired = 0;
+    try {
+      for (ReentrantLock lock : locks) {
+        lock.lock();
+        acquired++;
+      }
+      return action.get();
+    } finally {
+      for (int i = acquired - 1; i >= 0; i--) {
+        locks[i].unlock();
+      }
+    }
+  }
+
+  public int size() {
+    return locks.length;
+  }
+}
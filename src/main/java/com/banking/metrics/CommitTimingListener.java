@@ -0,0 +1,58 @@
+package com.banking.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records {@code banking.transaction.commit}: the time from the start of a
+ * commit to its completion, tagged with the transaction's method name and
+ * whether the commit succeeded. Spring Boot registers execution listener
+ * beans with the transaction manager.
+ */
+@Component
+public class CommitTimingListener implements TransactionExecutionListener {
+
+  private static final ThreadLocal<Long> COMMIT_START = new ThreadLocal<>();
+
+  private final MeterRegistry registry;
+
+  public CommitTimingListener(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public void beforeCommit(TransactionExecution transaction) {
+    COMMIT_START.set(System.nanoTime());
+  }
+
+  @Override
+  public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+    Long start = COMMIT_START.get();
+    if (start == null) {
+      return;
+    }
+    COMMIT_START.remove();
+    Timer.builder("banking.transaction.commit")
+        .description("Transaction commit time")
+        .tag("transaction", shortName(transaction.getTransactionName()))
+        .tag("outcome", commitFailure == null ? "committed" : "failed")
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+  }
+
+  // "com.banking.service.AccountService.deposit" -> "AccountService.deposit"
+  private static String shortName(String transactionName) {
+    if (transactionName == null || transactionName.isEmpty()) {
+      return "unnamed";
+    }
+    int method = transactionName.lastIndexOf('.');
+    int type = method > 0 ? transactionName.lastIndexOf('.', method - 1) : -1;
+    return transactionName.substring(type + 1);
+  }
+}
@@ -0,0 +1,118 @@
+package com.banking.metrics;
+
+import com.banking.service.BatchTransferException;
+import com.banking.service.BusinessRuleException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public {@code AccountService} operation. Runs outside the
+ * transaction advice, so {@code banking.operation} includes the commit; time
+ * spent in repository calls is accumulated per thread and reported
+ * separately from the remaining service logic.
+ *
+ * <ul>
+ *   <li>{@code banking.operation} - total latency, by operation and outcome (success, rejected, error)</li>
+ *   <li>{@code banking.operation.repository} - repository time inside each operation</li>
+ *   <li>{@code banking.operation.logic} - the rest: rules, mapping, cache and ledger work</li>
+ *   <li>{@code banking.rejections} - business rule rejections, by operation and reason</li>
+ * </ul>
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OperationMetricsAspect {
+
+  private static final ThreadLocal<long[]> REPOSITORY_NANOS = new ThreadLocal<>();
+
+  private final MeterRegistry registry;
+
+  public OperationMetricsAspect(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Around("execution(public * com.banking.service.AccountService.*(..))")
+  public Object timeOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+    String operation = joinPoint.getSignature().getName();
+    long[] outer = REPOSITORY_NANOS.get();
+    long[] repositoryNanos = new long[1];
+    REPOSITORY_NANOS.set(repositoryNanos);
+
+    String outcome = "success";
+    long start = System.nanoTime();
+    try {
+      return joinPoint.proceed();
+    } catch (BusinessRuleException e) {
+      outcome = "rejected";
+      rejection(operation, e.getReason().name().toLowerCase());
+      throw e;
+    } catch (BatchTransferException e) {
+      outcome = "rejected";
+      rejection(operation, "batch_rolled_back");
+      throw e;
+    } catch (Throwable e) {
+      outcome = "error";
+      throw e;
+    } finally {
+      long total = System.nanoTime() - start;
+      if (outer != null) {
+        outer[0] += repositoryNanos[0];
+        REPOSITORY_NANOS.set(outer);
+      } else {
+        REPOSITORY_NANOS.remove();
+      }
+
+      Timer.builder("banking.operation")
+          .description("AccountService operation latency")
+          .tag("operation", operation)
+          .tag("outcome", outcome)
+          .publishPercentileHistogram()
+          .register(registry)
+          .record(total, TimeUnit.NANOSECONDS);
+      Timer.builder("banking.operation.repository")
+          .description("Time spent in repository calls during an operation")
+          .tag("operation", operation)
+          .publishPercentileHistogram()
+          .register(registry)
+          .record(repositoryNanos[0], TimeUnit.NANOSECONDS);
+      Timer.builder("banking.operation.logic")
+          .description("Operation time outside repository calls")
+          .tag("operation", operation)
+          .publishPercentileHistogram()
+          .register(registry)
+          .record(Math.max(0, total - repositoryNanos[0]), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  @Around("execution(* com.banking.repository.*.*(..))")
+  public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+    long[] repositoryNanos = REPOSITORY_NANOS.get();
+    if (repositoryNanos == null) {
+      return joinPoint.proceed();
+    }
+    long start = System.nanoTime();
+    try {
+      return joinPoint.proceed();
+    } finally {
+      repositoryNanos[0] += System.nanoTime() - start;
+    }
+  }
+
+  private void rejection(String operation, String reason) {
+    Counter.builder("banking.rejections")
+        .description("Requests refused by an account rule")
+        .tag("operation", operation)
+        .tag("reason", reason)
+        .register(registry)
+        .increment();
+  }
+}
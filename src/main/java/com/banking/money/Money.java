@@ -0,0 +1,83 @@
+package com.banking.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Monetary amounts as primitive {@code long} counts of minor units (paise),
+ * so balance arithmetic neither allocates nor accumulates floating point
+ * rounding error. Conversions to and from decimal happen only at the edges:
+ * JSON ({@link MoneyJsonSerializer}, {@link MoneyJsonDeserializer}) and the
+ * database ({@link MoneyConverter}).
+ */
+public final class Money {
+
+  public static final int SCALE = 2;
+  public static final long MINOR_PER_MAJOR = 100;
+  public static final long BASIS_POINTS = 10_000;
+
+  private Money() {
+  }
+
+  public static long ofMajor(long major) {
+    return Math.multiplyExact(major, MINOR_PER_MAJOR);
+  }
+
+  /** Overflow-checked; every balance change goes through this or {@link #subtract}. */
+  public static long add(long a, long b) {
+    try {
+      return Math.addExact(a, b);
+    } catch (ArithmeticException e) {
+      throw outOfRange();
+    }
+  }
+
+  public static long subtract(long a, long b) {
+    try {
+      return Math.subtractExact(a, b);
+    } catch (ArithmeticException e) {
+      throw outOfRange();
+    }
+  }
+
+  /**
+   * {@code amount * basisPoints / 10000 / periods}, rounded half-up to the
+   * nearest minor unit. Used for interest, e.g. 400 bps yearly over 12 periods.
+   */
+  public static long rate(long amount, long basisPoints, long periods) {
+    long numerator = Math.multiplyExact(amount, basisPoints);
+    long denominator = Math.multiplyExact(BASIS_POINTS, periods);
+    long quotient = numerator / denominator;
+    long remainder = numerator % denominator;
+    if (Math.abs(remainder) * 2 >= denominator) {
+      quotient += Long.signum(numerator);
+    }
+    return quotient;
+  }
+
+  public static long fromDecimal(BigDecimal value) {
+    BigDecimal scaled;
+    try {
+      scaled = value.setScale(SCALE, RoundingMode.UNNECESSARY);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Amount must have at most " + SCALE + " decimal places");
+    }
+    try {
+      return scaled.unscaledValue().longValueExact();
+    } catch (ArithmeticException e) {
+      throw outOfRange();
+    }
+  }
+
+  public static BigDecimal toDecimal(long minor) {
+    return BigDecimal.valueOf(minor, SCALE);
+  }
+
+  public static String format(long minor) {
+    return toDecimal(minor).toPlainString();
+  }
+
+  private static ArithmeticException outOfRange() {
+    return new ArithmeticException("Amount out of range");
+  }
+}
@@ -0,0 +1,24 @@
+package com.banking.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Stores minor-unit amounts as DECIMAL(19,2) so the columns stay readable to
+ * reporting tools and SQL aggregates.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Long, BigDecimal> {
+
+  @Override
+  public BigDecimal convertToDatabaseColumn(Long minor) {
+    return minor == null ? null : Money.toDecimal(minor);
+  }
+
+  @Override
+  public Long convertToEntityAttribute(BigDecimal value) {
+    return value == null ? null : Money.fromDecimal(value);
+  }
+}
@@ -0,0 +1,36 @@
+package com.banking.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Reads a decimal amount such as {@code 1500.5} or {@code "1500.50"} into
+ * minor units, rejecting values with more than two decimal places or too
+ * large for a {@code long}.
+ */
+public class MoneyJsonDeserializer extends JsonDeserializer<Long> {
+
+  @Override
+  public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    BigDecimal value;
+    if (p.currentToken() == JsonToken.VALUE_STRING) {
+      try {
+        value = new BigDecimal(p.getText().trim());
+      } catch (NumberFormatException e) {
+        return (Long) ctxt.handleWeirdStringValue(Long.class, p.getText(), "not a decimal amount");
+      }
+    } else {
+      value = p.getDecimalValue();
+    }
+    try {
+      return Money.fromDecimal(value);
+    } catch (IllegalArgumentException | ArithmeticException e) {
+      return (Long) ctxt.handleWeirdNumberValue(Long.class, value, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.banking.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * Writes minor units as a decimal JSON number, e.g. {@code 150050} as {@code 1500.50}.
+ */
+public class MoneyJsonSerializer extends JsonSerializer<Long> {
+
+  @Override
+  public void serialize(Long minor, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+    gen.writeNumber(Money.toDecimal(minor));
+  }
+}
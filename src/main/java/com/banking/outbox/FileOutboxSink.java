@@ -0,0 +1,73 @@
+package com.banking.outbox;
+
+import com.banking.dto.OutboxMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends outbox messages to {@code banking.outbox.file.path} as one JSON
+ * object per line. Each batch is a single write followed by one fsync, so
+ * the cost of durability is paid per batch rather than per message.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${banking.outbox.enabled:false} and '${banking.outbox.sinks:file}'.contains('file')")
+public class FileOutboxSink implements OutboxSink {
+
+  private final ObjectMapper objectMapper;
+  private final Path path;
+  private final FileChannel channel;
+
+  public FileOutboxSink(ObjectMapper objectMapper,
+      @Value("${banking.outbox.file.path:data/outbox.ndjson}") Path path) throws IOException {
+    this.objectMapper = objectMapper;
+    this.path = path;
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND);
+    log.info("Outbox file sink appending to {}", path.toAbsolutePath());
+  }
+
+  @Override
+  public String name() {
+    return "file";
+  }
+
+  @Override
+  public synchronized void deliver(List<OutboxMessage> batch) throws IOException {
+    ByteArrayOutputStream lines = new ByteArrayOutputStream(batch.size() * 192);
+    for (OutboxMessage message : batch) {
+      lines.write(objectMapper.writeValueAsBytes(message));
+      lines.write('\n');
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    channel.force(false);
+  }
+
+  public Path path() {
+    return path;
+  }
+
+  @PreDestroy
+  synchronized void close() throws IOException {
+    channel.close();
+  }
+}
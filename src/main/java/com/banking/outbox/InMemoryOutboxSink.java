@@ -0,0 +1,58 @@
+package com.banking.outbox;
+
+import com.banking.dto.OutboxMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps delivered messages in memory until {@link #drain()} takes them, for
+ * tests and local experiments. Holds at most
+ * {@code banking.outbox.memory.capacity} messages; a batch that does not fit
+ * is refused whole, which makes the relay back off until someone drains.
+ */
+@Component
+@ConditionalOnExpression("${banking.outbox.enabled:false} and '${banking.outbox.sinks:file}'.contains('memory')")
+public class InMemoryOutboxSink implements OutboxSink {
+
+  private final int capacity;
+  private final List<OutboxMessage> messages = new ArrayList<>();
+  private long received;
+
+  public InMemoryOutboxSink(@Value("${banking.outbox.memory.capacity:10000}") int capacity) {
+    this.capacity = Math.max(1, capacity);
+  }
+
+  @Override
+  public String name() {
+    return "memory";
+  }
+
+  @Override
+  public synchronized void deliver(List<OutboxMessage> batch) {
+    if (messages.size() + batch.size() > capacity) {
+      throw new IllegalStateException("In-memory outbox sink is full (" + messages.size() + " of " + capacity
+          + " messages held)");
+    }
+    messages.addAll(batch);
+    received += batch.size();
+  }
+
+  /** Removes and returns everything held so far. */
+  public synchronized List<OutboxMessage> drain() {
+    List<OutboxMessage> drained = new ArrayList<>(messages);
+    messages.clear();
+    return drained;
+  }
+
+  public synchronized int size() {
+    return messages.size();
+  }
+
+  public synchronized long received() {
+    return received;
+  }
+}
@@ -0,0 +1,288 @@
+package com.banking.outbox;
+
+import com.banking.dto.OutboxMessage;
+import com.banking.dto.OutboxStats;
+import com.banking.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves {@code transaction_outbox} rows to the {@link OutboxSink} beans on
+ * one daemon thread. Each round reads up to {@code banking.outbox.batch-size}
+ * rows in id order, hands the same batch to every sink and then deletes the
+ * rows, or stamps {@code delivered_at} when
+ * {@code banking.outbox.after-delivery=mark}, with one statement per
+ * {@value #COMPLETE_CHUNK} ids. A full batch is followed straight away by
+ * the next one; otherwise the relay sleeps for
+ * {@code banking.outbox.poll-interval}.
+ *
+ * <p>Rows are completed by their exact ids, never by id range: ids are
+ * reserved before commit, so a row with a lower id can become visible after
+ * its neighbours have been relayed, and it is picked up on a later round.
+ *
+ * <p>The relay only reads the next batch once every sink has taken the
+ * current one, so sinks set the pace. When one throws, nothing is completed
+ * and the batch is offered again, only to the sinks that have not taken it,
+ * after {@code banking.outbox.retry-backoff}, doubling up to
+ * {@code banking.outbox.max-backoff}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.outbox.enabled", havingValue = "true")
+public class OutboxRelay implements Runnable {
+
+  static final int COMPLETE_CHUNK = 500;
+  private static final Duration BACKLOG_REFRESH = Duration.ofSeconds(1);
+
+  private static final String SELECT_COLUMNS =
+      "select id, transaction_id, account_number, type, amount, final_balance, occurred_at from transaction_outbox";
+  private static final String NEXT_BATCH = SELECT_COLUMNS + " order by id limit ?";
+  private static final String NEXT_UNDELIVERED_BATCH =
+      SELECT_COLUMNS + " where delivered_at is null order by id limit ?";
+  private static final String COUNT = "select count(*) from transaction_outbox";
+  private static final String COUNT_UNDELIVERED = COUNT + " where delivered_at is null";
+  private static final String DELETE_DELIVERED = "delete from transaction_outbox where id in (:ids)";
+  private static final String MARK_DELIVERED =
+      "update transaction_outbox set delivered_at = :deliveredAt where id in (:ids)";
+
+  private static final RowMapper<OutboxMessage> MESSAGE = (rs, rowNum) -> new OutboxMessage(
+      rs.getLong("id"),
+      rs.getLong("transaction_id"),
+      rs.getInt("account_number"),
+      rs.getString("type"),
+      Money.fromDecimal(rs.getBigDecimal("amount")),
+      Money.fromDecimal(rs.getBigDecimal("final_balance")),
+      rs.getTimestamp("occurred_at").toLocalDateTime());
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final List<OutboxSink> sinks;
+  private final int batchSize;
+  private final boolean markDelivered;
+  private final Duration pollInterval;
+  private final Duration retryBackoff;
+  private final Duration maxBackoff;
+  private final Counter batches;
+  private final Counter failures;
+  private final Map<String, Counter> deliveredBySink = new LinkedHashMap<>();
+  private final Map<String, Timer> deliveryTimes = new LinkedHashMap<>();
+  private final AtomicLong delivered = new AtomicLong();
+  private final AtomicLong backlog = new AtomicLong();
+  // Occurrence time of the oldest row not yet relayed, in epoch millis; 0 when caught up
+  private final AtomicLong oldestPendingMillis = new AtomicLong();
+  private volatile Long lastDeliveredId;
+  private volatile LocalDateTime lastDeliveryAt;
+  private volatile long backoffMillis;
+  private volatile String lastError;
+  private volatile boolean running = true;
+  private long backlogCountedAt;
+  // A batch some sink refused, and the sinks that did take it; only touched by the relay thread
+  private List<OutboxMessage> retrying;
+  private final Set<String> accepted = new HashSet<>();
+  private Thread thread;
+
+  public OutboxRelay(JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      List<OutboxSink> sinks,
+      MeterRegistry registry,
+      @Value("${banking.outbox.batch-size:1000}") int batchSize,
+      @Value("${banking.outbox.after-delivery:delete}") String afterDelivery,
+      @Value("${banking.outbox.poll-interval:200ms}") Duration pollInterval,
+      @Value("${banking.outbox.retry-backoff:1s}") Duration retryBackoff,
+      @Value("${banking.outbox.max-backoff:30s}") Duration maxBackoff) {
+    if (!"delete".equals(afterDelivery) && !"mark".equals(afterDelivery)) {
+      throw new IllegalArgumentException("banking.outbox.after-delivery must be delete or mark, got " + afterDelivery);
+    }
+    if (sinks.isEmpty()) {
+      throw new IllegalStateException("banking.outbox.enabled needs at least one sink (banking.outbox.sinks)");
+    }
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.sinks = sinks;
+    this.batchSize = Math.max(1, batchSize);
+    this.markDelivered = "mark".equals(afterDelivery);
+    this.pollInterval = pollInterval;
+    this.retryBackoff = retryBackoff;
+    this.maxBackoff = maxBackoff;
+    for (OutboxSink sink : sinks) {
+      deliveredBySink.put(sink.name(), Counter.builder("banking.outbox.delivered")
+          .description("Outbox messages accepted by the sink")
+          .tag("sink", sink.name())
+          .register(registry));
+      deliveryTimes.put(sink.name(), Timer.builder("banking.outbox.delivery")
+          .description("Time for the sink to accept one batch")
+          .tag("sink", sink.name())
+          .register(registry));
+    }
+    this.batches = Counter.builder("banking.outbox.batches")
+        .description("Outbox batches delivered to every sink")
+        .register(registry);
+    this.failures = Counter.builder("banking.outbox.failures")
+        .description("Outbox batches refused by a sink and retried")
+        .register(registry);
+    Gauge.builder("banking.outbox.backlog", backlog, AtomicLong::get)
+        .description("Outbox rows waiting for the relay")
+        .register(registry);
+    Gauge.builder("banking.outbox.lag", this, OutboxRelay::lagSeconds)
+        .description("Age in seconds of the oldest outbox row waiting for the relay")
+        .baseUnit("seconds")
+        .register(registry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void start() {
+    thread = new Thread(this, "outbox-relay");
+    thread.setDaemon(true);
+    thread.start();
+    log.info("Outbox relay started: batches of {}, {} after delivery, sinks {}", batchSize,
+        markDelivered ? "mark" : "delete", sinks.stream().map(OutboxSink::name).toList());
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    running = false;
+    if (thread != null) {
+      thread.interrupt();
+      thread.join(Duration.ofSeconds(5).toMillis());
+    }
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      try {
+        int relayed = relayBatch();
+        backoffMillis = 0;
+        if (relayed < batchSize) {
+          Thread.sleep(pollInterval.toMillis());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        failures.increment();
+        lastError = e.getMessage();
+        backoffMillis = backoffMillis == 0 ? retryBackoff.toMillis()
+            : Math.min(backoffMillis * 2, maxBackoff.toMillis());
+        log.warn("Outbox delivery failed, retrying in {}ms: {}", backoffMillis, e.getMessage());
+        try {
+          Thread.sleep(backoffMillis);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  public OutboxStats stats() {
+    return new OutboxStats(sinks.stream().map(OutboxSink::name).toList(), markDelivered ? "mark" : "delete",
+        batchSize, backlog.get(), lagSeconds(), delivered.get(), (long) batches.count(), (long) failures.count(),
+        lastDeliveredId, backoffMillis, lastError, lastDeliveryAt);
+  }
+
+  private int relayBatch() throws Exception {
+    List<OutboxMessage> batch = retrying;
+    if (batch == null) {
+      batch = jdbcTemplate.query(markDelivered ? NEXT_UNDELIVERED_BATCH : NEXT_BATCH, MESSAGE, batchSize);
+      if (batch.isEmpty()) {
+        backlog.set(0);
+        oldestPendingMillis.set(0);
+        return 0;
+      }
+      oldestPendingMillis.set(Timestamp.valueOf(batch.get(0).getOccurredAt()).getTime());
+      refreshBacklog(batch.size());
+      retrying = batch;
+      accepted.clear();
+    }
+
+    for (OutboxSink sink : sinks) {
+      if (accepted.contains(sink.name())) {
+        continue;
+      }
+      long started = System.nanoTime();
+      sink.deliver(batch);
+      deliveryTimes.get(sink.name()).record(Duration.ofNanos(System.nanoTime() - started));
+      deliveredBySink.get(sink.name()).increment(batch.size());
+      accepted.add(sink.name());
+    }
+    complete(batch);
+    retrying = null;
+
+    delivered.addAndGet(batch.size());
+    batches.increment();
+    lastDeliveredId = batch.get(batch.size() - 1).getId();
+    lastDeliveryAt = LocalDateTime.now();
+    lastError = null;
+    if (batch.size() < batchSize) {
+      backlog.set(0);
+      oldestPendingMillis.set(0);
+    } else {
+      int relayed = batch.size();
+      backlog.updateAndGet(rows -> Math.max(0, rows - relayed));
+    }
+    return batch.size();
+  }
+
+  private void complete(List<OutboxMessage> batch) {
+    List<Long> ids = new ArrayList<>(batch.size());
+    batch.forEach(message -> ids.add(message.getId()));
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    transactionTemplate.executeWithoutResult(status -> {
+      for (int from = 0; from < ids.size(); from += COMPLETE_CHUNK) {
+        List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + COMPLETE_CHUNK));
+        if (markDelivered) {
+          namedJdbcTemplate.update(MARK_DELIVERED, Map.of("deliveredAt", now, "ids", chunk));
+        } else {
+          namedJdbcTemplate.update(DELETE_DELIVERED, Map.of("ids", chunk));
+        }
+      }
+    });
+  }
+
+  // A short batch is the whole backlog; a full one means counting, at most once per BACKLOG_REFRESH
+  private void refreshBacklog(int fetched) {
+    if (fetched < batchSize) {
+      backlog.set(fetched);
+      return;
+    }
+    long now = System.nanoTime();
+    if (now - backlogCountedAt >= BACKLOG_REFRESH.toNanos() || backlog.get() < fetched) {
+      Long rows = jdbcTemplate.queryForObject(markDelivered ? COUNT_UNDELIVERED : COUNT, Long.class);
+      backlog.set(rows == null ? fetched : rows);
+      backlogCountedAt = now;
+    }
+  }
+
+  private double lagSeconds() {
+    long oldest = oldestPendingMillis.get();
+    return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+  }
+}
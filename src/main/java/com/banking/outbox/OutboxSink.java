@@ -0,0 +1,26 @@
+package com.banking.outbox;
+
+import com.banking.dto.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * A Spring bean implementing this receives every outbox row from
+ * {@link OutboxRelay}, a batch at a time, in id order. Delivery is at least
+ * once: a batch is retried until every sink has accepted it, so a sink may
+ * see a message again after a failure or a restart and should dedupe on
+ * {@link OutboxMessage#getId()} if that matters.
+ *
+ * <p>Throwing is how a sink pushes back: the relay keeps the rows and tries
+ * again after a growing pause.
+ */
+public interface OutboxSink {
+
+  /** Names the sink's metrics and stats entry. */
+  default String name() {
+    return getClass().getSimpleName();
+  }
+
+  /** Returns once the batch is durable as far as this sink is concerned. */
+  void deliver(List<OutboxMessage> batch) throws Exception;
+}
@@ -0,0 +1,60 @@
+package com.banking.outbox;
+
+import com.banking.entity.OutboxEvent;
+import com.banking.money.Money;
+import com.banking.repository.EntityIdAllocator;
+import com.banking.service.TransactionRows;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes one {@code transaction_outbox} row for every transaction row, in
+ * the same database transaction, so a transaction is in the outbox exactly
+ * when it committed. The rows {@link TransactionRows} collected are inserted
+ * with one JDBC batch just before the commit; the request pays for that
+ * insert and nothing else. {@link OutboxRelay} takes it from there.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.outbox.enabled", havingValue = "true")
+public class TransactionOutbox implements TransactionRows.Consumer {
+
+  private static final String INSERT_OUTBOX =
+      "insert into transaction_outbox (id, transaction_id, account_id, account_number, type, amount, final_balance,"
+          + " occurred_at) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityIdAllocator idAllocator;
+
+  public TransactionOutbox(JdbcTemplate jdbcTemplate,
+      EntityIdAllocator idAllocator,
+      @Value("${banking.shards.enabled:false}") boolean shards) {
+    if (shards) {
+      // Transaction rows live on the shards; the outbox row has to commit with them
+      throw new IllegalStateException("banking.outbox.enabled cannot be combined with banking.shards.enabled");
+    }
+    this.jdbcTemplate = jdbcTemplate;
+    this.idAllocator = idAllocator;
+  }
+
+  @Override
+  public void beforeCommit(List<TransactionRows.Row> rows) {
+    long[] ids = idAllocator.next(OutboxEvent.class, rows.size());
+    AtomicInteger next = new AtomicInteger();
+    jdbcTemplate.batchUpdate(INSERT_OUTBOX, rows, rows.size(), (ps, row) -> {
+      ps.setLong(1, ids[next.getAndIncrement()]);
+      ps.setLong(2, row.transactionId());
+      ps.setLong(3, row.accountId());
+      ps.setInt(4, row.accountNumber());
+      ps.setString(5, row.type());
+      ps.setBigDecimal(6, Money.toDecimal(row.amount()));
+      ps.setBigDecimal(7, Money.toDecimal(row.finalBalance()));
+      ps.setTimestamp(8, Timestamp.valueOf(row.timestamp()));
+    });
+  }
+}
@@ -0,0 +1,16 @@
+package com.banking.repository;
+
+import com.banking.entity.AccountImportChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Set;
+
+@Repository
+public interface AccountImportChunkRepository extends JpaRepository<AccountImportChunk, Long> {
+
+  @Query("select c.chunkNo from AccountImportChunk c where c.importId = :importId")
+  Set<Integer> findChunkNosByImportId(@Param("importId") Long importId);
+}
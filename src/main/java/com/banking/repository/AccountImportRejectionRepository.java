@@ -0,0 +1,16 @@
+package com.banking.repository;
+
+import com.banking.entity.AccountImportRejection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountImportRejectionRepository extends JpaRepository<AccountImportRejection, Long> {
+
+  // Keyset page: rejections after a line number, in file order
+  List<AccountImportRejection> findByImportIdAndLineNumberGreaterThanOrderByLineNumber(Long importId,
+      Long lineNumber, Pageable pageable);
+}
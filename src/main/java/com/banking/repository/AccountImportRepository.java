@@ -0,0 +1,13 @@
+package com.banking.repository;
+
+import com.banking.entity.AccountImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountImportRepository extends JpaRepository<AccountImport, Long> {
+
+  List<AccountImport> findByStatus(String status);
+}
@@ -1,10 +1,25 @@
 package com.banking.repository;
 
+import com.banking.dto.AccountDTO;
 import com.banking.entity.Account;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
@@ -12,4 +27,57 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
   Optional<Account> findByAccountNumber(Integer accountNumber);
 
   boolean existsByAccountNumber(Integer accountNumber);
+
+  List<Account> findByAccountNumberIn(Collection<Integer> accountNumbers);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select a from Account a where a.accountNumber = :accountNumber")
+  Optional<Account> findForUpdate(@Param("accountNumber") Integer accountNumber);
+
+  // Locked in account-number order, so two transfers between the same accounts cannot deadlock
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select a from Account a where a.accountNumber in :accountNumbers order by a.accountNumber")
+  List<Account> findAllForUpdate(@Param("accountNumbers") Collection<Integer> accountNumbers);
+
+  // Single-statement balance change; refuses a result below floor or above ceiling instead of reading first
+  @Modifying
+  @Query(value = "update accounts set balance = balance + :delta, version = version + 1, updated_at = :now"
+      + " where id = :id and balance + :delta >= :floor and balance + :delta <= :ceiling", nativeQuery = true)
+  int addToBalance(@Param("id") Long id, @Param("delta") BigDecimal delta, @Param("floor") BigDecimal floor,
+      @Param("ceiling") BigDecimal ceiling, @Param("now") LocalDateTime now);
+
+  // Read paths select only the columns the DTO needs and never put rows in the persistence context
+  @Query("select new com.banking.dto.AccountDTO(a.id, a.accountNumber, a.balance, a.accountType, a.locked)"
+      + " from Account a where a.accountNumber = :accountNumber")
+  Optional<AccountDTO> findDtoByAccountNumber(@Param("accountNumber") Integer accountNumber);
+
+  @Query("select new com.banking.dto.AccountDTO(a.id, a.accountNumber, a.balance, a.accountType, a.locked)"
+      + " from Account a order by a.id")
+  List<AccountDTO> findAllAsDto();
+
+  @Query("select a.id from Account a where a.accountNumber = :accountNumber")
+  Optional<Long> findIdByAccountNumber(@Param("accountNumber") Integer accountNumber);
+
+  // Constructor projection read through a JDBC cursor; rows never enter the persistence context
+  @Query("select new com.banking.dto.AccountDTO(a.id, a.accountNumber, a.balance, a.accountType, a.locked)"
+      + " from Account a order by a.id")
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  Stream<AccountDTO> streamAllAsDto();
+
+  // Column-level updates for login state, so they never write back a stale balance
+  @Transactional
+  @Modifying
+  @Query("update Account a set a.wrongAttempts = :attempts, a.lastFailedLoginAt = :failedAt,"
+      + " a.version = a.version + 1, a.updatedAt = :now"
+      + " where a.accountNumber = :accountNumber")
+  int updateWrongAttempts(@Param("accountNumber") Integer accountNumber, @Param("attempts") int attempts,
+      @Param("failedAt") LocalDateTime failedAt, @Param("now") LocalDateTime now);
+
+  @Transactional
+  @Modifying
+  @Query("update Account a set a.locked = :locked, a.wrongAttempts = :attempts, a.version = a.version + 1,"
+      + " a.updatedAt = :now"
+      + " where a.accountNumber = :accountNumber")
+  int updateLockState(@Param("accountNumber") Integer accountNumber, @Param("locked") boolean locked,
+      @Param("attempts") int attempts, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,24 @@
+package com.banking.repository;
+
+import com.banking.entity.DailyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyBalanceRepository extends JpaRepository<DailyBalance, DailyBalance.Key> {
+
+  List<DailyBalance> findByAccountIdAndDayBetweenOrderByDay(Long accountId, LocalDate from, LocalDate to);
+
+  Optional<DailyBalance> findFirstByAccountIdAndDayBeforeOrderByDayDesc(Long accountId, LocalDate day);
+
+  @Modifying
+  @Query("delete from DailyBalance d where d.accountId = :accountId")
+  int deleteByAccount(@Param("accountId") Long accountId);
+}
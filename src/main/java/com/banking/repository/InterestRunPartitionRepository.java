@@ -0,0 +1,13 @@
+package com.banking.repository;
+
+import com.banking.entity.InterestRunPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InterestRunPartitionRepository extends JpaRepository<InterestRunPartition, Long> {
+
+  List<InterestRunPartition> findByRunIdAndStatusOrderByPartitionNo(Long runId, String status);
+}
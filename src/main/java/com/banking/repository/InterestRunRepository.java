@@ -0,0 +1,13 @@
+package com.banking.repository;
+
+import com.banking.entity.InterestRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface InterestRunRepository extends JpaRepository<InterestRun, Long> {
+
+  Optional<InterestRun> findByPeriod(String period);
+}
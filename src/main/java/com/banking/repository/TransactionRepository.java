@@ -1,13 +1,48 @@
 package com.banking.repository;
 
+import com.banking.dto.StatementLine;
+import com.banking.dto.TransactionView;
 import com.banking.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
-  List<Transaction> findByAccountIdOrderByTimestampDesc(Long accountId);
+  // History pages are constructor projections: no entities, proxies or snapshots for dirty checking
+  @Query("select new com.banking.dto.TransactionView(t.id, t.type, t.amount, t.finalBalance, t.timestamp,"
+      + " t.description) from Transaction t where t.account.id = :accountId order by t.timestamp desc, t.id desc")
+  List<TransactionView> findLatest(@Param("accountId") Long accountId, Limit limit);
+
+  // Keyset page strictly after the cursor row in (timestamp desc, id desc) order
+  @Query("select new com.banking.dto.TransactionView(t.id, t.type, t.amount, t.finalBalance, t.timestamp,"
+      + " t.description) from Transaction t where t.account.id = :accountId"
+      + " and (t.timestamp < :timestamp or (t.timestamp = :timestamp and t.id < :id))"
+      + " order by t.timestamp desc, t.id desc")
+  List<TransactionView> findBefore(@Param("accountId") Long accountId, @Param("timestamp") LocalDateTime timestamp,
+      @Param("id") Long id, Limit limit);
+
+  @Query("select max(t.ledgerSequence) from Transaction t")
+  Long findMaxLedgerSequence();
+
+  @Query("select t.ledgerSequence from Transaction t where t.ledgerSequence >= :from")
+  List<Long> findLedgerSequencesFrom(@Param("from") long from);
+
+  // Oldest first over the (account_id, timestamp, id) index, read through a JDBC cursor
+  @Query("select new com.banking.dto.StatementLine(t.id, t.timestamp, t.type, t.amount, t.finalBalance,"
+      + " t.description) from Transaction t where t.account.id = :accountId"
+      + " and t.timestamp >= :from and t.timestamp < :to order by t.timestamp, t.id")
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  Stream<StatementLine> streamStatement(@Param("accountId") Long accountId, @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
 }
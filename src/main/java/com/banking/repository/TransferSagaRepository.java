@@ -0,0 +1,22 @@
+package com.banking.repository;
+
+import com.banking.entity.TransferSaga;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TransferSagaRepository extends JpaRepository<TransferSaga, String> {
+
+  List<TransferSaga> findByStatusAndUpdatedAtBefore(String status, LocalDateTime cutoff);
+
+  @Modifying
+  @Query("update TransferSaga s set s.status = :status, s.updatedAt = :now where s.id = :id and s.status = :expected")
+  int updateStatus(@Param("id") String id, @Param("expected") String expected, @Param("status") String status,
+      @Param("now") LocalDateTime now);
+}
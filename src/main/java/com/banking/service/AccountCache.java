@@ -0,0 +1,233 @@
+package com.banking.service;
+
+import com.banking.dto.AccountDTO;
+import com.banking.dto.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded near-cache of account snapshots keyed by account number. Entries
+ * live in LRU segments and expire after a fixed TTL.
+ *
+ * <p>Every segment carries a version bumped on each write. Readers take a
+ * {@link #loadToken} before querying the database and only publish the row if
+ * no write happened meanwhile, so a slow read can never overwrite a newer
+ * value that was refreshed on commit. Commits can finish their callbacks out
+ * of order, so a write's snapshot carries the row version it was made from
+ * and never replaces the snapshot of a later write.
+ */
+@Component
+public class AccountCache {
+
+  private static final long READ = -1;
+
+  private final boolean enabled;
+  private final int maxSize;
+  private final long ttlNanos;
+  private final Segment[] segments;
+  private final int segmentMask;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+
+  public AccountCache(@Value("${banking.cache.accounts.enabled:true}") boolean enabled,
+      @Value("${banking.cache.accounts.max-size:10000}") int maxSize,
+      @Value("${banking.cache.accounts.ttl:30s}") Duration ttl) {
+    this.enabled = enabled && maxSize > 0;
+    this.maxSize = maxSize;
+    this.ttlNanos = ttl.toNanos();
+
+    int segmentCount = Math.min(16, Integer.highestOneBit(Math.max(1, maxSize)));
+    int perSegment = Math.max(1, maxSize / segmentCount);
+    this.segments = new Segment[segmentCount];
+    this.segmentMask = segmentCount - 1;
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(perSegment);
+    }
+  }
+
+  public AccountDTO get(Integer accountNumber) {
+    if (!enabled) {
+      return null;
+    }
+    Segment segment = segmentFor(accountNumber);
+    synchronized (segment) {
+      Entry entry = segment.entries.get(accountNumber);
+      if (entry == null) {
+        misses.increment();
+        return null;
+      }
+      if (System.nanoTime() - entry.expiresAt > 0) {
+        segment.entries.remove(accountNumber);
+        expirations.increment();
+        misses.increment();
+        return null;
+      }
+      hits.increment();
+      return entry.account;
+    }
+  }
+
+  public long loadToken(Integer accountNumber) {
+    Segment segment = segmentFor(accountNumber);
+    synchronized (segment) {
+      return segment.version;
+    }
+  }
+
+  /**
+   * Publishes a value read from the database, unless a write touched the
+   * segment since {@code token} was taken.
+   */
+  public void putIfUnchanged(AccountDTO account, long token) {
+    if (!enabled) {
+      return;
+    }
+    Segment segment = segmentFor(account.getAccountNumber());
+    synchronized (segment) {
+      if (segment.version == token) {
+        store(segment, account);
+      }
+    }
+  }
+
+  public void put(AccountDTO account) {
+    if (!enabled) {
+      return;
+    }
+    Segment segment = segmentFor(account.getAccountNumber());
+    synchronized (segment) {
+      segment.version++;
+      store(segment, account);
+    }
+  }
+
+  private void putWritten(AccountDTO account, long rowVersion) {
+    if (!enabled) {
+      return;
+    }
+    Segment segment = segmentFor(account.getAccountNumber());
+    synchronized (segment) {
+      segment.version++;
+      Entry current = segment.entries.get(account.getAccountNumber());
+      if (current == null || current.rowVersion() <= rowVersion) {
+        store(segment, account, rowVersion);
+      } else if (current.rowVersion() == READ) {
+        // A read published after some commit, and it is unknown whether that was this one
+        segment.entries.remove(account.getAccountNumber());
+      }
+    }
+  }
+
+  public void invalidate(Integer accountNumber) {
+    Segment segment = segmentFor(accountNumber);
+    synchronized (segment) {
+      segment.version++;
+      segment.entries.remove(accountNumber);
+    }
+  }
+
+  public void clear() {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        segment.version++;
+        segment.entries.clear();
+      }
+    }
+  }
+
+  /**
+   * Drops the entry now, so nobody reads it while the write is in flight, and
+   * stores {@code account} once the surrounding transaction commits. On
+   * rollback the entry simply stays absent. {@code rowVersion} is the
+   * account row's version as the write read it.
+   */
+  public void refreshOnCommit(AccountDTO account, long rowVersion) {
+    Integer accountNumber = account.getAccountNumber();
+    invalidate(accountNumber);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      putWritten(account, rowVersion);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status == STATUS_COMMITTED) {
+          putWritten(account, rowVersion);
+        } else {
+          invalidate(accountNumber);
+        }
+      }
+    });
+  }
+
+  public void invalidateOnCompletion(Integer accountNumber) {
+    invalidate(accountNumber);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          invalidate(accountNumber);
+        }
+      });
+    }
+  }
+
+  public CacheStats stats() {
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    long lookups = hitCount + missCount;
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.entries.size();
+      }
+    }
+    return new CacheStats(enabled, size, maxSize, ttlNanos / 1_000_000_000L, hitCount, missCount,
+        lookups == 0 ? 0.0 : (double) hitCount / lookups, evictions.sum(), expirations.sum());
+  }
+
+  // Caller holds the segment monitor
+  private void store(Segment segment, AccountDTO account) {
+    store(segment, account, READ);
+  }
+
+  private void store(Segment segment, AccountDTO account, long rowVersion) {
+    segment.entries.put(account.getAccountNumber(), new Entry(account, rowVersion, System.nanoTime() + ttlNanos));
+    if (segment.entries.size() > segment.capacity) {
+      Iterator<Map.Entry<Integer, Entry>> eldest = segment.entries.entrySet().iterator();
+      eldest.next();
+      eldest.remove();
+      evictions.increment();
+    }
+  }
+
+  private Segment segmentFor(Integer accountNumber) {
+    int h = accountNumber.hashCode();
+    return segments[(h ^ (h >>> 16)) & segmentMask];
+  }
+
+  // Row version of a snapshot published by a write; READ for one read from the database
+  private record Entry(AccountDTO account, long rowVersion, long expiresAt) {
+  }
+
+  private static final class Segment {
+    final int capacity;
+    final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    long version;
+
+    Segment(int capacity) {
+      this.capacity = capacity;
+    }
+  }
+}
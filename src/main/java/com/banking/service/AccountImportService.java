@@ -0,0 +1,552 @@
+package com.banking.service;
+
+import com.banking.dto.AccountImportStatus;
+import com.banking.dto.CreateAccountRequest;
+import com.banking.dto.ImportRejection;
+import com.banking.entity.Account;
+import com.banking.entity.AccountImport;
+import com.banking.entity.Transaction;
+import com.banking.money.Money;
+import com.banking.repository.AccountImportChunkRepository;
+import com.banking.repository.AccountImportRejectionRepository;
+import com.banking.repository.AccountImportRepository;
+import com.banking.repository.EntityIdAllocator;
+import com.banking.shard.ShardMap;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk account onboarding from CSV lines of
+ * {@code accountNumber,password,initialBalance,accountType}, with an
+ * optional header line. The upload is streamed to a spool file under
+ * {@code banking.import.dir}, then read back in chunks of
+ * {@code banking.import.chunk-size} lines that are applied in parallel on a
+ * bounded pool. Each chunk checks all of its account numbers with one query,
+ * inserts its accounts and INITIAL_DEPOSIT rows through JDBC batches, and
+ * commits them together with its rejected lines and its checkpoint. A resumed
+ * import, or one left running by a restart, skips the chunks that committed.
+ *
+ * <p>Lines are validated like {@code POST /api/accounts/create}. When the
+ * same account number appears in two chunks, the chunk that commits first
+ * keeps it and the other rejects the line.
+ */
+@Slf4j
+@Service
+public class AccountImportService {
+
+  private static final int MAX_ATTEMPTS = 3;
+  private static final int MAX_REASON_LENGTH = 500;
+  private static final String HEADER = "accountNumber";
+
+  private static final String EXISTING_NUMBERS =
+      "select account_number from accounts where account_number in (:numbers)";
+  private static final String INSERT_ACCOUNT =
+      "insert into accounts (id, account_number, password, balance, account_type, version, locked, wrong_attempts,"
+          + " created_at, updated_at) values (?, ?, ?, ?, ?, 0, false, 0, ?, ?)";
+  private static final String INSERT_INITIAL_DEPOSIT =
+      "insert into transactions (id, type, amount, final_balance, timestamp, description, account_id)"
+          + " values (?, 'INITIAL_DEPOSIT', ?, ?, ?, 'Account created with initial deposit', ?)";
+  private static final String INSERT_REJECTION =
+      "insert into account_import_rejections (import_id, line_number, account_number, reason) values (?, ?, ?, ?)";
+  private static final String COMPLETE_CHUNK =
+      "insert into account_import_chunks (import_id, chunk_no, first_line, last_line, accounts_imported,"
+          + " rows_rejected, completed_at) values (?, ?, ?, ?, ?, ?, ?)";
+  private static final String ADVANCE_IMPORT =
+      "update account_imports set completed_chunks = completed_chunks + 1, accounts_imported = accounts_imported + ?,"
+          + " rows_rejected = rows_rejected + ? where id = ?";
+
+  private final AccountImportRepository importRepository;
+  private final AccountImportChunkRepository chunkRepository;
+  private final AccountImportRejectionRepository rejectionRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Validator validator;
+  private final Optional<ShardMap> shards;
+  private final TransactionRows transactionRows;
+  private final EntityIdAllocator idAllocator;
+  private final Path dir;
+  private final int chunkSize;
+  private final int batchSize;
+  private final ThreadPoolExecutor workers;
+  private final ExecutorService coordinator = Executors.newSingleThreadExecutor(
+      runnable -> new Thread(runnable, "account-import-coordinator"));
+  private final Map<Long, ActiveImport> activeImports = new ConcurrentHashMap<>();
+
+  public AccountImportService(AccountImportRepository importRepository,
+      AccountImportChunkRepository chunkRepository,
+      AccountImportRejectionRepository rejectionRepository,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      Validator validator,
+      Optional<ShardMap> shards,
+      TransactionRows transactionRows,
+      EntityIdAllocator idAllocator,
+      @Value("${banking.import.dir:data/imports}") Path dir,
+      @Value("${banking.import.chunk-size:1000}") int chunkSize,
+      @Value("${banking.import.batch-size:500}") int batchSize,
+      @Value("${banking.import.parallelism:4}") int parallelism) {
+    this.importRepository = importRepository;
+    this.chunkRepository = chunkRepository;
+    this.rejectionRepository = rejectionRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.validator = validator;
+    this.shards = shards;
+    this.transactionRows = transactionRows;
+    this.idAllocator = idAllocator;
+    this.dir = dir;
+    this.chunkSize = Math.max(1, chunkSize);
+    this.batchSize = Math.max(1, batchSize);
+
+    AtomicInteger threadNumber = new AtomicInteger();
+    // Bounded queue with caller-runs: the reader slows down instead of holding the whole file in chunks
+    this.workers = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(parallelism * 2),
+        runnable -> new Thread(runnable, "account-import-" + threadNumber.incrementAndGet()),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  // An import still RUNNING was cut short by a shutdown; carry on from its checkpoints
+  @EventListener(ApplicationReadyEvent.class)
+  void resumeInterrupted() {
+    for (AccountImport accountImport : importRepository.findByStatus("RUNNING")) {
+      try {
+        resume(accountImport.getId());
+      } catch (RuntimeException e) {
+        log.warn("Could not resume account import {}: {}", accountImport.getId(), e.getMessage());
+      }
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    coordinator.shutdownNow();
+    workers.shutdownNow();
+  }
+
+  /**
+   * Spools {@code csv} to disk and starts importing it. Returns once the
+   * upload is stored; poll {@link #getStatus}.
+   */
+  public AccountImportStatus start(InputStream csv) throws IOException {
+    if (shards.isPresent()) {
+      throw new RuntimeException("Bulk imports are not available while sharding is enabled");
+    }
+    Files.createDirectories(dir);
+    Path file = Files.createTempFile(dir, "import-", ".csv");
+    try {
+      Files.copy(csv, file, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+
+    AccountImport accountImport = new AccountImport();
+    accountImport.setStatus("RUNNING");
+    accountImport.setFile(file.toString());
+    accountImport.setChunkSize(chunkSize);
+    accountImport.setStartedAt(LocalDateTime.now());
+    accountImport = importRepository.save(accountImport);
+    log.info("Created account import {} from {} ({} bytes)", accountImport.getId(), file, Files.size(file));
+    return launch(accountImport);
+  }
+
+  /** Continues an import that failed or was interrupted, after its last committed chunks. */
+  public synchronized AccountImportStatus resume(Long importId) {
+    AccountImport accountImport = importRepository.findById(importId)
+        .orElseThrow(() -> new RuntimeException("Account import not found"));
+    if ("COMPLETED".equals(accountImport.getStatus())) {
+      throw new RuntimeException("Account import already completed");
+    }
+    if (activeImports.containsKey(importId)) {
+      return getStatus(importId);
+    }
+    if (!Files.exists(Path.of(accountImport.getFile()))) {
+      throw new RuntimeException("Spooled file of account import " + importId + " is gone");
+    }
+    log.info("Resuming account import {} after {} committed chunks", importId, accountImport.getCompletedChunks());
+    accountImport.setStatus("RUNNING");
+    accountImport.setError(null);
+    accountImport.setFinishedAt(null);
+    return launch(importRepository.save(accountImport));
+  }
+
+  public AccountImportStatus getStatus(Long importId) {
+    AccountImport accountImport = importRepository.findById(importId)
+        .orElseThrow(() -> new RuntimeException("Account import not found"));
+
+    ActiveImport active = activeImports.get(importId);
+    long elapsedNanos;
+    long imported;
+    if (active != null) {
+      elapsedNanos = System.nanoTime() - active.startedNanos;
+      imported = active.imported.get();
+    } else {
+      LocalDateTime end = accountImport.getFinishedAt() != null ? accountImport.getFinishedAt() : LocalDateTime.now();
+      elapsedNanos = Duration.between(accountImport.getStartedAt(), end).toNanos();
+      imported = accountImport.getAccountsImported();
+    }
+    double seconds = Math.max(elapsedNanos / 1e9, 1e-3);
+
+    return new AccountImportStatus(accountImport.getId(), accountImport.getStatus(), accountImport.getChunkSize(),
+        accountImport.getTotalChunks(), accountImport.getCompletedChunks(), accountImport.getAccountsImported(),
+        accountImport.getRowsRejected(), imported / seconds, (long) seconds, accountImport.getError());
+  }
+
+  /** Rejected lines after {@code afterLine}, in file order. */
+  public List<ImportRejection> getRejections(Long importId, long afterLine, int limit) {
+    if (!importRepository.existsById(importId)) {
+      throw new RuntimeException("Account import not found");
+    }
+    return rejectionRepository.findByImportIdAndLineNumberGreaterThanOrderByLineNumber(importId, afterLine,
+            PageRequest.of(0, Math.max(1, Math.min(limit, 1000))))
+        .stream()
+        .map(rejection -> new ImportRejection(rejection.getLineNumber(), rejection.getAccountNumber(),
+            rejection.getReason()))
+        .toList();
+  }
+
+  private synchronized AccountImportStatus launch(AccountImport accountImport) {
+    // Chunk numbers only line up with the committed ones under the size the import started with
+    ActiveImport active = new ActiveImport(accountImport.getId(), Path.of(accountImport.getFile()),
+        accountImport.getChunkSize(), System.nanoTime());
+    activeImports.put(active.importId, active);
+    coordinator.execute(() -> execute(active));
+    return getStatus(active.importId);
+  }
+
+  private void execute(ActiveImport active) {
+    Set<Integer> committed = chunkRepository.findChunkNosByImportId(active.importId);
+    List<Future<?>> futures = new ArrayList<>();
+    int chunks = 0;
+    String error = null;
+    try (BufferedReader reader = Files.newBufferedReader(active.file, StandardCharsets.UTF_8)) {
+      List<String> lines = new ArrayList<>(active.chunkSize);
+      long lineNumber = 0;
+      long firstLine = 1;
+      String line;
+      while ((line = reader.readLine()) != null && active.failure == null) {
+        lineNumber++;
+        if (lineNumber == 1 && line.trim().regionMatches(true, 0, HEADER, 0, HEADER.length())) {
+          continue;
+        }
+        if (lines.isEmpty()) {
+          firstLine = lineNumber;
+        }
+        lines.add(line);
+        if (lines.size() == active.chunkSize) {
+          submit(active, new Chunk(chunks++, firstLine, lines), committed, futures);
+          lines = new ArrayList<>(active.chunkSize);
+        }
+      }
+      if (!lines.isEmpty() && active.failure == null) {
+        submit(active, new Chunk(chunks++, firstLine, lines), committed, futures);
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      error = "Interrupted";
+    } catch (Exception e) {
+      log.error("Account import {} failed", active.importId, e);
+      error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+    }
+    if (error == null && active.failure != null) {
+      error = active.failure;
+    }
+
+    String failure = error;
+    int totalChunks = chunks;
+    importRepository.findById(active.importId).ifPresent(accountImport -> {
+      accountImport.setStatus(failure == null ? "COMPLETED" : "FAILED");
+      accountImport.setError(failure);
+      if (failure == null) {
+        accountImport.setTotalChunks(totalChunks);
+      }
+      accountImport.setFinishedAt(LocalDateTime.now());
+      importRepository.save(accountImport);
+    });
+    activeImports.remove(active.importId);
+    if (failure == null) {
+      // Everything worth keeping is in the database now
+      try {
+        Files.deleteIfExists(active.file);
+      } catch (IOException e) {
+        log.warn("Could not delete spooled import file {}", active.file, e);
+      }
+    }
+
+    double seconds = Math.max((System.nanoTime() - active.startedNanos) / 1e9, 1e-3);
+    log.info("Account import {} {} after {} accounts in {}s ({} accounts/s)", active.importId,
+        failure == null ? "completed" : "failed", active.imported.get(), String.format("%.1f", seconds),
+        String.format("%.0f", active.imported.get() / seconds));
+  }
+
+  private void submit(ActiveImport active, Chunk chunk, Set<Integer> committed, List<Future<?>> futures) {
+    if (committed.contains(chunk.chunkNo())) {
+      return;
+    }
+    futures.add(workers.submit(() -> {
+      try {
+        applyChunk(active, chunk);
+      } catch (RuntimeException e) {
+        active.failure = "Chunk " + chunk.chunkNo() + " (line " + chunk.firstLine() + "): " + e.getMessage();
+        throw e;
+      }
+    }));
+  }
+
+  private void applyChunk(ActiveImport active, Chunk chunk) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        int imported = transactionTemplate.execute(status -> writeChunk(active.importId, chunk));
+        active.imported.addAndGet(imported);
+        return;
+      } catch (DuplicateKeyException e) {
+        // An account number was taken after the check; the next attempt sees it and rejects the line
+        if (attempt == MAX_ATTEMPTS) {
+          throw e;
+        }
+        log.debug("Account import {} chunk {} hit a concurrently created account, retrying", active.importId,
+            chunk.chunkNo());
+      }
+    }
+  }
+
+  private int writeChunk(Long importId, Chunk chunk) {
+    List<Row> rows = new ArrayList<>(chunk.lines().size());
+    List<Rejection> rejections = new ArrayList<>();
+    Set<Integer> numbers = new HashSet<>();
+    for (int i = 0; i < chunk.lines().size(); i++) {
+      String line = chunk.lines().get(i);
+      long lineNumber = chunk.firstLine() + i;
+      if (line.isBlank()) {
+        continue;
+      }
+      Row row;
+      try {
+        row = parse(line, lineNumber);
+      } catch (IllegalArgumentException e) {
+        rejections.add(new Rejection(lineNumber, null, e.getMessage()));
+        continue;
+      }
+      String invalid = validate(row.request());
+      if (invalid != null) {
+        rejections.add(new Rejection(lineNumber, row.request().getAccountNumber(), invalid));
+      } else if (!numbers.add(row.request().getAccountNumber())) {
+        rejections.add(new Rejection(lineNumber, row.request().getAccountNumber(),
+            "Account number appears earlier in the file"));
+      } else {
+        rows.add(row);
+      }
+    }
+
+    // One query for the whole chunk instead of an existence check per line
+    if (!numbers.isEmpty()) {
+      Set<Integer> existing = new HashSet<>(namedJdbcTemplate.queryForList(EXISTING_NUMBERS,
+          Map.of("numbers", numbers), Integer.class));
+      if (!existing.isEmpty()) {
+        List<Row> fresh = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+          if (existing.contains(row.request().getAccountNumber())) {
+            rejections.add(new Rejection(row.lineNumber(), row.request().getAccountNumber(),
+                "Account number already exists"));
+          } else {
+            fresh.add(row);
+          }
+        }
+        rows = fresh;
+      }
+    }
+
+    insertAccounts(rows);
+    jdbcTemplate.batchUpdate(INSERT_REJECTION, rejections, batchSize, (ps, rejection) -> {
+      ps.setLong(1, importId);
+      ps.setLong(2, rejection.lineNumber());
+      ps.setObject(3, rejection.accountNumber(), Types.INTEGER);
+      String reason = rejection.reason() == null ? "Invalid line" : rejection.reason();
+      ps.setString(4, reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason);
+    });
+
+    long lastLine = chunk.firstLine() + chunk.lines().size() - 1;
+    jdbcTemplate.update(COMPLETE_CHUNK, importId, chunk.chunkNo(), chunk.firstLine(), lastLine, rows.size(),
+        rejections.size(), Timestamp.valueOf(LocalDateTime.now()));
+    jdbcTemplate.update(ADVANCE_IMPORT, rows.size(), rejections.size(), importId);
+    return rows.size();
+  }
+
+  private void insertAccounts(List<Row> rows) {
+    if (rows.isEmpty()) {
+      return;
+    }
+    long[] accountIds = idAllocator.next(Account.class, rows.size());
+    long[] transactionIds = idAllocator.next(Transaction.class, rows.size());
+    LocalDateTime now = LocalDateTime.now();
+    Timestamp timestamp = Timestamp.valueOf(now);
+
+    AtomicInteger nextAccount = new AtomicInteger();
+    jdbcTemplate.batchUpdate(INSERT_ACCOUNT, rows, batchSize, (ps, row) -> {
+      CreateAccountRequest request = row.request();
+      ps.setLong(1, accountIds[nextAccount.getAndIncrement()]);
+      ps.setInt(2, request.getAccountNumber());
+      ps.setString(3, request.getPassword());
+      ps.setBigDecimal(4, Money.toDecimal(request.getInitialBalance()));
+      ps.setString(5, request.getAccountType());
+      ps.setTimestamp(6, timestamp);
+      ps.setTimestamp(7, timestamp);
+    });
+    AtomicInteger nextTransaction = new AtomicInteger();
+    jdbcTemplate.batchUpdate(INSERT_INITIAL_DEPOSIT, rows, batchSize, (ps, row) -> {
+      int i = nextTransaction.getAndIncrement();
+      ps.setLong(1, transactionIds[i]);
+      ps.setBigDecimal(2, Money.toDecimal(row.request().getInitialBalance()));
+      ps.setBigDecimal(3, Money.toDecimal(row.request().getInitialBalance()));
+      ps.setTimestamp(4, timestamp);
+      ps.setLong(5, accountIds[i]);
+    });
+
+    for (int i = 0; i < rows.size(); i++) {
+      CreateAccountRequest request = rows.get(i).request();
+      long amount = request.getInitialBalance();
+      transactionRows.record(new TransactionRows.Row(transactionIds[i], accountIds[i], request.getAccountNumber(),
+          request.getAccountType(), "INITIAL_DEPOSIT", amount, amount, now));
+    }
+  }
+
+  private static Row parse(String line, long lineNumber) {
+    List<String> fields = splitCsv(line);
+    if (fields.size() != 4) {
+      throw new IllegalArgumentException("Expected 4 fields (accountNumber,password,initialBalance,accountType),"
+          + " found " + fields.size());
+    }
+    CreateAccountRequest request = new CreateAccountRequest();
+    try {
+      request.setAccountNumber(Integer.valueOf(fields.get(0).trim()));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Account number is not a whole number");
+    }
+    request.setPassword(fields.get(1));
+    try {
+      request.setInitialBalance(Money.fromDecimal(new BigDecimal(fields.get(2).trim())));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Initial balance is not a decimal amount");
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Initial balance is out of range");
+    }
+    request.setAccountType(fields.get(3).trim());
+    return new Row(lineNumber, request);
+  }
+
+  // Messages sorted so the same line is always reported the same way
+  private String validate(CreateAccountRequest request) {
+    Set<ConstraintViolation<CreateAccountRequest>> violations = validator.validate(request);
+    if (violations.isEmpty()) {
+      return null;
+    }
+    return violations.stream()
+        .map(ConstraintViolation::getMessage)
+        .sorted()
+        .collect(Collectors.joining("; "));
+  }
+
+  // Comma-separated fields; a field in double quotes may hold commas and doubled quotes
+  private static List<String> splitCsv(String line) {
+    List<String> fields = new ArrayList<>(4);
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"' && field.isEmpty()) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("Unterminated quoted field");
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  private record Chunk(int chunkNo, long firstLine, List<String> lines) {
+  }
+
+  private record Row(long lineNumber, CreateAccountRequest request) {
+  }
+
+  private record Rejection(long lineNumber, Integer accountNumber, String reason) {
+  }
+
+  private static final class ActiveImport {
+    final Long importId;
+    final Path file;
+    final int chunkSize;
+    final long startedNanos;
+    final AtomicLong imported = new AtomicLong();
+    volatile String failure;
+
+    ActiveImport(Long importId, Path file, int chunkSize, long startedNanos) {
+      this.importId = importId;
+      this.file = file;
+      this.chunkSize = chunkSize;
+      this.startedNanos = startedNanos;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.banking.service;
+
+import com.banking.money.Money;
+import com.banking.service.BusinessRuleException.Reason;
+
+/**
+ * Business rules shared by every balance engine, so the JPA path and the
+ * in-memory ledger reject the same requests with the same messages. Every
+ * rejection is a {@link BusinessRuleException}.
+ */
+public final class AccountRules {
+
+  public static final long SAVINGS_MIN_BALANCE = Money.ofMajor(500);
+  public static final long SAVINGS_WITHDRAW_LIMIT = Money.ofMajor(10000);
+  public static final long YEARLY_INTEREST_BASIS_POINTS = 400; // 4.0%
+
+  private AccountRules() {
+  }
+
+  public static void checkDeposit(long amount) {
+    if (amount <= 0) {
+      throw new BusinessRuleException(Reason.INVALID_AMOUNT, "Invalid deposit amount");
+    }
+  }
+
+  public static void checkWithdrawal(String accountType, boolean locked, long balance, long amount) {
+    if (locked) {
+      throw new BusinessRuleException(Reason.LOCKED, "Account is locked");
+    }
+
+    if (amount <= 0) {
+      throw new BusinessRuleException(Reason.INVALID_AMOUNT, "Invalid withdrawal amount");
+    }
+
+    if ("SAVINGS".equals(accountType)) {
+      if (amount > SAVINGS_WITHDRAW_LIMIT) {
+        throw new BusinessRuleException(Reason.LIMIT_EXCEEDED, "Withdrawal limit exceeded (Max ₹" + Money.format(SAVINGS_WITHDRAW_LIMIT) + ")");
+      }
+      if (balance - amount < SAVINGS_MIN_BALANCE) {
+        throw new BusinessRuleException(Reason.MINIMUM_BALANCE, "Cannot withdraw! Minimum balance ₹" + Money.format(SAVINGS_MIN_BALANCE)
+            + " must be maintained");
+      }
+    }
+
+    if (amount > balance) {
+      throw new BusinessRuleException(Reason.INSUFFICIENT_BALANCE, "Insufficient balance");
+    }
+  }
+
+  /** Lowest balance a withdrawal may leave behind. */
+  public static long withdrawalFloor(String accountType) {
+    return "SAVINGS".equals(accountType) ? SAVINGS_MIN_BALANCE : 0;
+  }
+
+  // A transfer to the source itself would be both legs applied to one balance
+  public static void checkDistinctAccounts(Integer sourceNumber, Integer targetNumber) {
+    if (sourceNumber != null && sourceNumber.equals(targetNumber)) {
+      throw new BusinessRuleException(Reason.SAME_ACCOUNT, "Cannot transfer to the same account");
+    }
+  }
+
+  public static void checkTransfer(boolean sourceLocked, long sourceBalance, long amount) {
+    if (sourceLocked) {
+      throw new BusinessRuleException(Reason.LOCKED, "Source account is locked");
+    }
+
+    if (amount <= 0) {
+      throw new BusinessRuleException(Reason.INVALID_AMOUNT, "Invalid transfer amount");
+    }
+
+    if (amount > sourceBalance) {
+      throw new BusinessRuleException(Reason.INSUFFICIENT_BALANCE, "Insufficient balance");
+    }
+  }
+
+  public static void checkInterestEligible(String accountType) {
+    if (!"SAVINGS".equals(accountType)) {
+      throw new BusinessRuleException(Reason.NOT_ELIGIBLE, "Interest only available for Savings Accounts");
+    }
+  }
+
+  public static long monthlyInterest(long balance) {
+    return Money.rate(balance, YEARLY_INTEREST_BASIS_POINTS, 12);
+  }
+
+  /** {@code amount} with the sign it has on the balance for a transaction of {@code type}. */
+  public static long signedAmount(String type, long amount) {
+    return "WITHDRAW".equals(type) || "TRANSFER_OUT".equals(type) ? -amount : amount;
+  }
+}
@@ -1,16 +1,34 @@
 package com.banking.service;
 
+import com.banking.concurrency.BalanceUpdateStrategy;
+import com.banking.concurrency.HotAccounts;
+import com.banking.datasource.ReadYourWrites;
 import com.banking.dto.*;
 import com.banking.entity.Account;
+import com.banking.entity.DailyBalance;
 import com.banking.entity.Transaction;
+import com.banking.ledger.LedgerEngine;
 import com.banking.repository.AccountRepository;
+import com.banking.repository.DailyBalanceRepository;
 import com.banking.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -18,14 +36,24 @@ public class AccountService {
 
   private final AccountRepository accountRepository;
   private final TransactionRepository transactionRepository;
-
-  private static final double SAVINGS_MIN_BALANCE = 500.0;
-  private static final double SAVINGS_WITHDRAW_LIMIT = 10000.0;
-  private static final double YEARLY_INTEREST = 4.0;
+  private final Optional<LedgerEngine> ledger;
+  private final AccountCache accountCache;
+  private final LoginAttemptTracker loginAttempts;
+  private final Optional<ReadYourWrites> readYourWrites;
+  private final DailyBalanceRepository dailyBalanceRepository;
+  private final DailyBalanceRollups rollups;
+  private final BankAggregates aggregates;
+  private final BalanceUpdateStrategy balances;
+  private final Optional<HotAccounts> hotAccounts;
+
+  public static final int DEFAULT_PAGE_SIZE = 50;
+  public static final int MAX_PAGE_SIZE = 500;
+  public static final int MAX_LOGIN_ATTEMPTS = 3;
 
   @Transactional
   public AccountDTO createAccount(CreateAccountRequest request) {
-    if (accountRepository.existsByAccountNumber(request.getAccountNumber())) {
+    if (accountCache.get(request.getAccountNumber()) != null
+        || accountRepository.existsByAccountNumber(request.getAccountNumber())) {
       throw new RuntimeException("Account number already exists");
     }
 
@@ -44,151 +72,392 @@ public class AccountService {
     account.addTransaction(transaction);
     transactionRepository.save(transaction);
 
-    return convertToDTO(account);
+    return refreshCache(account);
   }
 
+  @Transactional(readOnly = true)
   public AccountDTO getAccount(Integer accountNumber) {
-    Account account = accountRepository.findByAccountNumber(accountNumber)
+    if (isHot(accountNumber)) {
+      AccountDTO dto = accountRepository.findDtoByAccountNumber(accountNumber)
+          .orElseThrow(() -> new RuntimeException("Account not found"));
+      dto.setBalance(storedBalance(dto));
+      return dto;
+    }
+
+    AccountDTO cached = accountCache.get(accountNumber);
+    if (cached != null) {
+      return new AccountDTO(cached.getId(), cached.getAccountNumber(),
+          currentBalance(accountNumber, cached.getBalance()), cached.getAccountType(), cached.getLocked());
+    }
+
+    long token = accountCache.loadToken(accountNumber);
+    AccountDTO dto = accountRepository.findDtoByAccountNumber(accountNumber)
         .orElseThrow(() -> new RuntimeException("Account not found"));
-    return convertToDTO(account);
+    dto.setBalance(currentBalance(accountNumber, dto.getBalance()));
+    // A replica may not have applied the latest write yet; only writes fill the cache then
+    if (readYourWrites.isEmpty()) {
+      accountCache.putIfUnchanged(dto, token);
+    }
+    return dto;
   }
 
+  @Transactional(readOnly = true)
   public List<AccountDTO> getAllAccounts() {
-    return accountRepository.findAll().stream()
-        .map(this::convertToDTO)
-        .collect(Collectors.toList());
+    List<AccountDTO> accounts = accountRepository.findAllAsDto();
+    accounts.forEach(account -> account.setBalance(currentBalance(account.getAccountNumber(), storedBalance(account))));
+    return accounts;
+  }
+
+  /**
+   * Feeds every account to {@code sink} straight off a database cursor, so
+   * memory stays flat no matter how many accounts exist.
+   */
+  @Transactional(readOnly = true)
+  public void exportAccounts(Consumer<AccountDTO> sink) {
+    try (Stream<AccountDTO> accounts = accountRepository.streamAllAsDto()) {
+      accounts.forEach(account -> {
+        account.setBalance(currentBalance(account.getAccountNumber(), storedBalance(account)));
+        sink.accept(account);
+      });
+    }
   }
 
   @Transactional
   public AccountDTO deposit(TransactionRequest request) {
-    Account account = accountRepository.findByAccountNumber(request.getAccountNumber())
+    if (ledger.isPresent()) {
+      return ledger.get().deposit(request.getAccountNumber(), request.getAmount());
+    }
+
+    Account account = balances.find(request.getAccountNumber())
         .orElseThrow(() -> new RuntimeException("Account not found"));
 
-    if (request.getAmount() <= 0) {
-      throw new RuntimeException("Invalid deposit amount");
-    }
+    AccountRules.checkDeposit(request.getAmount());
 
-    account.setBalance(account.getBalance() + request.getAmount());
+    balances.credit(account, request.getAmount());
 
     Transaction transaction = new Transaction("DEPOSIT", request.getAmount(),
-        account.getBalance(), "Deposit made");
+        balances.balanceOf(account), "Deposit made");
     account.addTransaction(transaction);
 
     transactionRepository.save(transaction);
     accountRepository.save(account);
 
-    return convertToDTO(account);
+    return refreshCache(account);
   }
 
   @Transactional
   public AccountDTO withdraw(TransactionRequest request) {
-    Account account = accountRepository.findByAccountNumber(request.getAccountNumber())
-        .orElseThrow(() -> new RuntimeException("Account not found"));
-
-    if (account.getLocked()) {
-      throw new RuntimeException("Account is locked");
-    }
-
-    if (request.getAmount() <= 0) {
-      throw new RuntimeException("Invalid withdrawal amount");
+    if (ledger.isPresent()) {
+      return ledger.get().withdraw(request.getAccountNumber(), request.getAmount());
     }
 
-    if ("SAVINGS".equals(account.getAccountType())) {
-      if (request.getAmount() > SAVINGS_WITHDRAW_LIMIT) {
-        throw new RuntimeException("Withdrawal limit exceeded (Max ₹" + SAVINGS_WITHDRAW_LIMIT + ")");
-      }
-      if (account.getBalance() - request.getAmount() < SAVINGS_MIN_BALANCE) {
-        throw new RuntimeException("Cannot withdraw! Minimum balance ₹" + SAVINGS_MIN_BALANCE + " must be maintained");
-      }
-    }
+    Account account = balances.find(request.getAccountNumber())
+        .orElseThrow(() -> new RuntimeException("Account not found"));
 
-    if (request.getAmount() > account.getBalance()) {
-      throw new RuntimeException("Insufficient balance");
-    }
+    AccountRules.checkWithdrawal(account.getAccountType(), account.getLocked(),
+        balances.balanceOf(account), request.getAmount());
 
-    account.setBalance(account.getBalance() - request.getAmount());
+    debitBalance(account, request.getAmount(), AccountRules.withdrawalFloor(account.getAccountType()),
+        () -> AccountRules.checkWithdrawal(account.getAccountType(), account.getLocked(),
+            balances.balanceOf(account), request.getAmount()));
 
     Transaction transaction = new Transaction("WITHDRAW", request.getAmount(),
-        account.getBalance(), "Withdrawal made");
+        balances.balanceOf(account), "Withdrawal made");
     account.addTransaction(transaction);
 
     transactionRepository.save(transaction);
     accountRepository.save(account);
 
-    return convertToDTO(account);
+    return refreshCache(account);
   }
 
   @Transactional
   public void transfer(TransactionRequest request) {
-    Account sourceAccount = accountRepository.findByAccountNumber(request.getAccountNumber())
+    AccountRules.checkDistinctAccounts(request.getAccountNumber(), request.getTargetAccountNumber());
+    if (ledger.isPresent()) {
+      ledger.get().transfer(request.getAccountNumber(), request.getTargetAccountNumber(), request.getAmount());
+      return;
+    }
+
+    // Both rows in one query: under the pessimistic strategy they are locked in a fixed order
+    Set<Integer> accountNumbers = Stream.of(request.getAccountNumber(), request.getTargetAccountNumber())
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+    Map<Integer, Account> accounts = balances.findAll(accountNumbers).stream()
+        .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+    Account sourceAccount = accounts.get(request.getAccountNumber());
+    if (sourceAccount == null) {
+      throw new RuntimeException("Source account not found");
+    }
+    Account targetAccount = accounts.get(request.getTargetAccountNumber());
+    if (targetAccount == null) {
+      throw new RuntimeException("Target account not found");
+    }
+
+    List<Transaction> transactions = moveFunds(sourceAccount, targetAccount, request.getAmount());
+
+    transactionRepository.saveAll(transactions);
+    accountRepository.save(sourceAccount);
+    accountRepository.save(targetAccount);
+    refreshCache(sourceAccount);
+    refreshCache(targetAccount);
+  }
+
+  /**
+   * Debit leg of a transfer, for callers that serialise work per account and
+   * credit the target separately. Checks the target exists before debiting.
+   */
+  @Transactional
+  public AccountDTO debitTransfer(Integer sourceNumber, Integer targetNumber, long amount) {
+    AccountRules.checkDistinctAccounts(sourceNumber, targetNumber);
+    Account source = balances.find(sourceNumber)
         .orElseThrow(() -> new RuntimeException("Source account not found"));
+    if (targetNumber == null || !accountRepository.existsByAccountNumber(targetNumber)) {
+      throw new RuntimeException("Target account not found");
+    }
+    return debit(source, targetNumber, amount);
+  }
 
-    Account targetAccount = accountRepository.findByAccountNumber(request.getTargetAccountNumber())
+  /**
+   * Debit leg for a target held in another database, whose existence the
+   * caller has already checked there.
+   */
+  @Transactional
+  public AccountDTO debitRemoteTransfer(Integer sourceNumber, Integer targetNumber, long amount) {
+    Account source = balances.find(sourceNumber)
+        .orElseThrow(() -> new RuntimeException("Source account not found"));
+    return debit(source, targetNumber, amount);
+  }
+
+  private AccountDTO debit(Account source, Integer targetNumber, long amount) {
+    AccountRules.checkTransfer(source.getLocked(), balances.balanceOf(source), amount);
+    debitBalance(source, amount, 0,
+        () -> AccountRules.checkTransfer(source.getLocked(), balances.balanceOf(source), amount));
+    return record(source, "TRANSFER_OUT", amount, "Transfer to account #" + targetNumber);
+  }
+
+  /** Credit leg matching {@link #debitTransfer}. */
+  @Transactional
+  public AccountDTO creditTransfer(Integer targetNumber, Integer sourceNumber, long amount) {
+    Account target = balances.find(targetNumber)
         .orElseThrow(() -> new RuntimeException("Target account not found"));
+    balances.credit(target, amount);
+    return record(target, "TRANSFER_IN", amount, "Transfer from account #" + sourceNumber);
+  }
+
+  /** Returns a debited amount to the source when the credit leg could not be applied. */
+  @Transactional
+  public AccountDTO reverseTransfer(Integer sourceNumber, Integer targetNumber, long amount) {
+    Account source = balances.find(sourceNumber)
+        .orElseThrow(() -> new RuntimeException("Source account not found"));
+    balances.credit(source, amount);
+    return record(source, "TRANSFER_REVERSAL", amount, "Reversal of transfer to account #" + targetNumber);
+  }
+
+  /**
+   * Debits through the concurrency strategy. A debit refused there (an atomic
+   * update that found less money than the earlier read) re-runs the caller's
+   * rule against the current balance, so the client gets the usual message.
+   */
+  private void debitBalance(Account account, long amount, long floor, Runnable recheck) {
+    if (!balances.debit(account, amount, floor)) {
+      recheck.run();
+      throw new BusinessRuleException(BusinessRuleException.Reason.INSUFFICIENT_BALANCE, "Insufficient balance");
+    }
+  }
+
+  // Records the row for a balance change that has just been applied
+  private AccountDTO record(Account account, String type, long amount, String description) {
+    Transaction transaction = new Transaction(type, amount, balances.balanceOf(account), description);
+    account.addTransaction(transaction);
+
+    transactionRepository.save(transaction);
+    accountRepository.save(account);
+    return refreshCache(account);
+  }
 
-    if (sourceAccount.getLocked()) {
-      throw new RuntimeException("Source account is locked");
+  /**
+   * Applies a list of transfers in order inside one database transaction. All
+   * referenced accounts are loaded with a single query. In ALL_OR_NOTHING mode
+   * the first failure rolls the batch back; in BEST_EFFORT mode failing items
+   * are reported and skipped.
+   */
+  @Transactional
+  public BatchTransferResponse transferBatch(BatchTransferRequest request) {
+    if (ledger.isPresent()) {
+      return ledger.get().transferBatch(request.getTransfers(), request.isAtomic());
     }
 
-    if (request.getAmount() <= 0) {
-      throw new RuntimeException("Invalid transfer amount");
+    List<TransactionRequest> transfers = request.getTransfers();
+    Set<Integer> accountNumbers = new HashSet<>();
+    for (TransactionRequest transfer : transfers) {
+      accountNumbers.add(transfer.getAccountNumber());
+      if (transfer.getTargetAccountNumber() != null) {
+        accountNumbers.add(transfer.getTargetAccountNumber());
+      }
+    }
+    Map<Integer, Account> accounts = balances.findAll(accountNumbers).stream()
+        .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+
+    List<Transaction> transactions = new ArrayList<>(transfers.size() * 2);
+    List<TransferResult> results = new ArrayList<>(transfers.size());
+    for (int i = 0; i < transfers.size(); i++) {
+      TransactionRequest transfer = transfers.get(i);
+      try {
+        AccountRules.checkDistinctAccounts(transfer.getAccountNumber(), transfer.getTargetAccountNumber());
+        Account source = accounts.get(transfer.getAccountNumber());
+        Account target = accounts.get(transfer.getTargetAccountNumber());
+        if (source == null) {
+          throw new RuntimeException("Source account not found");
+        }
+        if (target == null) {
+          throw new RuntimeException("Target account not found");
+        }
+        transactions.addAll(moveFunds(source, target, transfer.getAmount()));
+        results.add(TransferResult.of(i, transfer, TransferResult.SUCCESS, null));
+      } catch (RuntimeException e) {
+        if (request.isAtomic()) {
+          throw new BatchTransferException("Batch rolled back at transfer " + i + ": " + e.getMessage(),
+              BatchTransferResponse.rolledBack(transfers, i, e.getMessage()));
+        }
+        results.add(TransferResult.of(i, transfer, TransferResult.FAILED, e.getMessage()));
+      }
     }
 
-    if (request.getAmount() > sourceAccount.getBalance()) {
-      throw new RuntimeException("Insufficient balance");
+    transactionRepository.saveAll(transactions);
+    accounts.values().forEach(this::refreshCache);
+    return BatchTransferResponse.of(request.getMode(), results);
+  }
+
+  // Checks the transfer rules, then moves the funds; returns the two ledger rows
+  private List<Transaction> moveFunds(Account sourceAccount, Account targetAccount, long amount) {
+    AccountRules.checkTransfer(sourceAccount.getLocked(), balances.balanceOf(sourceAccount), amount);
+
+    if (!balances.transfer(sourceAccount, targetAccount, amount)) {
+      AccountRules.checkTransfer(sourceAccount.getLocked(), balances.balanceOf(sourceAccount), amount);
+      throw new BusinessRuleException(BusinessRuleException.Reason.INSUFFICIENT_BALANCE, "Insufficient balance");
     }
 
     // Debit from source
-    sourceAccount.setBalance(sourceAccount.getBalance() - request.getAmount());
-    Transaction debitTransaction = new Transaction("TRANSFER_OUT", request.getAmount(),
-        sourceAccount.getBalance(), "Transfer to account #" + targetAccount.getAccountNumber());
+    Transaction debitTransaction = new Transaction("TRANSFER_OUT", amount,
+        balances.balanceOf(sourceAccount), "Transfer to account #" + targetAccount.getAccountNumber());
     sourceAccount.addTransaction(debitTransaction);
 
     // Credit to target
-    targetAccount.setBalance(targetAccount.getBalance() + request.getAmount());
-    Transaction creditTransaction = new Transaction("TRANSFER_IN", request.getAmount(),
-        targetAccount.getBalance(), "Transfer from account #" + sourceAccount.getAccountNumber());
+    Transaction creditTransaction = new Transaction("TRANSFER_IN", amount,
+        balances.balanceOf(targetAccount), "Transfer from account #" + sourceAccount.getAccountNumber());
     targetAccount.addTransaction(creditTransaction);
 
-    transactionRepository.save(debitTransaction);
-    transactionRepository.save(creditTransaction);
-    accountRepository.save(sourceAccount);
-    accountRepository.save(targetAccount);
+    return List.of(debitTransaction, creditTransaction);
   }
 
   @Transactional
   public AccountDTO applyInterest(Integer accountNumber) {
-    Account account = accountRepository.findByAccountNumber(accountNumber)
-        .orElseThrow(() -> new RuntimeException("Account not found"));
-
-    if (!"SAVINGS".equals(account.getAccountType())) {
-      throw new RuntimeException("Interest only available for Savings Accounts");
+    if (ledger.isPresent()) {
+      return ledger.get().applyInterest(accountNumber);
     }
 
-    double monthlyRate = YEARLY_INTEREST / 12;
-    double interest = (account.getBalance() * monthlyRate) / 100;
+    Account account = balances.find(accountNumber)
+        .orElseThrow(() -> new RuntimeException("Account not found"));
+
+    AccountRules.checkInterestEligible(account.getAccountType());
+    long interest = AccountRules.monthlyInterest(balances.balanceOf(account));
 
-    account.setBalance(account.getBalance() + interest);
+    balances.credit(account, interest);
 
     Transaction transaction = new Transaction("INTEREST", interest,
-        account.getBalance(), "Monthly interest applied");
+        balances.balanceOf(account), "Monthly interest applied");
     account.addTransaction(transaction);
 
     transactionRepository.save(transaction);
     accountRepository.save(account);
 
-    return convertToDTO(account);
+    return refreshCache(account);
+  }
+
+  /**
+   * One page of an account's history, newest first. Pages are addressed by the
+   * (timestamp, id) of the previous page's last row rather than an offset, so
+   * every page is a bounded index range scan on (account_id, timestamp, id).
+   */
+  @Transactional(readOnly = true)
+  public TransactionPage getTransactions(Integer accountNumber, String cursor, int limit) {
+    Long accountId = accountRepository.findIdByAccountNumber(accountNumber)
+        .orElseThrow(() -> new RuntimeException("Account not found"));
+
+    int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    // One extra row tells us whether another page follows
+    Limit fetch = Limit.of(pageSize + 1);
+    List<TransactionView> rows;
+    if (cursor == null || cursor.isEmpty()) {
+      rows = transactionRepository.findLatest(accountId, fetch);
+    } else {
+      TransactionCursor position = TransactionCursor.decode(cursor);
+      rows = transactionRepository.findBefore(accountId, position.timestamp(), position.id(), fetch);
+    }
+
+    if (rows.size() <= pageSize) {
+      return new TransactionPage(rows, null);
+    }
+    List<TransactionView> page = rows.subList(0, pageSize);
+    TransactionView last = page.get(pageSize - 1);
+    return new TransactionPage(page, new TransactionCursor(last.getTimestamp(), last.getId()).encode());
+  }
+
+  /**
+   * Feeds the account's transactions with {@code from <= timestamp < to} to
+   * {@code sink}, oldest first, straight off a database cursor.
+   */
+  @Transactional(readOnly = true)
+  public void exportStatement(Integer accountNumber, LocalDateTime from, LocalDateTime to,
+      Consumer<StatementLine> sink) {
+    Long accountId = accountRepository.findIdByAccountNumber(accountNumber)
+        .orElseThrow(() -> new RuntimeException("Account not found"));
+    try (Stream<StatementLine> lines = transactionRepository.streamStatement(accountId, from, to)) {
+      lines.forEach(sink);
+    }
+  }
+
+  /**
+   * Balance movement over {@code from..to} (inclusive days), read from the
+   * daily rollups instead of the transaction history.
+   */
+  @Transactional(readOnly = true)
+  public AccountSummary getSummary(Integer accountNumber, LocalDate from, LocalDate to) {
+    if (from.isAfter(to)) {
+      throw new RuntimeException("'from' must not be after 'to'");
+    }
+    Long accountId = accountRepository.findIdByAccountNumber(accountNumber)
+        .orElseThrow(() -> new RuntimeException("Account not found"));
+
+    List<DailyBalance> days = dailyBalanceRepository.findByAccountIdAndDayBetweenOrderByDay(accountId, from, to);
+    long opening = days.isEmpty()
+        ? dailyBalanceRepository.findFirstByAccountIdAndDayBeforeOrderByDayDesc(accountId, from)
+            .map(DailyBalance::getClosingBalance).orElse(0L)
+        : days.get(0).getOpeningBalance();
+    long closing = days.isEmpty() ? opening : days.get(days.size() - 1).getClosingBalance();
+    long credits = 0;
+    long debits = 0;
+    long count = 0;
+    for (DailyBalance day : days) {
+      credits += day.getCredits();
+      debits += day.getDebits();
+      count += day.getTransactionCount();
+    }
+    return new AccountSummary(accountNumber, from, to, opening, closing, credits, debits, count, days);
   }
 
-  public List<Transaction> getTransactions(Integer accountNumber) {
+  /** Recomputes the account's daily rollups from its transactions; returns the number of days. */
+  @Transactional
+  public int rebuildDailyBalances(Integer accountNumber) {
     Account account = accountRepository.findByAccountNumber(accountNumber)
         .orElseThrow(() -> new RuntimeException("Account not found"));
-    return transactionRepository.findByAccountIdOrderByTimestampDesc(account.getId());
+    return rollups.rebuild(account.getId());
   }
 
   @Transactional
   public void changePassword(Integer accountNumber, String oldPassword, String newPassword) {
-    Account account = accountRepository.findByAccountNumber(accountNumber)
+    Account account = balances.find(accountNumber)
         .orElseThrow(() -> new RuntimeException("Account not found"));
 
     if (!account.getPassword().equals(oldPassword)) {
@@ -203,36 +472,82 @@ public class AccountService {
     accountRepository.save(account);
   }
 
+  /**
+   * Checks a password without writing on the common path: failures are
+   * counted by the {@link LoginAttemptTracker}, and the row is only updated
+   * when a failure is recorded, the account locks, or a recorded count is
+   * cleared.
+   */
   public boolean authenticate(Integer accountNumber, String password) {
     Account account = accountRepository.findByAccountNumber(accountNumber)
         .orElseThrow(() -> new RuntimeException("Account not found"));
 
     if (account.getLocked()) {
-      throw new RuntimeException("Account is locked");
+      throw new BusinessRuleException(BusinessRuleException.Reason.LOCKED, "Account is locked");
     }
 
     if (account.getPassword().equals(password)) {
-      account.setWrongAttempts(0);
-      accountRepository.save(account);
-      return true;
-    } else {
-      account.setWrongAttempts(account.getWrongAttempts() + 1);
-      if (account.getWrongAttempts() >= 3) {
-        account.setLocked(true);
-        accountRepository.save(account);
-        throw new RuntimeException("Account locked due to 3 wrong attempts");
+      loginAttempts.reset(accountNumber);
+      if (account.getWrongAttempts() != 0) {
+        accountRepository.updateWrongAttempts(accountNumber, 0, null, LocalDateTime.now());
       }
-      accountRepository.save(account);
-      throw new RuntimeException("Incorrect password. Attempts left: " + (3 - account.getWrongAttempts()));
+      return true;
     }
+
+    int attempts = loginAttempts.recordFailure(accountNumber, account.getWrongAttempts(),
+        account.getLastFailedLoginAt());
+    if (attempts >= MAX_LOGIN_ATTEMPTS) {
+      accountRepository.updateLockState(accountNumber, true, attempts, LocalDateTime.now());
+      aggregates.recordLocked();
+      loginAttempts.reset(accountNumber);
+      account.setLocked(true);
+      refreshCache(account);
+      ledger.ifPresent(engine -> engine.updateLockState(accountNumber, true));
+      throw new BusinessRuleException(BusinessRuleException.Reason.LOCKED, "Account locked due to 3 wrong attempts");
+    }
+    // Written before answering, so no restart hands out attempts the client was already told about
+    LocalDateTime now = LocalDateTime.now();
+    accountRepository.updateWrongAttempts(accountNumber, attempts, now, now);
+    throw new RuntimeException("Incorrect password. Attempts left: " + (MAX_LOGIN_ATTEMPTS - attempts));
   }
 
   private AccountDTO convertToDTO(Account account) {
     return new AccountDTO(
         account.getId(),
         account.getAccountNumber(),
-        account.getBalance(),
+        currentBalance(account.getAccountNumber(), balances.balanceOf(account)),
         account.getAccountType(),
         account.getLocked());
   }
+
+  // The cached copy becomes visible to readers only once the write commits
+  private AccountDTO refreshCache(Account account) {
+    AccountDTO dto = convertToDTO(account);
+    if (isHot(account.getAccountNumber())) {
+      // Credits to slots leave the row version alone, so it cannot order cache entries
+      accountCache.invalidateOnCompletion(account.getAccountNumber());
+    } else {
+      accountCache.refreshOnCommit(dto, account.getVersion() == null ? 0 : account.getVersion());
+    }
+    readYourWrites.ifPresent(reads -> reads.markWritten(account.getAccountNumber()));
+    return dto;
+  }
+
+  public CacheStats getCacheStats() {
+    return accountCache.stats();
+  }
+
+  private boolean isHot(Integer accountNumber) {
+    return hotAccounts.isPresent() && hotAccounts.get().isHot(accountNumber);
+  }
+
+  // A hot account keeps part of its balance in slot rows; the row and the slots are read in one statement
+  private long storedBalance(AccountDTO account) {
+    return isHot(account.getAccountNumber()) ? hotAccounts.get().totalBalance(account.getId()) : account.getBalance();
+  }
+
+  // With the ledger engine on, the database row may trail the in-memory balance
+  private long currentBalance(Integer accountNumber, long storedBalance) {
+    return ledger.isPresent() ? ledger.get().liveBalance(accountNumber, storedBalance) : storedBalance;
+  }
 }
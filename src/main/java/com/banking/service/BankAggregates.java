@@ -0,0 +1,271 @@
+package com.banking.service;
+
+import com.banking.dto.BankStats;
+import com.banking.money.Money;
+import com.banking.shard.ShardContext;
+import com.banking.shard.ShardMap;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bank-wide running totals for {@code GET /api/stats}. Committed transaction
+ * rows, as {@link TransactionRows} hands them over, feed striped
+ * {@link LongAdder}s, so concurrent writers do not contend on a shared
+ * counter, and transfers also land in a ring of per-second
+ * buckets covering the last minute. Reading is a fixed amount of work no
+ * matter how many accounts exist.
+ *
+ * <p>The totals are rebased on the database every
+ * {@code banking.stats.reconcile-interval}, which also seeds them at startup
+ * and corrects anything written behind the application's back.
+ */
+@Slf4j
+@Component
+public class BankAggregates implements TransactionRows.Consumer {
+
+  private static final int WINDOW_SECONDS = 60;
+
+  private static final String ACCOUNTS_BY_TYPE =
+      "select a.account_type, count(*), coalesce(sum(a.balance + (select coalesce(sum(s.balance), 0)"
+          + " from account_balance_slots s where s.account_id = a.id)), 0) from accounts a group by a.account_type";
+  private static final String LOCKED_ACCOUNTS = "select count(*) from accounts where locked = true";
+  private static final String DEPOSITS =
+      "select count(*), coalesce(sum(amount), 0) from transactions where type in ('DEPOSIT', 'INITIAL_DEPOSIT')";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectProvider<ShardMap> shards;
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "stats-reconcile");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final LongAdder depositCount = new LongAdder();
+  private final LongAdder depositTotal = new LongAdder();
+  private final LongAdder lockedAccounts = new LongAdder();
+  private final Map<String, LongAdder> balanceByType = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> accountsByType = new ConcurrentHashMap<>();
+  private final SecondBucket[] transfers = new SecondBucket[WINDOW_SECONDS];
+  private final Duration reconcileInterval;
+
+  private volatile LocalDateTime reconciledAt;
+  private volatile long corrections;
+
+  public BankAggregates(JdbcTemplate jdbcTemplate,
+      ObjectProvider<ShardMap> shards,
+      @Value("${banking.stats.reconcile-interval:5m}") Duration reconcileInterval) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.shards = shards;
+    for (int i = 0; i < transfers.length; i++) {
+      transfers[i] = new SecondBucket();
+    }
+    this.reconcileInterval = reconcileInterval;
+  }
+
+  // The first round seeds the totals from whatever the database already holds
+  @EventListener(ApplicationReadyEvent.class)
+  void startReconciling() {
+    scheduler.scheduleWithFixedDelay(this::reconcileQuietly, 0, reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  @Override
+  public void afterCommit(List<TransactionRows.Row> rows) {
+    long second = currentSecond();
+    for (TransactionRows.Row row : rows) {
+      long signed = AccountRules.signedAmount(row.type(), row.amount());
+      adder(balanceByType, row.accountType()).add(signed);
+      switch (row.type()) {
+        case "INITIAL_DEPOSIT" -> {
+          adder(accountsByType, row.accountType()).increment();
+          depositCount.increment();
+          depositTotal.add(row.amount());
+        }
+        case "DEPOSIT" -> {
+          depositCount.increment();
+          depositTotal.add(row.amount());
+        }
+        case "TRANSFER_OUT" -> transfers[slot(second)].add(second, row.amount());
+        default -> {
+        }
+      }
+    }
+  }
+
+  /** Counts an account that has just been locked; call after the change is committed. */
+  public void recordLocked() {
+    lockedAccounts.increment();
+  }
+
+  public BankStats snapshot() {
+    long nowSecond = currentSecond();
+    long count = 0;
+    long volume = 0;
+    List<BigDecimal> perSecond = new ArrayList<>(WINDOW_SECONDS);
+    for (long second = nowSecond - WINDOW_SECONDS + 1; second <= nowSecond; second++) {
+      SecondBucket bucket = transfers[slot(second)];
+      long bucketVolume = 0;
+      if (bucket.second == second) {
+        count += bucket.count.sum();
+        bucketVolume = bucket.amount.sum();
+      }
+      volume += bucketVolume;
+      perSecond.add(Money.toDecimal(bucketVolume));
+    }
+
+    Map<String, BigDecimal> balances = new TreeMap<>();
+    balanceByType.forEach((type, total) -> balances.put(type, Money.toDecimal(total.sum())));
+    Map<String, Long> accounts = new TreeMap<>();
+    accountsByType.forEach((type, total) -> accounts.put(type, total.sum()));
+    return new BankStats(depositTotal.sum(), depositCount.sum(), balances, accounts, lockedAccounts.sum(),
+        count, volume, perSecond, reconciledAt, corrections);
+  }
+
+  /**
+   * Rebases every total on the database. A total is only corrected when no
+   * commit touched it while the database was being read; otherwise it is left
+   * for the next round rather than overwritten with a value that is already
+   * stale.
+   */
+  public void reconcile() {
+    Map<String, long[]> byType = new TreeMap<>();
+    long[] deposits = new long[2];
+    long[] locked = new long[1];
+
+    long depositsBefore = depositTotal.sum();
+    long depositCountBefore = depositCount.sum();
+    long lockedBefore = lockedAccounts.sum();
+    Map<String, Long> balancesBefore = sums(balanceByType);
+    Map<String, Long> accountsBefore = sums(accountsByType);
+
+    forEachShard(() -> {
+      jdbcTemplate.query(ACCOUNTS_BY_TYPE, rs -> {
+        long[] totals = byType.computeIfAbsent(rs.getString(1), type -> new long[2]);
+        totals[0] += rs.getLong(2);
+        totals[1] += Money.fromDecimal(rs.getBigDecimal(3));
+      });
+      locked[0] += jdbcTemplate.queryForObject(LOCKED_ACCOUNTS, Long.class);
+      jdbcTemplate.query(DEPOSITS, rs -> {
+        deposits[0] += rs.getLong(1);
+        deposits[1] += Money.fromDecimal(rs.getBigDecimal(2));
+      });
+    });
+
+    int corrected = 0;
+    corrected += rebase(depositTotal, depositsBefore, deposits[1]);
+    corrected += rebase(depositCount, depositCountBefore, deposits[0]);
+    corrected += rebase(lockedAccounts, lockedBefore, locked[0]);
+    for (String type : union(byType.keySet(), balancesBefore.keySet())) {
+      long[] totals = byType.getOrDefault(type, new long[2]);
+      corrected += rebase(adder(accountsByType, type), accountsBefore.getOrDefault(type, 0L), totals[0]);
+      corrected += rebase(adder(balanceByType, type), balancesBefore.getOrDefault(type, 0L), totals[1]);
+    }
+
+    if (corrected > 0 && reconciledAt != null) {
+      log.info("Stats reconciliation corrected {} totals", corrected);
+    }
+    corrections += corrected;
+    reconciledAt = LocalDateTime.now();
+  }
+
+  private void reconcileQuietly() {
+    try {
+      reconcile();
+    } catch (Exception e) {
+      log.warn("Stats reconciliation failed", e);
+    }
+  }
+
+  private void forEachShard(Runnable work) {
+    ShardMap shardMap = shards.getIfAvailable();
+    if (shardMap == null) {
+      work.run();
+      return;
+    }
+    for (int shard = 0; shard < shardMap.count(); shard++) {
+      ShardContext.on(shard, () -> {
+        work.run();
+        return null;
+      });
+    }
+  }
+
+  // Moves the adder to the database value unless it changed since `before` was read
+  private static int rebase(LongAdder adder, long before, long actual) {
+    if (adder.sum() != before || before == actual) {
+      return 0;
+    }
+    adder.add(actual - before);
+    return 1;
+  }
+
+  private static Map<String, Long> sums(Map<String, LongAdder> adders) {
+    Map<String, Long> sums = new TreeMap<>();
+    adders.forEach((key, adder) -> sums.put(key, adder.sum()));
+    return sums;
+  }
+
+  private static List<String> union(Set<String> a, Set<String> b) {
+    Set<String> keys = new TreeSet<>(a);
+    keys.addAll(b);
+    return new ArrayList<>(keys);
+  }
+
+  private static LongAdder adder(Map<String, LongAdder> adders, String key) {
+    return adders.computeIfAbsent(key, k -> new LongAdder());
+  }
+
+  private static long currentSecond() {
+    return System.currentTimeMillis() / 1000;
+  }
+
+  private static int slot(long second) {
+    return (int) (second % WINDOW_SECONDS);
+  }
+
+  // One second of transfers; reused once the window has moved past it
+  private static final class SecondBucket {
+    volatile long second = -1;
+    final LongAdder count = new LongAdder();
+    final LongAdder amount = new LongAdder();
+
+    void add(long now, long value) {
+      if (second != now) {
+        synchronized (this) {
+          if (second != now) {
+            count.reset();
+            amount.reset();
+            second = now;
+          }
+        }
+      }
+      count.increment();
+      amount.add(value);
+    }
+  }
+}
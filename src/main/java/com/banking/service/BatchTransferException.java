@@ -0,0 +1,19 @@
+package com.banking.service;
+
+import com.banking.dto.BatchTransferResponse;
+import lombok.Getter;
+
+/**
+ * Thrown when an all-or-nothing batch fails; unwinding rolls back the batch
+ * transaction while still carrying a result for every item.
+ */
+@Getter
+public class BatchTransferException extends RuntimeException {
+
+  private final BatchTransferResponse response;
+
+  public BatchTransferException(String message, BatchTransferResponse response) {
+    super(message);
+    this.response = response;
+  }
+}
@@ -0,0 +1,28 @@
+package com.banking.service;
+
+import lombok.Getter;
+
+/**
+ * A request refused by an account rule rather than by a fault. The message is
+ * what the client sees; the reason is a stable label for metrics.
+ */
+@Getter
+public class BusinessRuleException extends RuntimeException {
+
+  public enum Reason {
+    INVALID_AMOUNT,
+    INSUFFICIENT_BALANCE,
+    MINIMUM_BALANCE,
+    LIMIT_EXCEEDED,
+    LOCKED,
+    NOT_ELIGIBLE,
+    SAME_ACCOUNT
+  }
+
+  private final Reason reason;
+
+  public BusinessRuleException(Reason reason, String message) {
+    super(message);
+    this.reason = reason;
+  }
+}
@@ -0,0 +1,155 @@
+package com.banking.service;
+
+import com.banking.money.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps {@code daily_balance_rollups} current. Just before a database
+ * transaction commits, the transaction rows {@link TransactionRows} collected
+ * in it are folded into one row per account and day: an UPDATE that adds to
+ * the day's totals and moves its closing balance by the net amount, or an
+ * INSERT for the first movement of the day. Only the opening balance is
+ * taken from a transaction row's final balance, so commits that overlap may
+ * apply in any order. The rollups therefore commit or roll back together
+ * with the transactions they summarise.
+ */
+@Slf4j
+@Component
+public class DailyBalanceRollups implements TransactionRows.Consumer {
+
+  private static final String ADD_TO_DAY =
+      "update daily_balance_rollups set closing_balance = closing_balance + ?, credits = credits + ?, debits = debits + ?,"
+          + " transaction_count = transaction_count + ? where account_id = ? and balance_date = ?";
+  private static final String INSERT_DAY =
+      "insert into daily_balance_rollups (account_id, balance_date, opening_balance, closing_balance,"
+          + " credits, debits, transaction_count) values (?, ?, ?, ?, ?, ?, ?)";
+  private static final String DELETE_ACCOUNT = "delete from daily_balance_rollups where account_id = ?";
+  private static final String LOCK_ACCOUNT = "select id from accounts where id = ? for update";
+  private static final String ACCOUNT_HISTORY =
+      "select type, amount, final_balance, timestamp from transactions where account_id = ? order by timestamp, id";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public DailyBalanceRollups(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void beforeCommit(List<TransactionRows.Row> rows) {
+    Map<Key, Day> days = new TreeMap<>();
+    for (TransactionRows.Row row : rows) {
+      days.computeIfAbsent(new Key(row.accountId(), row.timestamp().toLocalDate()), key -> new Day())
+          .add(row.type(), row.amount(), row.finalBalance());
+    }
+    apply(days);
+  }
+
+  /**
+   * Recomputes every rollup row of one account from its transactions. Must
+   * run inside a transaction; the account row is locked so that writers
+   * cannot interleave with the rebuild.
+   */
+  public int rebuild(long accountId) {
+    jdbcTemplate.queryForList(LOCK_ACCOUNT, Long.class, accountId);
+    jdbcTemplate.update(DELETE_ACCOUNT, accountId);
+
+    Map<Key, Day> days = new TreeMap<>();
+    jdbcTemplate.query(ACCOUNT_HISTORY, rs -> {
+      Key key = new Key(accountId, rs.getTimestamp("timestamp").toLocalDateTime().toLocalDate());
+      days.computeIfAbsent(key, k -> new Day()).add(rs.getString("type"),
+          Money.fromDecimal(rs.getBigDecimal("amount")), Money.fromDecimal(rs.getBigDecimal("final_balance")));
+    }, accountId);
+    insert(new ArrayList<>(days.entrySet()));
+    return days.size();
+  }
+
+  private void apply(Map<Key, Day> days) {
+    // Key order keeps concurrent commits from locking the same rows in opposite orders
+    List<Map.Entry<Key, Day>> entries = new ArrayList<>(days.entrySet());
+    int[][] updated = jdbcTemplate.batchUpdate(ADD_TO_DAY, entries, entries.size(), (ps, entry) -> {
+      Day day = entry.getValue();
+      ps.setBigDecimal(1, Money.toDecimal(day.credits - day.debits));
+      ps.setBigDecimal(2, Money.toDecimal(day.credits));
+      ps.setBigDecimal(3, Money.toDecimal(day.debits));
+      ps.setInt(4, day.count);
+      ps.setLong(5, entry.getKey().accountId());
+      ps.setDate(6, Date.valueOf(entry.getKey().day()));
+    });
+
+    // Rare (once per account and day), so inserted one by one: a failed row in a batch would not stop the rest
+    for (int i = 0; i < entries.size(); i++) {
+      if (updated[0][i] == 0) {
+        insertOrAdd(entries.get(i).getKey(), entries.get(i).getValue());
+      }
+    }
+  }
+
+  private void insertOrAdd(Key key, Day day) {
+    try {
+      jdbcTemplate.update(INSERT_DAY, key.accountId(), Date.valueOf(key.day()), Money.toDecimal(day.opening),
+          Money.toDecimal(day.closing), Money.toDecimal(day.credits), Money.toDecimal(day.debits), day.count);
+    } catch (DuplicateKeyException e) {
+      // Another commit created the day first; add to its row instead
+      log.debug("Daily rollup row created concurrently, retrying as an update");
+      jdbcTemplate.update(ADD_TO_DAY, Money.toDecimal(day.credits - day.debits), Money.toDecimal(day.credits),
+          Money.toDecimal(day.debits), day.count, key.accountId(), Date.valueOf(key.day()));
+    }
+  }
+
+  private void insert(List<Map.Entry<Key, Day>> entries) {
+    jdbcTemplate.batchUpdate(INSERT_DAY, entries, Math.max(entries.size(), 1), (ps, entry) -> {
+      Day day = entry.getValue();
+      ps.setLong(1, entry.getKey().accountId());
+      ps.setDate(2, Date.valueOf(entry.getKey().day()));
+      ps.setBigDecimal(3, Money.toDecimal(day.opening));
+      ps.setBigDecimal(4, Money.toDecimal(day.closing));
+      ps.setBigDecimal(5, Money.toDecimal(day.credits));
+      ps.setBigDecimal(6, Money.toDecimal(day.debits));
+      ps.setInt(7, day.count);
+    });
+  }
+
+  private record Key(long accountId, LocalDate day) implements Comparable<Key> {
+    private static final Comparator<Key> ORDER =
+        Comparator.comparingLong(Key::accountId).thenComparing(Key::day);
+
+    @Override
+    public int compareTo(Key other) {
+      return ORDER.compare(this, other);
+    }
+  }
+
+  private static final class Day {
+    long opening;
+    long closing;
+    long credits;
+    long debits;
+    int count;
+
+    void add(String type, long amount, long finalBalance) {
+      long signed = AccountRules.signedAmount(type, amount);
+      if (count == 0) {
+        opening = finalBalance - signed;
+        closing = opening;
+      }
+      closing += signed;
+      if (signed < 0) {
+        debits -= signed;
+      } else {
+        credits += signed;
+      }
+      count++;
+    }
+  }
+}
@@ -0,0 +1,351 @@
+package com.banking.service;
+
+import com.banking.entity.IdempotencyRecord;
+import com.banking.repository.IdempotencyRecordRepository;
+import com.banking.shard.ShardContext;
+import com.banking.shard.ShardMap;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the successful response to each {@code Idempotency-Key} so a
+ * retried request gets the original answer instead of moving money again.
+ *
+ * <p>Keys live in bounded LRU segments for {@code banking.idempotency.ttl}.
+ * The first request for a key registers a pending future; duplicates that
+ * arrive while it runs wait on that future rather than running twice. Each
+ * finished response is also saved to {@code idempotency_keys}, which answers
+ * keys evicted from memory or remembered across a restart.
+ *
+ * <p>While a keyed request runs, the first read-write transaction it begins
+ * also inserts the key, as a claim without a response, so the key commits
+ * with the money movement. A retry after a crash between that commit and the
+ * saved response finds the claim and is refused instead of moving money
+ * again. Work handed to another thread carries the claim along through
+ * {@link #propagate}.
+ *
+ * <p>With {@code banking.shards.enabled} the claim commits on the shard the
+ * money moved on, while responses are saved on shard 0, so keys are looked
+ * up, released and purged on every shard.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore implements TransactionExecutionListener {
+
+  /** A response as sent: status code and JSON body. */
+  public record StoredResponse(int status, String body) {
+
+    boolean successful() {
+      return status >= 200 && status < 300;
+    }
+  }
+
+  /** Thrown when a key comes back with a different request than it was first used for. */
+  public static class KeyReusedException extends RuntimeException {
+    public KeyReusedException() {
+      super("Idempotency-Key was already used for a different request");
+    }
+  }
+
+  /** The response for a request, and whether it was replayed from an earlier one. */
+  public record Outcome(StoredResponse response, boolean replayed) {
+  }
+
+  private static final int SEGMENTS = 16;
+  private static final int CLAIMED = 0;
+  private static final StoredResponse RESPONSE_LOST = new StoredResponse(409,
+      "{\"error\":\"Request with this Idempotency-Key was already applied, but its response was not saved\"}");
+  private static final ThreadLocal<Claim> CURRENT = new ThreadLocal<>();
+
+  private final IdempotencyRecordRepository repository;
+  private final ObjectProvider<ShardMap> shards;
+  private final long ttlNanos;
+  private final Duration ttl;
+  private final Segment[] segments = new Segment[SEGMENTS];
+  private final ScheduledExecutorService purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "idempotency-purge");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public IdempotencyStore(IdempotencyRecordRepository repository,
+      ObjectProvider<ShardMap> shards,
+      @Value("${banking.idempotency.max-entries:100000}") int maxEntries,
+      @Value("${banking.idempotency.ttl:24h}") Duration ttl,
+      @Value("${banking.idempotency.purge-interval:1h}") Duration purgeInterval) {
+    this.repository = repository;
+    this.shards = shards;
+    this.ttl = ttl;
+    this.ttlNanos = ttl.toNanos();
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment(Math.max(1, maxEntries / SEGMENTS));
+    }
+    purger.scheduleWithFixedDelay(this::purgeExpired, purgeInterval.toMillis(), purgeInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    purger.shutdownNow();
+  }
+
+  /**
+   * Runs {@code action} once per key. Later calls with the same key get the
+   * first call's response, waiting for it if it is still running. A key
+   * reused with a different {@code fingerprint} is refused.
+   */
+  public CompletableFuture<Outcome> execute(String key, String fingerprint,
+      Supplier<CompletableFuture<StoredResponse>> action) {
+    Segment segment = segmentFor(key);
+    Entry entry;
+    boolean first;
+    synchronized (segment) {
+      entry = segment.entries.get(key);
+      if (entry != null && System.nanoTime() - entry.createdAt > ttlNanos) {
+        segment.entries.remove(key);
+        entry = null;
+      }
+      first = entry == null;
+      if (first) {
+        entry = new Entry(fingerprint);
+        segment.entries.put(key, entry);
+      }
+    }
+
+    if (!first) {
+      return replay(entry, fingerprint);
+    }
+
+    Optional<IdempotencyRecord> persisted = find(key)
+        .filter(record -> record.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl)));
+    if (persisted.isPresent()) {
+      IdempotencyRecord record = persisted.get();
+      entry.fingerprint = record.getFingerprint();
+      entry.response.complete(record.getStatus() == CLAIMED ? RESPONSE_LOST
+          : new StoredResponse(record.getStatus(), record.getBody()));
+      return replay(entry, fingerprint);
+    }
+
+    Entry owned = entry;
+    Claim claim = new Claim(key, fingerprint);
+    CompletableFuture<StoredResponse> running;
+    try {
+      running = bound(claim, action);
+    } catch (RuntimeException e) {
+      running = CompletableFuture.failedFuture(e);
+    }
+    return running.handle((response, failure) -> {
+      if (failure != null) {
+        // Nothing was answered; let a retry run the request again, unless a claim committed
+        forget(key, owned);
+        owned.response.completeExceptionally(failure);
+        throw failure instanceof RuntimeException ? (RuntimeException) failure : new IllegalStateException(failure);
+      }
+      if (response.successful()) {
+        save(key, fingerprint, response);
+      } else {
+        // Rejections are not remembered: the retry may succeed once the cause is fixed
+        forget(key, owned);
+        if (claim.committed()) {
+          // Whatever committed with the claim was undone before the request was refused
+          release(key);
+        }
+      }
+      owned.response.complete(response);
+      return new Outcome(response, false);
+    });
+  }
+
+  /**
+   * {@code operation} bound to the calling thread's claim, if any, for work
+   * that runs on another thread.
+   */
+  public <T> Supplier<T> propagate(Supplier<T> operation) {
+    Claim claim = CURRENT.get();
+    return claim == null ? operation : () -> bound(claim, operation);
+  }
+
+  @Override
+  public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+    Claim claim = CURRENT.get();
+    if (claim == null || beginFailure != null || transaction.isReadOnly() || !claim.attach()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void beforeCommit(boolean readOnly) {
+        repository.save(new IdempotencyRecord(claim.key, claim.fingerprint, CLAIMED, "", LocalDateTime.now()));
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        claim.detach(status == STATUS_COMMITTED);
+      }
+    });
+  }
+
+  private static <T> T bound(Claim claim, Supplier<T> operation) {
+    Claim outer = CURRENT.get();
+    CURRENT.set(claim);
+    try {
+      return operation.get();
+    } finally {
+      if (outer == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(outer);
+      }
+    }
+  }
+
+  private CompletableFuture<Outcome> replay(Entry entry, String fingerprint) {
+    if (!entry.fingerprint.equals(fingerprint)) {
+      return CompletableFuture.failedFuture(new KeyReusedException());
+    }
+    return entry.response.thenApply(response -> new Outcome(response, true));
+  }
+
+  private void save(String key, String fingerprint, StoredResponse response) {
+    try {
+      repository.save(new IdempotencyRecord(key, fingerprint, response.status(), response.body(),
+          LocalDateTime.now()));
+    } catch (RuntimeException e) {
+      // The in-memory entry still dedupes, and a committed claim still refuses a re-run
+      log.warn("Could not persist idempotency key {}", key, e);
+    }
+  }
+
+  // A saved response wins over the claim left on an account's shard
+  private Optional<IdempotencyRecord> find(String key) {
+    return onEveryShard(() -> repository.findById(key)).stream()
+        .flatMap(Optional::stream)
+        .max(Comparator.comparing(record -> record.getStatus() != CLAIMED));
+  }
+
+  private void release(String key) {
+    try {
+      onEveryShard(() -> {
+        repository.deleteById(key);
+        return null;
+      });
+    } catch (RuntimeException e) {
+      log.warn("Could not release idempotency key {}", key, e);
+    }
+  }
+
+  private void forget(String key, Entry entry) {
+    Segment segment = segmentFor(key);
+    synchronized (segment) {
+      segment.entries.remove(key, entry);
+    }
+  }
+
+  private void purgeExpired() {
+    try {
+      LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+      int deleted = onEveryShard(() -> repository.deleteCreatedBefore(cutoff)).stream()
+          .mapToInt(Integer::intValue)
+          .sum();
+      if (deleted > 0) {
+        log.info("Purged {} expired idempotency keys", deleted);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Idempotency key purge failed", e);
+    }
+  }
+
+  private <T> List<T> onEveryShard(Supplier<T> work) {
+    ShardMap shardMap = shards.getIfAvailable();
+    if (shardMap == null) {
+      return List.of(work.get());
+    }
+    List<T> results = new ArrayList<>(shardMap.count());
+    for (int shard = 0; shard < shardMap.count(); shard++) {
+      results.add(ShardContext.on(shard, work::get));
+    }
+    return results;
+  }
+
+  private Segment segmentFor(String key) {
+    int h = key.hashCode();
+    return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+  }
+
+  private static final class Entry {
+    final long createdAt = System.nanoTime();
+    final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+    volatile String fingerprint;
+
+    Entry(String fingerprint) {
+      this.fingerprint = fingerprint;
+    }
+  }
+
+  /**
+   * A keyed request in progress. The first read-write transaction that begins
+   * while it is bound attaches to it; if that transaction rolls back, the next
+   * one may attach instead.
+   */
+  private static final class Claim {
+    static final int FREE = 0;
+    static final int ATTACHED = 1;
+    static final int COMMITTED = 2;
+
+    final String key;
+    final String fingerprint;
+    final AtomicInteger state = new AtomicInteger(FREE);
+
+    Claim(String key, String fingerprint) {
+      this.key = key;
+      this.fingerprint = fingerprint;
+    }
+
+    boolean attach() {
+      return state.compareAndSet(FREE, ATTACHED);
+    }
+
+    void detach(boolean committed) {
+      state.set(committed ? COMMITTED : FREE);
+    }
+
+    boolean committed() {
+      return state.get() == COMMITTED;
+    }
+  }
+
+  private static final class Segment {
+    final LinkedHashMap<String, Entry> entries;
+
+    Segment(int capacity) {
+      this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+          // Never evict a request that is still running; duplicates may be waiting on it
+          return size() > capacity && eldest.getValue().response.isDone();
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,310 @@
+package com.banking.service;
+
+import com.banking.dto.InterestRunStatus;
+import com.banking.entity.InterestRun;
+import com.banking.entity.InterestRunPartition;
+import com.banking.entity.Transaction;
+import com.banking.ledger.LedgerEngine;
+import com.banking.money.Money;
+import com.banking.repository.EntityIdAllocator;
+import com.banking.repository.InterestRunPartitionRepository;
+import com.banking.repository.InterestRunRepository;
+import com.banking.shard.ShardMap;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Month-end interest for every savings account. SAVINGS accounts are split
+ * into id ranges, the ranges are applied in parallel on a bounded pool, and
+ * each range commits its balance updates, INTEREST rows, daily rollups and
+ * checkpoint together through JDBC batches. Starting a run for a period that did not
+ * finish resumes it from the remaining partitions.
+ */
+@Slf4j
+@Service
+public class InterestRunService {
+
+  private static final String SELECT_PARTITION =
+      "select a.id, a.account_number, a.balance, (select coalesce(sum(s.balance), 0) from account_balance_slots s"
+          + " where s.account_id = a.id) as slot_balance"
+          + " from accounts a where a.account_type = 'SAVINGS' and a.id between ? and ? for update";
+  private static final String UPDATE_BALANCE =
+      "update accounts set balance = ?, version = version + 1, updated_at = ? where id = ?";
+  private static final String INSERT_INTEREST =
+      "insert into transactions (id, type, amount, final_balance, timestamp, description, account_id)"
+          + " values (?, 'INTEREST', ?, ?, ?, 'Monthly interest applied', ?)";
+  private static final String COMPLETE_PARTITION =
+      "update interest_run_partitions set status = 'COMPLETED', accounts_processed = ?, completed_at = ?"
+          + " where id = ? and status = 'PENDING'";
+  private static final String ADVANCE_RUN =
+      "update interest_runs set completed_partitions = completed_partitions + 1,"
+          + " accounts_processed = accounts_processed + ? where id = ?";
+
+  private final InterestRunRepository runRepository;
+  private final InterestRunPartitionRepository partitionRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Optional<LedgerEngine> ledger;
+  private final Optional<ShardMap> shards;
+  private final AccountCache accountCache;
+  private final TransactionRows transactionRows;
+  private final EntityIdAllocator idAllocator;
+  private final int partitionSize;
+  private final int batchSize;
+  private final ThreadPoolExecutor workers;
+  private final ExecutorService coordinator = Executors.newSingleThreadExecutor(
+      runnable -> new Thread(runnable, "interest-run-coordinator"));
+  private final Map<Long, ActiveRun> activeRuns = new ConcurrentHashMap<>();
+
+  public InterestRunService(InterestRunRepository runRepository,
+      InterestRunPartitionRepository partitionRepository,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      Optional<LedgerEngine> ledger,
+      Optional<ShardMap> shards,
+      AccountCache accountCache,
+      TransactionRows transactionRows,
+      EntityIdAllocator idAllocator,
+      @Value("${banking.interest.partition-size:1000}") int partitionSize,
+      @Value("${banking.interest.batch-size:500}") int batchSize,
+      @Value("${banking.interest.parallelism:4}") int parallelism) {
+    this.runRepository = runRepository;
+    this.partitionRepository = partitionRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.ledger = ledger;
+    this.shards = shards;
+    this.accountCache = accountCache;
+    this.transactionRows = transactionRows;
+    this.idAllocator = idAllocator;
+    this.partitionSize = partitionSize;
+    this.batchSize = batchSize;
+
+    AtomicInteger threadNumber = new AtomicInteger();
+    // Bounded queue with caller-runs: the coordinator slows down instead of queueing every partition
+    this.workers = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(parallelism * 2),
+        runnable -> new Thread(runnable, "interest-run-" + threadNumber.incrementAndGet()),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  @PreDestroy
+  void shutdown() {
+    coordinator.shutdownNow();
+    workers.shutdownNow();
+  }
+
+  /**
+   * Starts the run for {@code period}, or resumes it if an earlier attempt
+   * stopped before finishing. Returns immediately; poll {@link #getStatus}.
+   */
+  public synchronized InterestRunStatus start(YearMonth period) {
+    if (ledger.isPresent()) {
+      throw new RuntimeException("Bulk interest runs are not available while the ledger engine is enabled");
+    }
+    if (shards.isPresent()) {
+      throw new RuntimeException("Bulk interest runs are not available while sharding is enabled");
+    }
+
+    InterestRun run = runRepository.findByPeriod(period.toString()).orElse(null);
+    if (run != null && "COMPLETED".equals(run.getStatus())) {
+      throw new RuntimeException("Interest already applied for " + period);
+    }
+    if (run != null && activeRuns.containsKey(run.getId())) {
+      return getStatus(run.getId());
+    }
+    if (run == null) {
+      run = createRun(period);
+    } else {
+      log.info("Resuming interest run {} for {} at partition {}/{}", run.getId(), period,
+          run.getCompletedPartitions(), run.getTotalPartitions());
+      run.setStatus("RUNNING");
+      run.setError(null);
+      run = runRepository.save(run);
+    }
+
+    ActiveRun active = new ActiveRun(run.getId(), System.nanoTime());
+    activeRuns.put(run.getId(), active);
+    coordinator.execute(() -> execute(active));
+    return getStatus(run.getId());
+  }
+
+  public InterestRunStatus getStatus(Long runId) {
+    InterestRun run = runRepository.findById(runId)
+        .orElseThrow(() -> new RuntimeException("Interest run not found"));
+
+    ActiveRun active = activeRuns.get(runId);
+    long elapsedNanos;
+    long processed;
+    if (active != null) {
+      elapsedNanos = System.nanoTime() - active.startedNanos;
+      processed = active.processed.get();
+    } else {
+      LocalDateTime end = run.getFinishedAt() != null ? run.getFinishedAt() : LocalDateTime.now();
+      elapsedNanos = Duration.between(run.getStartedAt(), end).toNanos();
+      processed = run.getAccountsProcessed();
+    }
+    double seconds = Math.max(elapsedNanos / 1e9, 1e-3);
+    double percent = run.getTotalPartitions() == 0 ? 100.0
+        : 100.0 * run.getCompletedPartitions() / run.getTotalPartitions();
+
+    return new InterestRunStatus(run.getId(), run.getPeriod(), run.getStatus(), run.getTotalPartitions(),
+        run.getCompletedPartitions(), run.getAccountsProcessed(), percent, processed / seconds,
+        (long) seconds, run.getError());
+  }
+
+  private InterestRun createRun(YearMonth period) {
+    return transactionTemplate.execute(status -> {
+      Map<String, Object> bounds = jdbcTemplate.queryForMap(
+          "select min(id) as min_id, max(id) as max_id from accounts where account_type = 'SAVINGS'");
+      Number minId = (Number) bounds.get("min_id");
+      Number maxId = (Number) bounds.get("max_id");
+
+      List<InterestRunPartition> partitions = new ArrayList<>();
+      if (minId != null) {
+        for (long from = minId.longValue(); from <= maxId.longValue(); from += partitionSize) {
+          InterestRunPartition partition = new InterestRunPartition();
+          partition.setPartitionNo(partitions.size());
+          partition.setFromId(from);
+          partition.setToId(Math.min(from + partitionSize - 1, maxId.longValue()));
+          partitions.add(partition);
+        }
+      }
+
+      InterestRun run = new InterestRun();
+      run.setPeriod(period.toString());
+      run.setStatus("RUNNING");
+      run.setTotalPartitions(partitions.size());
+      run.setStartedAt(LocalDateTime.now());
+      run = runRepository.save(run);
+
+      for (InterestRunPartition partition : partitions) {
+        partition.setRunId(run.getId());
+      }
+      partitionRepository.saveAll(partitions);
+      log.info("Created interest run {} for {} with {} partitions", run.getId(), period, partitions.size());
+      return run;
+    });
+  }
+
+  private void execute(ActiveRun active) {
+    List<InterestRunPartition> pending =
+        partitionRepository.findByRunIdAndStatusOrderByPartitionNo(active.runId, "PENDING");
+    List<Future<?>> futures = new ArrayList<>(pending.size());
+    String error = null;
+    try {
+      for (InterestRunPartition partition : pending) {
+        futures.add(workers.submit(() -> applyPartition(active, partition)));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      error = "Interrupted";
+    } catch (Exception e) {
+      log.error("Interest run {} failed", active.runId, e);
+      error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+      futures.forEach(future -> future.cancel(false));
+    }
+
+    String failure = error;
+    runRepository.findById(active.runId).ifPresent(run -> {
+      run.setStatus(failure == null ? "COMPLETED" : "FAILED");
+      run.setError(failure);
+      run.setFinishedAt(LocalDateTime.now());
+      runRepository.save(run);
+    });
+    activeRuns.remove(active.runId);
+
+    double seconds = Math.max((System.nanoTime() - active.startedNanos) / 1e9, 1e-3);
+    log.info("Interest run {} {} after {} accounts in {}s ({} accounts/s)", active.runId,
+        failure == null ? "completed" : "failed", active.processed.get(), String.format("%.1f", seconds),
+        String.format("%.0f", active.processed.get() / seconds));
+  }
+
+  private void applyPartition(ActiveRun active, InterestRunPartition partition) {
+    int applied = transactionTemplate.execute(status -> {
+      List<Object[]> balanceUpdates = new ArrayList<>();
+      List<Object[]> interestRows = new ArrayList<>();
+      Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+      jdbcTemplate.query(SELECT_PARTITION, rs -> {
+        long accountId = rs.getLong("id");
+        long balance = Money.fromDecimal(rs.getBigDecimal("balance"));
+        // A hot account holds part of its balance in slot rows; interest goes onto the account row
+        long total = Money.add(balance, Money.fromDecimal(rs.getBigDecimal("slot_balance")));
+        long interest = AccountRules.monthlyInterest(total);
+        long finalBalance = Money.add(total, interest);
+        balanceUpdates.add(new Object[] {Money.add(balance, interest), now, accountId});
+        interestRows.add(new Object[] {interest, finalBalance, now, accountId, rs.getInt("account_number")});
+      }, partition.getFromId(), partition.getToId());
+
+      jdbcTemplate.batchUpdate(UPDATE_BALANCE, balanceUpdates, batchSize, (ps, row) -> {
+        ps.setBigDecimal(1, Money.toDecimal((Long) row[0]));
+        ps.setTimestamp(2, (Timestamp) row[1]);
+        ps.setLong(3, (Long) row[2]);
+      });
+      long[] ids = idAllocator.next(Transaction.class, interestRows.size());
+      AtomicInteger next = new AtomicInteger();
+      jdbcTemplate.batchUpdate(INSERT_INTEREST, interestRows, batchSize, (ps, row) -> {
+        ps.setLong(1, ids[next.getAndIncrement()]);
+        ps.setBigDecimal(2, Money.toDecimal((Long) row[0]));
+        ps.setBigDecimal(3, Money.toDecimal((Long) row[1]));
+        ps.setTimestamp(4, (Timestamp) row[2]);
+        ps.setLong(5, (Long) row[3]);
+      });
+      for (int i = 0; i < interestRows.size(); i++) {
+        Object[] row = interestRows.get(i);
+        transactionRows.record(new TransactionRows.Row(ids[i], (Long) row[3], (Integer) row[4], "SAVINGS",
+            "INTEREST", (Long) row[0], (Long) row[1], ((Timestamp) row[2]).toLocalDateTime()));
+      }
+
+      int marked = jdbcTemplate.update(COMPLETE_PARTITION, balanceUpdates.size(), now, partition.getId());
+      if (marked == 0) {
+        // Another attempt already completed this range; undo our writes
+        status.setRollbackOnly();
+        return 0;
+      }
+      jdbcTemplate.update(ADVANCE_RUN, balanceUpdates.size(), active.runId);
+      return balanceUpdates.size();
+    });
+    active.processed.addAndGet(applied);
+    // Balances in the range changed behind the cache's back
+    accountCache.clear();
+  }
+
+  private static final class ActiveRun {
+    final Long runId;
+    final long startedNanos;
+    final AtomicLong processed = new AtomicLong();
+
+    ActiveRun(Long runId, long startedNanos) {
+      this.runId = runId;
+      this.startedNanos = startedNanos;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.banking.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Failed-login counts held in memory, so a successful login does not write
+ * to the database. Each account's state is one {@link AtomicLong} packing the
+ * failure count (high 16 bits) and the time of the last failure (low 48 bits,
+ * epoch millis), updated by compare-and-set. A count decays to zero once
+ * {@code banking.login.attempt-window} passes without a failure.
+ *
+ * <p>Memory is not the record: {@link AccountService#authenticate} writes
+ * every failure that does not lock the account to {@code Account.wrongAttempts},
+ * with its time in {@code Account.lastFailedLoginAt}, before answering. A
+ * restart, however abrupt, therefore resumes from the last failure reported
+ * to a client.
+ */
+@Component
+public class LoginAttemptTracker {
+
+  private static final int SHARDS = 16;
+  private static final long TIME_MASK = (1L << 48) - 1;
+
+  private final long windowMillis;
+  @SuppressWarnings("unchecked")
+  private final Map<Integer, AtomicLong>[] shards = new Map[SHARDS];
+  private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "login-attempt-sweeper");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public LoginAttemptTracker(@Value("${banking.login.attempt-window:15m}") Duration attemptWindow) {
+    this.windowMillis = attemptWindow.toMillis();
+    for (int i = 0; i < SHARDS; i++) {
+      shards[i] = new ConcurrentHashMap<>();
+    }
+    sweeper.scheduleWithFixedDelay(this::purgeExpired, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Counts a failure and returns the failures now on record. The first
+   * failure after a restart continues from {@code persistedAttempts}, whose
+   * last failure was at {@code lastFailureAt}; without that time the count
+   * starts over.
+   */
+  public int recordFailure(Integer accountNumber, int persistedAttempts, LocalDateTime lastFailureAt) {
+    long seed = lastFailureAt == null ? pack(0, System.currentTimeMillis())
+        : pack(persistedAttempts, lastFailureAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    AtomicLong cell = shard(accountNumber).computeIfAbsent(accountNumber, key -> new AtomicLong(seed));
+
+    long now = System.currentTimeMillis();
+    while (true) {
+      long current = cell.get();
+      int count = expired(current, now) ? 0 : count(current);
+      int next = Math.min(count + 1, 0xFFFF);
+      if (cell.compareAndSet(current, pack(next, now))) {
+        return next;
+      }
+    }
+  }
+
+  /** Forgets the account's failures without touching the database. */
+  public void reset(Integer accountNumber) {
+    shard(accountNumber).remove(accountNumber);
+  }
+
+  public int attempts(Integer accountNumber) {
+    AtomicLong cell = shard(accountNumber).get(accountNumber);
+    if (cell == null) {
+      return 0;
+    }
+    long state = cell.get();
+    return expired(state, System.currentTimeMillis()) ? 0 : count(state);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    sweeper.shutdownNow();
+  }
+
+  private void purgeExpired() {
+    long now = System.currentTimeMillis();
+    for (Map<Integer, AtomicLong> shard : shards) {
+      shard.entrySet().removeIf(entry -> expired(entry.getValue().get(), now));
+    }
+  }
+
+  private Map<Integer, AtomicLong> shard(Integer accountNumber) {
+    int h = accountNumber.hashCode();
+    return shards[(h ^ (h >>> 16)) & (SHARDS - 1)];
+  }
+
+  private boolean expired(long state, long now) {
+    return now - (state & TIME_MASK) > windowMillis;
+  }
+
+  private static int count(long state) {
+    return (int) (state >>> 48);
+  }
+
+  private static long pack(int count, long millis) {
+    return ((long) count << 48) | (millis & TIME_MASK);
+  }
+}
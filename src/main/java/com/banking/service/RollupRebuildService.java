@@ -0,0 +1,106 @@
+package com.banking.service;
+
+import com.banking.dto.RollupRebuildStatus;
+import com.banking.repository.DailyBalanceRepository;
+import com.banking.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recomputes the daily balance rollups of every account from the transaction
+ * history, one account per database transaction, on a background thread.
+ * Used to backfill the rollups when they are introduced on a database that
+ * already has history, and to repair them after manual data fixes.
+ */
+@Slf4j
+@Service
+public class RollupRebuildService {
+
+  private final AccountService accountService;
+  private final DailyBalanceRepository dailyBalanceRepository;
+  private final TransactionRepository transactionRepository;
+  private final boolean backfillOnStartup;
+  private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "rollup-rebuild");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final AtomicInteger rebuilt = new AtomicInteger();
+
+  private volatile RollupRebuildStatus last = new RollupRebuildStatus("IDLE", 0, 0, null, null, null);
+
+  public RollupRebuildService(AccountService accountService,
+      DailyBalanceRepository dailyBalanceRepository,
+      TransactionRepository transactionRepository,
+      @Value("${banking.rollups.backfill-on-startup:true}") boolean backfillOnStartup) {
+    this.accountService = accountService;
+    this.dailyBalanceRepository = dailyBalanceRepository;
+    this.transactionRepository = transactionRepository;
+    this.backfillOnStartup = backfillOnStartup;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    worker.shutdownNow();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void backfill() {
+    if (backfillOnStartup && dailyBalanceRepository.count() == 0 && transactionRepository.count() > 0) {
+      log.info("Daily balance rollups are empty, rebuilding them from the transaction history");
+      start();
+    }
+  }
+
+  /** Starts a rebuild of every account. Returns immediately; poll {@link #getStatus}. */
+  public synchronized RollupRebuildStatus start() {
+    if ("RUNNING".equals(last.getStatus())) {
+      throw new RuntimeException("A rollup rebuild is already running");
+    }
+    rebuilt.set(0);
+    last = new RollupRebuildStatus("RUNNING", null, 0, LocalDateTime.now(), null, null);
+    worker.execute(this::run);
+    return getStatus();
+  }
+
+  public RollupRebuildStatus getStatus() {
+    RollupRebuildStatus status = last;
+    return new RollupRebuildStatus(status.getStatus(), status.getAccountsTotal(), rebuilt.get(),
+        status.getStartedAt(), status.getFinishedAt(), status.getError());
+  }
+
+  private void run() {
+    long started = System.nanoTime();
+    String error = null;
+    try {
+      List<Integer> accountNumbers = new ArrayList<>();
+      accountService.exportAccounts(account -> accountNumbers.add(account.getAccountNumber()));
+      last = new RollupRebuildStatus("RUNNING", accountNumbers.size(), 0, last.getStartedAt(), null, null);
+      for (Integer accountNumber : accountNumbers) {
+        if (Thread.currentThread().isInterrupted()) {
+          throw new IllegalStateException("Rollup rebuild interrupted");
+        }
+        accountService.rebuildDailyBalances(accountNumber);
+        rebuilt.incrementAndGet();
+      }
+    } catch (Exception e) {
+      error = e.getMessage();
+      log.warn("Rollup rebuild failed after {} accounts", rebuilt.get(), e);
+    }
+    last = new RollupRebuildStatus(error == null ? "COMPLETED" : "FAILED", last.getAccountsTotal(), rebuilt.get(),
+        last.getStartedAt(), LocalDateTime.now(), error);
+    log.info("Rollup rebuild {} for {} accounts in {}ms", error == null ? "completed" : "failed", rebuilt.get(),
+        (System.nanoTime() - started) / 1_000_000);
+  }
+}
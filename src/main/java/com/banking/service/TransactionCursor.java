@@ -0,0 +1,29 @@
+package com.banking.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a transaction history page. Clients receive it
+ * as an opaque URL-safe string and pass it back to fetch the next page.
+ */
+public record TransactionCursor(LocalDateTime timestamp, Long id) {
+
+  public String encode() {
+    String raw = timestamp + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** @throws IllegalArgumentException if {@code cursor} was not produced by {@link #encode} */
+  public static TransactionCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = raw.lastIndexOf('|');
+      return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)),
+          Long.valueOf(raw.substring(separator + 1)));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.banking.service;
+
+import com.banking.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the transaction rows written inside a database transaction and
+ * hands them to every {@link Consumer} bean: once just before the commit, so
+ * a consumer can write in the same transaction, and once after it, so a
+ * consumer only ever sees committed rows. Each row is collected once, however
+ * many consumers there are.
+ *
+ * <p>JPA writes are picked up by {@link Listener}; code that inserts
+ * transaction rows through JDBC reports each of them once with
+ * {@link #record}.
+ */
+@Component
+public class TransactionRows {
+
+  /** A transaction row with the account fields its consumers need. */
+  public record Row(long transactionId, long accountId, int accountNumber, String accountType, String type,
+      long amount, long finalBalance, LocalDateTime timestamp) {
+  }
+
+  /** Receives the rows of each transaction that wrote any. */
+  public interface Consumer {
+
+    /** Runs inside the transaction; a failure rolls it back. */
+    default void beforeCommit(List<Row> rows) {
+    }
+
+    default void afterCommit(List<Row> rows) {
+    }
+  }
+
+  private final EntityManager entityManager;
+  private final ObjectProvider<Consumer> consumers;
+
+  public TransactionRows(EntityManager entityManager, ObjectProvider<Consumer> consumers) {
+    this.entityManager = entityManager;
+    this.consumers = consumers;
+  }
+
+  /** Adds a transaction row written outside JPA to the current transaction. */
+  public void record(Row row) {
+    pending().rows.add(row);
+  }
+
+  private Pending pending() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      throw new IllegalStateException("Transaction rows can only be recorded inside a transaction");
+    }
+    Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      pending = new Pending();
+      TransactionSynchronizationManager.bindResource(this, pending);
+      TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+    return pending;
+  }
+
+  /**
+   * Collects transaction rows as they are persisted. Hibernate creates this
+   * through Spring, before the collector bean can exist, so the bean is looked
+   * up on first use.
+   */
+  public static class Listener {
+
+    private final ObjectProvider<TransactionRows> rows;
+
+    public Listener(ObjectProvider<TransactionRows> rows) {
+      this.rows = rows;
+    }
+
+    @PrePersist
+    public void persisting(Transaction transaction) {
+      // Read at commit: the id and timestamp are filled in after this callback
+      rows.getObject().pending().entities.add(transaction);
+    }
+  }
+
+  private final class Pending implements TransactionSynchronization {
+    final List<Transaction> entities = new ArrayList<>();
+    final List<Row> rows = new ArrayList<>();
+    List<Consumer> targets = List.of();
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+      if (!entities.isEmpty()) {
+        // Write the account rows first, so rows a consumer locks are always locked after accounts
+        entityManager.flush();
+        for (Transaction t : entities) {
+          rows.add(new Row(t.getId(), t.getAccount().getId(), t.getAccount().getAccountNumber(),
+              t.getAccount().getAccountType(), t.getType(), t.getAmount(), t.getFinalBalance(), t.getTimestamp()));
+        }
+      }
+      if (rows.isEmpty()) {
+        return;
+      }
+      targets = consumers.orderedStream().toList();
+      for (Consumer consumer : targets) {
+        consumer.beforeCommit(rows);
+      }
+    }
+
+    @Override
+    public void afterCommit() {
+      for (Consumer consumer : targets) {
+        consumer.afterCommit(rows);
+      }
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+      TransactionSynchronizationManager.unbindResourceIfPossible(TransactionRows.this);
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package com.banking.shard;
+
+import com.banking.entity.TransferSaga;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.TransferSagaRepository;
+import com.banking.service.AccountService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfers between accounts in different shards, as a saga of local
+ * transactions:
+ *
+ * <ol>
+ *   <li>on the source shard, debit the source and record the saga as DEBITED;</li>
+ *   <li>on the target shard, credit the target and record the saga id there,
+ *   unless that id is already recorded;</li>
+ *   <li>on the source shard, mark the saga COMPLETED.</li>
+ * </ol>
+ *
+ * If the credit is refused, the source is refunded and the saga marked
+ * COMPENSATED. If a shard is unreachable after the debit, the saga stays
+ * DEBITED and a background pass finishes it later, so money is never lost
+ * between shards or credited twice.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.shards.enabled", havingValue = "true")
+public class CrossShardTransfers {
+
+  private final AccountService accountService;
+  private final AccountRepository accountRepository;
+  private final TransferSagaRepository sagas;
+  private final ShardMap shards;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration recoveryInterval;
+  private final ScheduledExecutorService recovery = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "transfer-saga-recovery");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public CrossShardTransfers(AccountService accountService,
+      AccountRepository accountRepository,
+      TransferSagaRepository sagas,
+      ShardMap shards,
+      PlatformTransactionManager transactionManager,
+      @Value("${banking.shards.saga-recovery-interval:30s}") Duration recoveryInterval) {
+    this.accountService = accountService;
+    this.accountRepository = accountRepository;
+    this.sagas = sagas;
+    this.shards = shards;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.recoveryInterval = recoveryInterval;
+    recovery.scheduleWithFixedDelay(this::recover, recoveryInterval.toMillis(), recoveryInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    recovery.shutdownNow();
+  }
+
+  public void transfer(Integer sourceNumber, Integer targetNumber, long amount) {
+    boolean targetExists = ShardContext.on(shards.shardOf(targetNumber),
+        () -> accountRepository.existsByAccountNumber(targetNumber));
+    if (!targetExists) {
+      throw new RuntimeException("Target account not found");
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    TransferSaga saga = new TransferSaga(UUID.randomUUID().toString(), sourceNumber, targetNumber, amount,
+        TransferSaga.DEBITED, now, now);
+    ShardContext.on(shards.shardOf(sourceNumber), () -> transactionTemplate.execute(status -> {
+      accountService.debitRemoteTransfer(sourceNumber, targetNumber, amount);
+      return sagas.save(saga);
+    }));
+    finish(saga);
+  }
+
+  private void finish(TransferSaga saga) {
+    try {
+      credit(saga);
+    } catch (DataAccessException | TransactionException e) {
+      // The debit and the saga are committed; recovery completes the credit
+      log.warn("Credit leg of transfer {} to account {} failed, will retry", saga.getId(),
+          saga.getTargetAccountNumber(), e);
+      return;
+    } catch (RuntimeException e) {
+      compensate(saga);
+      throw e;
+    }
+    ShardContext.on(shards.shardOf(saga.getSourceAccountNumber()), () -> transactionTemplate.execute(
+        status -> sagas.updateStatus(saga.getId(), TransferSaga.DEBITED, TransferSaga.COMPLETED,
+            LocalDateTime.now())));
+  }
+
+  private void credit(TransferSaga saga) {
+    ShardContext.on(shards.shardOf(saga.getTargetAccountNumber()), () -> transactionTemplate.execute(status -> {
+      if (sagas.existsById(saga.getId())) {
+        return null;
+      }
+      accountService.creditTransfer(saga.getTargetAccountNumber(), saga.getSourceAccountNumber(), saga.getAmount());
+      LocalDateTime now = LocalDateTime.now();
+      return sagas.save(new TransferSaga(saga.getId(), saga.getSourceAccountNumber(),
+          saga.getTargetAccountNumber(), saga.getAmount(), TransferSaga.CREDITED, now, now));
+    }));
+  }
+
+  private void compensate(TransferSaga saga) {
+    try {
+      ShardContext.on(shards.shardOf(saga.getSourceAccountNumber()), () -> transactionTemplate.execute(status -> {
+        if (sagas.updateStatus(saga.getId(), TransferSaga.DEBITED, TransferSaga.COMPENSATED,
+            LocalDateTime.now()) == 1) {
+          accountService.reverseTransfer(saga.getSourceAccountNumber(), saga.getTargetAccountNumber(),
+              saga.getAmount());
+        }
+        return null;
+      }));
+    } catch (RuntimeException e) {
+      log.error("Refund for transfer {} to account {} failed, will retry", saga.getId(),
+          saga.getSourceAccountNumber(), e);
+    }
+  }
+
+  private void recover() {
+    LocalDateTime cutoff = LocalDateTime.now().minus(recoveryInterval);
+    for (int shard = 0; shard < shards.count(); shard++) {
+      try {
+        List<TransferSaga> pending = ShardContext.on(shard,
+            () -> sagas.findByStatusAndUpdatedAtBefore(TransferSaga.DEBITED, cutoff));
+        for (TransferSaga saga : pending) {
+          log.info("Resuming transfer {} from account {} to {}", saga.getId(), saga.getSourceAccountNumber(),
+              saga.getTargetAccountNumber());
+          try {
+            finish(saga);
+          } catch (RuntimeException e) {
+            log.warn("Transfer {} was refunded: {}", saga.getId(), e.getMessage());
+          }
+        }
+      } catch (RuntimeException e) {
+        log.warn("Transfer saga recovery on shard {} failed", shard, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.banking.shard;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The shard the current thread's database work goes to. Unset means shard 0,
+ * which also holds the tables that are not sharded (interest runs, saved
+ * idempotency responses; a key's claim commits on the account's shard).
+ */
+public final class ShardContext {
+
+  /** Work run by {@link #on}; may throw whatever the caller throws. */
+  @FunctionalInterface
+  public interface Work<T, E extends Throwable> {
+    T run() throws E;
+  }
+
+  private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+  private ShardContext() {
+  }
+
+  /** Runs {@code work} against {@code shard}. */
+  public static <T, E extends Throwable> T on(int shard, Work<T, E> work) throws E {
+    Integer previous = CURRENT.get();
+    if (previous != null && previous != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+      // The transaction's connection is already bound to the other shard
+      throw new IllegalStateException("Shard " + shard + " used inside a transaction on shard " + previous);
+    }
+    CURRENT.set(shard);
+    try {
+      return work.run();
+    } finally {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+  static Integer current() {
+    return CURRENT.get();
+  }
+}
@@ -0,0 +1,68 @@
+package com.banking.shard;
+
+import java.util.List;
+
+/**
+ * Maps an account number to the shard that holds the account and its
+ * transactions.
+ *
+ * <ul>
+ *   <li>{@code HASH} spreads account numbers evenly; changing the shard count
+ *   moves most accounts, so it is fixed once data exists.</li>
+ *   <li>{@code RANGE} takes ascending upper bounds, one per shard but the last:
+ *   bounds {@code 2000,5000} put accounts below 2000 in shard 0, below 5000 in
+ *   shard 1 and the rest in shard 2. A new shard can take a new range.</li>
+ * </ul>
+ */
+public class ShardMap {
+
+  public enum Strategy { HASH, RANGE }
+
+  private final int shards;
+  private final Strategy strategy;
+  private final int[] upperBounds;
+
+  public ShardMap(int shards, Strategy strategy, List<Integer> rangeBounds) {
+    if (shards < 1) {
+      throw new IllegalArgumentException("At least one shard is required");
+    }
+    if (strategy == Strategy.RANGE && rangeBounds.size() != shards - 1) {
+      throw new IllegalArgumentException("RANGE sharding needs " + (shards - 1) + " bounds for " + shards
+          + " shards, got " + rangeBounds.size());
+    }
+    this.shards = shards;
+    this.strategy = strategy;
+    this.upperBounds = rangeBounds.stream().mapToInt(Integer::intValue).toArray();
+    for (int i = 1; i < upperBounds.length; i++) {
+      if (upperBounds[i] <= upperBounds[i - 1]) {
+        throw new IllegalArgumentException("Shard range bounds must be ascending");
+      }
+    }
+  }
+
+  public int count() {
+    return shards;
+  }
+
+  public int shardOf(Integer accountNumber) {
+    if (strategy == Strategy.RANGE) {
+      for (int i = 0; i < upperBounds.length; i++) {
+        if (accountNumber < upperBounds[i]) {
+          return i;
+        }
+      }
+      return upperBounds.length;
+    }
+    return Math.floorMod(mix(accountNumber), shards);
+  }
+
+  // Murmur3 finaliser: neighbouring account numbers land on unrelated shards
+  private static int mix(int h) {
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+}
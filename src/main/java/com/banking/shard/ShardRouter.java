@@ -0,0 +1,166 @@
+package com.banking.shard;
+
+import com.banking.dto.AccountDTO;
+import com.banking.dto.BatchTransferRequest;
+import com.banking.dto.CreateAccountRequest;
+import com.banking.dto.TransactionRequest;
+import jakarta.annotation.PreDestroy;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends each {@code AccountService} call to the shard of the account it is
+ * about, before its transaction starts. Calls that span accounts are handled
+ * here too:
+ *
+ * <ul>
+ *   <li>{@code getAllAccounts} runs on every shard in parallel and the results
+ *   are concatenated in shard order;</li>
+ *   <li>{@code exportAccounts} streams the shards one after another;</li>
+ *   <li>a {@code transfer} between shards becomes a {@link CrossShardTransfers}
+ *   saga;</li>
+ *   <li>a batch transfer must keep all of its accounts in one shard.</li>
+ * </ul>
+ *
+ * <p>{@code AccountRepository} calls keyed by account number made outside
+ * a routed service call are routed as well.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "banking.shards.enabled", havingValue = "true")
+public class ShardRouter {
+
+  private final ShardMap shards;
+  private final ObjectProvider<CrossShardTransfers> crossShardTransfers;
+  private final ExecutorService fanOut;
+
+  // Only lazy dependencies: an aspect that pulled in AccountService would leave it unadvised
+  public ShardRouter(ShardMap shards, ObjectProvider<CrossShardTransfers> crossShardTransfers) {
+    this.shards = shards;
+    this.crossShardTransfers = crossShardTransfers;
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.fanOut = Executors.newFixedThreadPool(shards.count(), runnable -> {
+      Thread thread = new Thread(runnable, "shard-fan-out-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    fanOut.shutdownNow();
+  }
+
+  @Around("execution(public * com.banking.service.AccountService.*(..))")
+  public Object routeService(ProceedingJoinPoint call) throws Throwable {
+    Object[] args = call.getArgs();
+    switch (call.getSignature().getName()) {
+      case "getAllAccounts":
+        return allShards(call);
+      case "exportAccounts":
+        for (int shard = 0; shard < shards.count(); shard++) {
+          ShardContext.on(shard, call::proceed);
+        }
+        return null;
+      case "getCacheStats":
+        return call.proceed();
+      case "transfer":
+        TransactionRequest transfer = (TransactionRequest) args[0];
+        if (transfer.getTargetAccountNumber() != null && transfer.getAccountNumber() != null
+            && shards.shardOf(transfer.getAccountNumber()) != shards.shardOf(transfer.getTargetAccountNumber())) {
+          crossShardTransfers.getObject().transfer(transfer.getAccountNumber(),
+              transfer.getTargetAccountNumber(), transfer.getAmount());
+          return null;
+        }
+        break;
+      case "transferBatch":
+        return ShardContext.on(batchShard((BatchTransferRequest) args[0]), call::proceed);
+      default:
+        break;
+    }
+
+    Integer accountNumber = args.length == 0 ? null : accountNumberOf(args[0]);
+    return accountNumber == null ? call.proceed() : ShardContext.on(shards.shardOf(accountNumber), call::proceed);
+  }
+
+  @Around("execution(* com.banking.repository.AccountRepository.*(Integer, ..)) && args(accountNumber, ..)")
+  public Object routeRepository(ProceedingJoinPoint call, Integer accountNumber) throws Throwable {
+    if (ShardContext.current() != null || accountNumber == null) {
+      return call.proceed();
+    }
+    return ShardContext.on(shards.shardOf(accountNumber), call::proceed);
+  }
+
+  private Object allShards(ProceedingJoinPoint call) throws Throwable {
+    List<Future<Object>> parts = new ArrayList<>(shards.count());
+    for (int shard = 0; shard < shards.count(); shard++) {
+      int target = shard;
+      parts.add(fanOut.submit(() -> {
+        try {
+          return ShardContext.on(target, call::proceed);
+        } catch (Exception | Error e) {
+          throw e;
+        } catch (Throwable e) {
+          throw new IllegalStateException(e);
+        }
+      }));
+    }
+    List<AccountDTO> accounts = new ArrayList<>();
+    for (Future<Object> part : parts) {
+      try {
+        @SuppressWarnings("unchecked")
+        List<AccountDTO> shardAccounts = (List<AccountDTO>) part.get();
+        accounts.addAll(shardAccounts);
+      } catch (ExecutionException e) {
+        throw e.getCause();
+      }
+    }
+    return accounts;
+  }
+
+  private int batchShard(BatchTransferRequest request) {
+    Set<Integer> used = new TreeSet<>();
+    for (TransactionRequest transfer : request.getTransfers()) {
+      if (transfer.getAccountNumber() != null) {
+        used.add(shards.shardOf(transfer.getAccountNumber()));
+      }
+      if (transfer.getTargetAccountNumber() != null) {
+        used.add(shards.shardOf(transfer.getTargetAccountNumber()));
+      }
+    }
+    if (used.size() > 1) {
+      throw new RuntimeException("Batch transfers must keep all accounts in one shard; these span shards " + used);
+    }
+    return used.isEmpty() ? 0 : used.iterator().next();
+  }
+
+  private static Integer accountNumberOf(Object arg) {
+    if (arg instanceof Integer accountNumber) {
+      return accountNumber;
+    }
+    if (arg instanceof TransactionRequest request) {
+      return request.getAccountNumber();
+    }
+    if (arg instanceof CreateAccountRequest request) {
+      return request.getAccountNumber();
+    }
+    return null;
+  }
+}
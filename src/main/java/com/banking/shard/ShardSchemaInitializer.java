@@ -0,0 +1,107 @@
+package com.banking.shard;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Creates the schema on every shard that does not have it yet. Hibernate's
+ * {@code ddl-auto} only reaches shard 0, the shard used while it starts.
+ *
+ * <p>Each new shard's id sequences start at {@code shard * 10^12}, so entity
+ * ids stay unique across shards and fanned-out results can be merged. On
+ * dialects without sequences (MySQL) Hibernate backs each one with a
+ * single-row table, so its {@code next_val} is set instead.
+ */
+@Slf4j
+public class ShardSchemaInitializer implements BeanPostProcessor {
+
+  static final long ID_SPACE_PER_SHARD = 1_000_000_000_000L;
+  private static final List<String> ID_SEQUENCES = List.of("account_seq", "transaction_seq");
+
+  private final int shards;
+
+  public ShardSchemaInitializer(int shards) {
+    this.shards = shards;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof EntityManagerFactory entityManagerFactory) {
+      SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+      for (int shard = 1; shard < shards; shard++) {
+        ShardContext.on(shard, () -> {
+          initialize(sessionFactory, ShardContext.current());
+          return null;
+        });
+      }
+    }
+    return bean;
+  }
+
+  private void initialize(SessionFactory sessionFactory, int shard) {
+    if (hasSchema(sessionFactory)) {
+      return;
+    }
+    sessionFactory.getSchemaManager().exportMappedObjects(false);
+    long firstId = shard * ID_SPACE_PER_SHARD + 1;
+    boolean sequences = sessionFactory.unwrap(SessionFactoryImplementor.class)
+        .getJdbcServices().getDialect().getSequenceSupport().supportsSequences();
+    try (StatelessSession session = sessionFactory.openStatelessSession()) {
+      session.doWork(connection -> {
+        if (sequences) {
+          restartSequences(connection, firstId);
+        } else {
+          restartSequenceTables(connection, firstId);
+        }
+      });
+    }
+    log.info("Created schema on shard {}; ids start at {}", shard, firstId);
+  }
+
+  private static void restartSequences(Connection connection, long firstId) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      for (String sequence : ID_SEQUENCES) {
+        statement.execute("alter sequence " + sequence + " restart with " + firstId);
+      }
+    }
+  }
+
+  private static void restartSequenceTables(Connection connection, long firstId) throws SQLException {
+    for (String sequence : ID_SEQUENCES) {
+      try (PreparedStatement update = connection.prepareStatement("update " + sequence + " set next_val = ?")) {
+        update.setLong(1, firstId);
+        update.executeUpdate();
+      }
+    }
+    if (!connection.getAutoCommit()) {
+      connection.commit();
+    }
+  }
+
+  private static boolean hasSchema(SessionFactory sessionFactory) {
+    try (StatelessSession session = sessionFactory.openStatelessSession()) {
+      return session.doReturningWork(connection -> {
+        try (ResultSet tables = connection.getMetaData().getTables(
+            connection.getCatalog(), connection.getSchema(), "%", new String[] {"TABLE"})) {
+          while (tables.next()) {
+            if ("accounts".equalsIgnoreCase(tables.getString("TABLE_NAME"))) {
+              return true;
+            }
+          }
+          return false;
+        }
+      });
+    }
+  }
+}
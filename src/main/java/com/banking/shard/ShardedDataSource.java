@@ -0,0 +1,63 @@
+package com.banking.shard;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Hands out connections to the shard in {@link ShardContext}. Must sit behind
+ * a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so a transaction's connection is fetched at its first statement, after the
+ * shard has been chosen.
+ */
+public class ShardedDataSource extends AbstractDataSource implements AutoCloseable {
+
+  private final List<DataSource> shards;
+  private final Counter[] routed;
+
+  public ShardedDataSource(List<DataSource> shards, MeterRegistry registry) {
+    this.shards = shards;
+    this.routed = new Counter[shards.size()];
+    for (int i = 0; i < shards.size(); i++) {
+      routed[i] = Counter.builder("banking.datasource.connections")
+          .description("Connections handed out, by database")
+          .tag("target", "shard-" + i)
+          .register(registry);
+    }
+  }
+
+  public int size() {
+    return shards.size();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return currentShard().getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return currentShard().getConnection(username, password);
+  }
+
+  private DataSource currentShard() {
+    Integer shard = ShardContext.current();
+    int index = shard == null ? 0 : shard;
+    routed[index].increment();
+    return shards.get(index);
+  }
+
+  @Override
+  public void close() throws Exception {
+    for (DataSource shard : shards) {
+      if (shard instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+}
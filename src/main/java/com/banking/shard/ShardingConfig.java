@@ -0,0 +1,73 @@
+package com.banking.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spreads accounts and their transactions over the databases in
+ * {@code banking.shards.urls}, picked per account number by {@link ShardMap}.
+ * Shards use the driver and credentials of {@code spring.datasource}.
+ *
+ * <p>Enabled with {@code banking.shards.enabled=true}; not combinable with
+ * read replicas, the ledger engine or account actors, which all assume a
+ * single database.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.shards.enabled", havingValue = "true")
+public class ShardingConfig {
+
+  @Bean
+  public ShardMap shardMap(@Value("${banking.shards.urls}") List<String> urls,
+      @Value("${banking.shards.strategy:hash}") String strategy,
+      @Value("${banking.shards.range-bounds:}") List<Integer> rangeBounds,
+      @Value("${banking.replicas.enabled:false}") boolean replicas,
+      @Value("${banking.ledger.enabled:false}") boolean ledger,
+      @Value("${banking.actors.enabled:false}") boolean actors) {
+    if (replicas || ledger || actors) {
+      throw new IllegalStateException("banking.shards.enabled cannot be combined with banking.replicas.enabled,"
+          + " banking.ledger.enabled or banking.actors.enabled");
+    }
+    return new ShardMap(urls.size(), ShardMap.Strategy.valueOf(strategy.toUpperCase()), rangeBounds);
+  }
+
+  @Bean(destroyMethod = "close")
+  public ShardedDataSource shardedDataSource(DataSourceProperties properties,
+      @Value("${banking.shards.urls}") List<String> urls,
+      @Value("${banking.shards.pool-size:10}") int poolSize,
+      MeterRegistry registry) {
+    List<DataSource> shards = new ArrayList<>();
+    for (int i = 0; i < urls.size(); i++) {
+      HikariDataSource shard = new HikariDataSource();
+      shard.setPoolName("shard-" + i);
+      shard.setDriverClassName(properties.determineDriverClassName());
+      shard.setJdbcUrl(urls.get(i).trim());
+      shard.setUsername(properties.determineUsername());
+      shard.setPassword(properties.determinePassword());
+      shard.setMaximumPoolSize(poolSize);
+      shards.add(shard);
+    }
+    return new ShardedDataSource(shards, registry);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ShardedDataSource shardedDataSource) {
+    return new LazyConnectionDataSourceProxy(shardedDataSource);
+  }
+
+  @Bean
+  public static ShardSchemaInitializer shardSchemaInitializer(@Value("${banking.shards.urls}") List<String> urls) {
+    return new ShardSchemaInitializer(urls.size());
+  }
+}
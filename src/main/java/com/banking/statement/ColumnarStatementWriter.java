@@ -0,0 +1,163 @@
+package com.banking.statement;
+
+import com.banking.dto.StatementLine;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact column-oriented statement. Rows are buffered in blocks of
+ * {@value #BLOCK_ROWS}, so memory stays bounded however long the statement,
+ * and each block is written column by column:
+ *
+ * <pre>
+ * file   := "BKST" version:u8(1) accountNumber:varint block* 0:varint
+ * block  := rows:varint id timestamp type amount balance description
+ * id, timestamp, balance := rows x zigzag varint, delta from the previous row
+ *                           (carried across blocks, starting at 0)
+ * amount                 := rows x zigzag varint, minor units
+ * type, description      := dict rows x index:varint
+ * dict   := size:varint (length:varint utf8-bytes)*   index 0 is null, entries start at 1
+ * </pre>
+ *
+ * Timestamps are microseconds since the epoch (UTC), amounts and balances
+ * minor units. Ids, timestamps and balances move in small steps from row to
+ * row, and types and descriptions repeat, so most values take one or two
+ * bytes before gzip.
+ */
+class ColumnarStatementWriter implements StatementWriter {
+
+  static final int BLOCK_ROWS = 4096;
+  private static final byte[] MAGIC = "BKST".getBytes(StandardCharsets.US_ASCII);
+  private static final int VERSION = 1;
+
+  private final OutputStream out;
+  private final long[] ids = new long[BLOCK_ROWS];
+  private final long[] timestamps = new long[BLOCK_ROWS];
+  private final long[] amounts = new long[BLOCK_ROWS];
+  private final long[] balances = new long[BLOCK_ROWS];
+  private final Dictionary types = new Dictionary(BLOCK_ROWS);
+  private final Dictionary descriptions = new Dictionary(BLOCK_ROWS);
+  private int rows;
+  private long lastId;
+  private long lastTimestamp;
+  private long lastBalance;
+
+  ColumnarStatementWriter(OutputStream out, Integer accountNumber) {
+    this.out = new BufferedOutputStream(out, 16 * 1024);
+    try {
+      this.out.write(MAGIC);
+      this.out.write(VERSION);
+      writeVarint(accountNumber);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void write(StatementLine line) throws IOException {
+    ids[rows] = line.getId();
+    timestamps[rows] = micros(line.getTimestamp());
+    amounts[rows] = line.getAmount();
+    balances[rows] = line.getFinalBalance();
+    types.add(rows, line.getType());
+    descriptions.add(rows, line.getDescription());
+    if (++rows == BLOCK_ROWS) {
+      flushBlock();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (rows > 0) {
+      flushBlock();
+    }
+    writeVarint(0);
+    out.flush();
+  }
+
+  private void flushBlock() throws IOException {
+    writeVarint(rows);
+    lastId = writeDeltas(ids, lastId);
+    lastTimestamp = writeDeltas(timestamps, lastTimestamp);
+    types.writeColumn();
+    for (int i = 0; i < rows; i++) {
+      writeVarint(zigzag(amounts[i]));
+    }
+    lastBalance = writeDeltas(balances, lastBalance);
+    descriptions.writeColumn();
+    rows = 0;
+  }
+
+  private long writeDeltas(long[] column, long previous) throws IOException {
+    for (int i = 0; i < rows; i++) {
+      writeVarint(zigzag(column[i] - previous));
+      previous = column[i];
+    }
+    return previous;
+  }
+
+  private void writeVarint(long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long micros(LocalDateTime timestamp) {
+    return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+  }
+
+  /** A string column: per-block dictionary plus one index per row. */
+  private final class Dictionary {
+    final Map<String, Integer> indexes = new HashMap<>();
+    final List<String> entries = new ArrayList<>();
+    final int[] rowIndexes;
+
+    Dictionary(int capacity) {
+      rowIndexes = new int[capacity];
+    }
+
+    void add(int row, String value) {
+      if (value == null) {
+        rowIndexes[row] = 0;
+        return;
+      }
+      Integer index = indexes.get(value);
+      if (index == null) {
+        entries.add(value);
+        index = entries.size();
+        indexes.put(value, index);
+      }
+      rowIndexes[row] = index;
+    }
+
+    void writeColumn() throws IOException {
+      writeVarint(entries.size());
+      for (String entry : entries) {
+        byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        out.write(bytes);
+      }
+      for (int i = 0; i < rows; i++) {
+        writeVarint(rowIndexes[i]);
+      }
+      indexes.clear();
+      entries.clear();
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.banking.statement;
+
+import com.banking.dto.StatementLine;
+import com.banking.money.Money;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/** RFC 4180 CSV with a header row; amounts as decimals. */
+class CsvStatementWriter implements StatementWriter {
+
+  private final BufferedWriter out;
+  private boolean headerWritten;
+
+  CsvStatementWriter(OutputStream out) {
+    this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+  }
+
+  @Override
+  public void write(StatementLine line) throws IOException {
+    writeHeader();
+    out.write(String.valueOf(line.getId()));
+    out.write(',');
+    out.write(line.getTimestamp().toString());
+    out.write(',');
+    out.write(quote(line.getType()));
+    out.write(',');
+    out.write(Money.toDecimal(line.getAmount()).toPlainString());
+    out.write(',');
+    out.write(Money.toDecimal(line.getFinalBalance()).toPlainString());
+    out.write(',');
+    out.write(quote(line.getDescription()));
+    out.write("\r\n");
+  }
+
+  @Override
+  public void close() throws IOException {
+    writeHeader();
+    out.flush();
+  }
+
+  private void writeHeader() throws IOException {
+    if (!headerWritten) {
+      out.write("id,timestamp,type,amount,final_balance,description\r\n");
+      headerWritten = true;
+    }
+  }
+
+  private static String quote(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
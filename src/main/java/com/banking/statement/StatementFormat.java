@@ -0,0 +1,42 @@
+package com.banking.statement;
+
+import java.io.OutputStream;
+
+/** Export formats for {@code GET /api/accounts/{accountNumber}/statement}. */
+public enum StatementFormat {
+
+  CSV("csv") {
+    @Override
+    public StatementWriter open(OutputStream out, Integer accountNumber) {
+      return new CsvStatementWriter(out);
+    }
+  },
+
+  COLUMNAR("bkst") {
+    @Override
+    public StatementWriter open(OutputStream out, Integer accountNumber) {
+      return new ColumnarStatementWriter(out, accountNumber);
+    }
+  };
+
+  private final String extension;
+
+  StatementFormat(String extension) {
+    this.extension = extension;
+  }
+
+  public abstract StatementWriter open(OutputStream out, Integer accountNumber);
+
+  public String fileName(Integer accountNumber) {
+    return "statement-" + accountNumber + "." + extension + ".gz";
+  }
+
+  public static StatementFormat parse(String value) {
+    for (StatementFormat format : values()) {
+      if (format.name().equalsIgnoreCase(value)) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("Unknown statement format: " + value + " (use csv or columnar)");
+  }
+}
@@ -0,0 +1,14 @@
+package com.banking.statement;
+
+import com.banking.dto.StatementLine;
+
+import java.io.IOException;
+
+/** Writes statement lines in one export format. {@link #close} finishes the output but leaves the stream open. */
+public interface StatementWriter extends AutoCloseable {
+
+  void write(StatementLine line) throws IOException;
+
+  @Override
+  void close() throws IOException;
+}
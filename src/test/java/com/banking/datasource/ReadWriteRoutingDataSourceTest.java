@@ -0,0 +1,146 @@
+package com.banking.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** A primary and one replica, each an in-memory H2 database that names itself. */
+class ReadWriteRoutingDataSourceTest {
+
+  private static final DataSource PRIMARY = h2("routing-primary");
+  private static final DataSource REPLICA = h2("routing-replica");
+
+  private final FailingDataSource replica = new FailingDataSource(REPLICA);
+  private ReplicaPool pool;
+  private ReadWriteRoutingDataSource routing;
+  private JdbcTemplate jdbcTemplate;
+  private DataSourceTransactionManager transactionManager;
+
+  @BeforeAll
+  static void nameDatabases() {
+    name(PRIMARY, "primary");
+    name(REPLICA, "replica");
+  }
+
+  @BeforeEach
+  void route() {
+    pool = new ReplicaPool(List.of(replica), Duration.ofHours(1));
+    routing = new ReadWriteRoutingDataSource(PRIMARY, pool, new SimpleMeterRegistry());
+    DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    transactionManager = new DataSourceTransactionManager(dataSource);
+  }
+
+  @AfterEach
+  void close() throws Exception {
+    pool.close();
+  }
+
+  @Test
+  void readWriteTransactionsGoToThePrimary() {
+    assertThat(nodeIn(false)).isEqualTo("primary");
+  }
+
+  @Test
+  void readOnlyTransactionsGoToTheReplica() {
+    assertThat(nodeIn(true)).isEqualTo("replica");
+  }
+
+  @Test
+  void pinnedReadsStayOnThePrimary() {
+    assertThat(ReplicaRouting.onPrimary(() -> nodeIn(true))).isEqualTo("primary");
+  }
+
+  @Test
+  void connectionsWithCredentialsAreRoutedTheSameWay() {
+    String node = readOnly().execute(status -> {
+      try (Connection connection = routing.getConnection("sa", "");
+          Statement statement = connection.createStatement();
+          ResultSet rows = statement.executeQuery("select name from node")) {
+        rows.next();
+        return rows.getString(1);
+      } catch (SQLException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    assertThat(node).isEqualTo("replica");
+  }
+
+  @Test
+  void readsFallBackToThePrimaryWhenTheReplicaFails() {
+    replica.down = true;
+
+    assertThat(nodeIn(true)).isEqualTo("primary");
+    replica.down = false;
+    // Marked down until the next health check passes
+    assertThat(nodeIn(true)).isEqualTo("primary");
+  }
+
+  private String nodeIn(boolean readOnly) {
+    TransactionTemplate template = readOnly ? readOnly() : new TransactionTemplate(transactionManager);
+    return template.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+  }
+
+  private TransactionTemplate readOnly() {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setReadOnly(true);
+    return template;
+  }
+
+  private static DataSource h2(String name) {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+    dataSource.setUser("sa");
+    return dataSource;
+  }
+
+  private static void name(DataSource dataSource, String node) {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("create table if not exists node (name varchar(20))");
+    jdbcTemplate.update("delete from node");
+    jdbcTemplate.update("insert into node (name) values (?)", node);
+  }
+
+  // A replica that can be taken down between calls
+  private static final class FailingDataSource extends DelegatingDataSource {
+    volatile boolean down;
+
+    FailingDataSource(DataSource target) {
+      super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      if (down) {
+        throw new SQLException("Replica unreachable");
+      }
+      return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      if (down) {
+        throw new SQLException("Replica unreachable");
+      }
+      return super.getConnection(username, password);
+    }
+  }
+}
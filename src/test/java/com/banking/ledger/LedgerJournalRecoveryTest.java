@@ -0,0 +1,92 @@
+package com.banking.ledger;
+
+import com.banking.dto.CreateAccountRequest;
+import com.banking.money.Money;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs journal-mode engines by hand against the application's database: one
+ * that stops without a final snapshot, as a crash would leave it, and one
+ * that rebuilds its balances from the snapshot and the journal tail.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:journal-recovery;DB_CLOSE_DELAY=-1")
+class LedgerJournalRecoveryTest {
+
+  // Small enough that a snapshot lets earlier segments go
+  private static final DataSize SEGMENT_SIZE = DataSize.ofBytes(256);
+
+  @Autowired
+  AccountService accountService;
+  @Autowired
+  AccountRepository accountRepository;
+  @Autowired
+  TransactionRepository transactionRepository;
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @TempDir
+  Path journalDir;
+
+  @Test
+  void rebuildsBalancesFromTheSnapshotAndTheJournalTail() throws Exception {
+    accountService.createAccount(new CreateAccountRequest(710001, "secret", Money.ofMajor(1000), "CURRENT"));
+    accountService.createAccount(new CreateAccountRequest(710002, "secret", Money.ofMajor(1000), "CURRENT"));
+
+    LedgerEngine crashed = start();
+    crashed.deposit(710001, Money.ofMajor(100));
+    crashed.transfer(710001, 710002, Money.ofMajor(200));
+    awaitStored(3);
+    crashed.snapshot();
+    crashed.deposit(710002, Money.ofMajor(50));
+    crashed.withdraw(710001, Money.ofMajor(25));
+    awaitStored(5);
+
+    LedgerEngine recovered = start();
+    try {
+      // -1 is never a stored balance: these come from the snapshot and the records after it
+      assertThat(recovered.liveBalance(710001, -1)).isEqualTo(Money.ofMajor(875));
+      assertThat(recovered.liveBalance(710002, -1)).isEqualTo(Money.ofMajor(1250));
+
+      recovered.deposit(710001, Money.ofMajor(5));
+      assertThat(recovered.liveBalance(710001, -1)).isEqualTo(Money.ofMajor(880));
+    } finally {
+      recovered.shutdown();
+    }
+  }
+
+  private LedgerEngine start() throws IOException {
+    LedgerEngine engine = new LedgerEngine(accountRepository, transactionRepository, transactionManager, 16,
+        "journal", journalDir.resolve("unused.queue"), journalDir, SEGMENT_SIZE, Duration.ofHours(1), 500, 10);
+    engine.recover();
+    return engine;
+  }
+
+  // The writer stores in sequence order, so the highest stored sequence covers everything before it
+  private void awaitStored(long sequence) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    while (nullToZero(transactionRepository.findMaxLedgerSequence()) < sequence) {
+      assertThat(System.nanoTime()).as("ledger writer caught up").isLessThan(deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  private static long nullToZero(Long value) {
+    return value == null ? 0 : value;
+  }
+}
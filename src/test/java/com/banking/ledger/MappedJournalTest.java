@@ -0,0 +1,91 @@
+package com.banking.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedJournalTest {
+
+  private static final int FRAME_HEADER = 8;
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void recoversEveryRecordAcrossSegments() throws IOException {
+    MappedJournal journal = open(256);
+    for (int i = 1; i <= 10; i++) {
+      journal.append(deposit(i * 100L));
+    }
+    journal.awaitDurable(10);
+    journal.close();
+
+    List<LedgerRecord> records = new MappedJournal(dir, 256).recover();
+
+    assertThat(records).extracting(LedgerRecord::sequence).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+    assertThat(records.get(9).finalBalance()).isEqualTo(1000);
+    assertThat(dir.toFile().list((d, name) -> name.endsWith(".journal"))).hasSizeGreaterThan(1);
+  }
+
+  @Test
+  void discardsATornFrameAndAppendsAfterTheLastGoodOne() throws IOException {
+    MappedJournal journal = open(4096);
+    for (int i = 1; i <= 3; i++) {
+      journal.append(deposit(i * 100L));
+    }
+    journal.awaitDurable(3);
+    journal.close();
+    // Flip a payload byte of the third frame, as a write cut short by a crash would leave it
+    int frame = FRAME_HEADER + deposit(0).binarySize();
+    File[] segments = dir.toFile().listFiles((d, name) -> name.endsWith(".journal"));
+    try (FileChannel channel = FileChannel.open(segments[0].toPath(), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {0x7f}), 2L * frame + FRAME_HEADER + 1);
+    }
+
+    MappedJournal reopened = new MappedJournal(dir, 4096);
+    assertThat(reopened.recover()).extracting(LedgerRecord::sequence).containsExactly(1L, 2L);
+    reopened.continueAfter(2);
+    reopened.append(deposit(250));
+    reopened.awaitDurable(3);
+    reopened.close();
+
+    List<LedgerRecord> records = new MappedJournal(dir, 4096).recover();
+    assertThat(records).extracting(LedgerRecord::sequence).containsExactly(1L, 2L, 3L);
+    assertThat(records.get(2).finalBalance()).isEqualTo(250);
+  }
+
+  @Test
+  void anUnreadableSnapshotIsIgnored() throws IOException {
+    LedgerSnapshots snapshots = new LedgerSnapshots(dir);
+    snapshots.write(new LedgerSnapshots.Snapshot(7, Map.of(1001, 700L, 1002, 50L)));
+
+    assertThat(snapshots.loadLatest()).isEqualTo(new LedgerSnapshots.Snapshot(7, Map.of(1001, 700L, 1002, 50L)));
+
+    File[] files = dir.toFile().listFiles((d, name) -> name.startsWith("snapshot-"));
+    try (FileChannel channel = FileChannel.open(files[0].toPath(), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {0x7f}), 13);
+    }
+    assertThat(snapshots.loadLatest()).isEqualTo(LedgerSnapshots.Snapshot.EMPTY);
+  }
+
+  private MappedJournal open(int segmentSize) throws IOException {
+    MappedJournal journal = new MappedJournal(dir, segmentSize);
+    journal.recover();
+    journal.continueAfter(0);
+    return journal;
+  }
+
+  private static LedgerRecord deposit(long finalBalance) {
+    return new LedgerRecord(0, "DEPOSIT", 1001, null, 100, finalBalance, System.currentTimeMillis());
+  }
+}
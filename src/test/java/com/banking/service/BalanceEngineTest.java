@@ -0,0 +1,146 @@
+package com.banking.service;
+
+import com.banking.dto.BatchTransferRequest;
+import com.banking.dto.BatchTransferResponse;
+import com.banking.dto.CreateAccountRequest;
+import com.banking.dto.TransactionRequest;
+import com.banking.dto.TransferResult;
+import com.banking.money.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The same movements run against every balance engine; each subclass boots
+ * the application on its own H2 database with one engine switched on.
+ */
+abstract class BalanceEngineTest {
+
+  private static final AtomicInteger NEXT_ACCOUNT = new AtomicInteger(100_000);
+
+  @Autowired
+  AccountService accountService;
+
+  @Test
+  void depositAddsToTheBalance() {
+    int account = open("CURRENT", 1000);
+
+    accountService.deposit(request(account, 250));
+
+    assertThat(balance(account)).isEqualTo(Money.ofMajor(1250));
+  }
+
+  @Test
+  void withdrawalTakesFromTheBalance() {
+    int account = open("CURRENT", 1000);
+
+    accountService.withdraw(request(account, 400));
+
+    assertThat(balance(account)).isEqualTo(Money.ofMajor(600));
+  }
+
+  @Test
+  void withdrawalBeyondTheBalanceIsRefused() {
+    int account = open("CURRENT", 100);
+
+    assertThatThrownBy(() -> accountService.withdraw(request(account, 101)))
+        .isInstanceOf(BusinessRuleException.class)
+        .extracting("reason").isEqualTo(BusinessRuleException.Reason.INSUFFICIENT_BALANCE);
+    assertThat(balance(account)).isEqualTo(Money.ofMajor(100));
+  }
+
+  @Test
+  void transferMovesTheAmountBetweenAccounts() {
+    int source = open("CURRENT", 1000);
+    int target = open("CURRENT", 50);
+
+    accountService.transfer(transfer(source, target, 300));
+
+    assertThat(balance(source)).isEqualTo(Money.ofMajor(700));
+    assertThat(balance(target)).isEqualTo(Money.ofMajor(350));
+  }
+
+  @Test
+  void transferToTheSameAccountIsRefused() {
+    int account = open("CURRENT", 1000);
+
+    assertThatThrownBy(() -> accountService.transfer(transfer(account, account, 300)))
+        .isInstanceOf(BusinessRuleException.class)
+        .extracting("reason").isEqualTo(BusinessRuleException.Reason.SAME_ACCOUNT);
+    assertThat(balance(account)).isEqualTo(Money.ofMajor(1000));
+  }
+
+  @Test
+  void bestEffortBatchSkipsFailingTransfers() {
+    int source = open("CURRENT", 1000);
+    int target = open("CURRENT", 0);
+
+    BatchTransferResponse response = accountService.transferBatch(new BatchTransferRequest(List.of(
+        transfer(source, target, 300),
+        transfer(source, target, 5000),
+        transfer(source, source, 100),
+        transfer(source, target, 100)), BatchTransferRequest.BEST_EFFORT));
+
+    assertThat(response.getSucceeded()).isEqualTo(2);
+    assertThat(response.getFailed()).isEqualTo(2);
+    assertThat(response.getResults()).extracting(TransferResult::getStatus).containsExactly(
+        TransferResult.SUCCESS, TransferResult.FAILED, TransferResult.FAILED, TransferResult.SUCCESS);
+    assertThat(balance(source)).isEqualTo(Money.ofMajor(600));
+    assertThat(balance(target)).isEqualTo(Money.ofMajor(400));
+  }
+
+  @Test
+  void allOrNothingBatchRollsBackAtTheFirstFailure() {
+    int source = open("CURRENT", 1000);
+    int target = open("CURRENT", 0);
+    List<TransactionRequest> transfers = List.of(
+        transfer(source, target, 300),
+        transfer(source, target, 5000),
+        transfer(source, target, 100));
+
+    assertThatThrownBy(() -> accountService.transferBatch(
+        new BatchTransferRequest(transfers, BatchTransferRequest.ALL_OR_NOTHING)))
+        .isInstanceOfSatisfying(BatchTransferException.class, e ->
+            assertThat(e.getResponse().getResults()).extracting(TransferResult::getStatus).containsExactly(
+                TransferResult.ROLLED_BACK, TransferResult.FAILED, TransferResult.SKIPPED));
+    assertThat(balance(source)).isEqualTo(Money.ofMajor(1000));
+    assertThat(balance(target)).isEqualTo(0);
+  }
+
+  @Test
+  void allOrNothingBatchAppliesEveryTransfer() {
+    int source = open("CURRENT", 1000);
+    int target = open("CURRENT", 0);
+
+    BatchTransferResponse response = accountService.transferBatch(new BatchTransferRequest(List.of(
+        transfer(source, target, 300),
+        transfer(target, source, 100)), BatchTransferRequest.ALL_OR_NOTHING));
+
+    assertThat(response.getSucceeded()).isEqualTo(2);
+    assertThat(balance(source)).isEqualTo(Money.ofMajor(800));
+    assertThat(balance(target)).isEqualTo(Money.ofMajor(200));
+  }
+
+  int open(String type, long major) {
+    int accountNumber = NEXT_ACCOUNT.incrementAndGet();
+    accountService.createAccount(new CreateAccountRequest(accountNumber, "secret", Money.ofMajor(major), type));
+    return accountNumber;
+  }
+
+  long balance(int accountNumber) {
+    return accountService.getAccount(accountNumber).getBalance();
+  }
+
+  static TransactionRequest request(int accountNumber, long major) {
+    return new TransactionRequest(accountNumber, Money.ofMajor(major), null, null);
+  }
+
+  static TransactionRequest transfer(int source, int target, long major) {
+    return new TransactionRequest(source, Money.ofMajor(major), null, target);
+  }
+}
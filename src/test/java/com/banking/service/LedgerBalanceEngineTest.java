@@ -0,0 +1,14 @@
+package com.banking.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:ledger-engine;DB_CLOSE_DELAY=-1",
+    "banking.ledger.enabled=true",
+    // A fresh spill file per run: a leftover one would be replayed into the empty database
+    "banking.ledger.queue-file=target/ledger-engine/${random.uuid}.queue"
+})
+class LedgerBalanceEngineTest extends BalanceEngineTest {
+}
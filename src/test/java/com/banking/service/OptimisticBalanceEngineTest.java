@@ -0,0 +1,12 @@
+package com.banking.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:optimistic-engine;DB_CLOSE_DELAY=-1",
+    "banking.concurrency.strategy=optimistic"
+})
+class OptimisticBalanceEngineTest extends BalanceEngineTest {
+}
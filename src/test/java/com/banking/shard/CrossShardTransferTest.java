@@ -0,0 +1,85 @@
+package com.banking.shard;
+
+import com.banking.dto.CreateAccountRequest;
+import com.banking.dto.TransactionRequest;
+import com.banking.entity.TransferSaga;
+import com.banking.money.Money;
+import com.banking.repository.TransferSagaRepository;
+import com.banking.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Two in-memory H2 shards split by range: account numbers below 500000 live on shard 0. */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "banking.shards.enabled=true",
+    "banking.shards.urls=jdbc:h2:mem:cross-shard-0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:cross-shard-1;DB_CLOSE_DELAY=-1",
+    "banking.shards.strategy=range",
+    "banking.shards.range-bounds=500000"
+})
+class CrossShardTransferTest {
+
+  @Autowired
+  AccountService accountService;
+  @Autowired
+  TransferSagaRepository sagas;
+  @Autowired
+  ShardMap shardMap;
+
+  @Test
+  void transferBetweenShardsCompletesItsSagaOnBothSides() {
+    open(400001, 1000);
+    open(600001, 100);
+    assertThat(shardMap.shardOf(400001)).isZero();
+    assertThat(shardMap.shardOf(600001)).isOne();
+
+    accountService.transfer(new TransactionRequest(400001, Money.ofMajor(300), null, 600001));
+
+    assertThat(accountService.getAccount(400001).getBalance()).isEqualTo(Money.ofMajor(700));
+    assertThat(accountService.getAccount(600001).getBalance()).isEqualTo(Money.ofMajor(400));
+    TransferSaga source = sagaOn(0, 400001);
+    assertThat(source.getStatus()).isEqualTo(TransferSaga.COMPLETED);
+    assertThat(sagaOn(1, 400001)).satisfies(target -> {
+      assertThat(target.getId()).isEqualTo(source.getId());
+      assertThat(target.getStatus()).isEqualTo(TransferSaga.CREDITED);
+    });
+  }
+
+  @Test
+  void transferToAMissingAccountOnTheOtherShardDebitsNothing() {
+    open(400002, 1000);
+
+    assertThatThrownBy(() -> accountService.transfer(new TransactionRequest(400002, Money.ofMajor(300), null, 600099)))
+        .hasMessage("Target account not found");
+    assertThat(accountService.getAccount(400002).getBalance()).isEqualTo(Money.ofMajor(1000));
+  }
+
+  @Test
+  void eachShardKeepsItsOwnIdRange() {
+    open(400003, 10);
+    open(600003, 10);
+
+    long idSpace = ShardSchemaInitializer.ID_SPACE_PER_SHARD;
+    assertThat(accountService.getAccount(400003).getId()).isLessThan(idSpace);
+    assertThat(accountService.getAccount(600003).getId()).isGreaterThanOrEqualTo(idSpace);
+  }
+
+  private void open(int accountNumber, long major) {
+    accountService.createAccount(new CreateAccountRequest(accountNumber, "secret", Money.ofMajor(major), "CURRENT"));
+  }
+
+  private TransferSaga sagaOn(int shard, int sourceAccountNumber) {
+    List<TransferSaga> found = ShardContext.on(shard, () -> sagas.findAll()).stream()
+        .filter(saga -> saga.getSourceAccountNumber() == sourceAccountNumber)
+        .toList();
+    assertThat(found).hasSize(1);
+    return found.get(0);
+  }
+}